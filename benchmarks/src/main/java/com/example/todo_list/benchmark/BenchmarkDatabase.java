@@ -0,0 +1,57 @@
+package com.example.todo_list.benchmark;
+
+import com.example.todo_list.Task;
+import com.example.todo_list.TaskRecord;
+import com.example.todo_list.util.DatabaseManager;
+import com.example.todo_list.util.TaskChange;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Points DatabaseManager at an on-disk H2 database in a temporary directory.
+// Must be called before DatabaseManager is first used in the benchmark JVM.
+public final class BenchmarkDatabase {
+    private static final int INSERT_CHUNK_SIZE = 10_000;
+
+    private BenchmarkDatabase() {}
+
+    // Creates a temporary database directory and makes DatabaseManager use it.
+    public static Path useTemporaryDirectory() throws IOException {
+        Path directory = Files.createTempDirectory("todo_list-bench");
+        System.setProperty("todo_list.db.dir", directory.toString());
+        return directory;
+    }
+
+    // Inserts the tasks in chunks through the incremental persistence path. Each task is given the
+    // version of its stored row, so later edits of it are saved.
+    public static void insertAll(List<Task> tasks) {
+        for (int from = 0; from < tasks.size(); from += INSERT_CHUNK_SIZE) {
+            List<TaskChange> chunk = new ArrayList<>(INSERT_CHUNK_SIZE);
+            for (Task task : tasks.subList(from, Math.min(tasks.size(), from + INSERT_CHUNK_SIZE))) {
+                task.setId(DatabaseManager.nextTaskId());
+                chunk.add(TaskChange.add(TaskRecord.of(task)));
+            }
+            DatabaseManager.saveChanges(chunk);
+            for (Task task : tasks.subList(from, Math.min(tasks.size(), from + INSERT_CHUNK_SIZE))) {
+                task.setVersion(task.getVersion() + 1);
+            }
+        }
+    }
+
+    // Deletes the temporary database directory.
+    public static void delete(Path directory) throws IOException {
+        if (directory == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.todo_list.benchmark;
+
+import com.example.todo_list.Task;
+import com.example.todo_list.TaskRecord;
+import com.example.todo_list.util.ColumnarTaskStore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Measures retained heap per task for the object model and for ColumnarTaskStore.
+// Not a JMH benchmark; run with
+//   java -cp target/benchmarks.jar com.example.todo_list.benchmark.HeapPerTask [size] [recurring]
+// Both models hold the same generated dataset and are measured as the difference in used heap
+// after full GCs.
+public final class HeapPerTask {
+    private static final int DEFAULT_SIZE = 1_000_000;
+
+    private HeapPerTask() {}
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SIZE;
+        boolean recurring = args.length > 1 && args[1].equals("recurring");
+        System.out.printf("%-34s %14s %10s%n", "Model (" + size + (recurring ? " recurring" : "") + " tasks)",
+                "retained", "per task");
+
+        long before = usedHeap();
+        List<Task> objects = generate(size, recurring);
+        report("Task objects", usedHeap() - before, size, objects);
+        objects = null;
+
+        before = usedHeap();
+        ColumnarTaskStore store = buildStore(size, recurring);
+        report("Columnar store, no views", usedHeap() - before, size, store);
+
+        // The task list keeps one view per task
+        List<Task> views = new ArrayList<>(size);
+        for (int row = 0; row < store.size(); row++) {
+            views.add(store.view(row));
+        }
+        report("Columnar store + retained views", usedHeap() - before, size, views);
+        System.out.println("Distinct strings in store: " + store.getDistinctStringCount());
+    }
+
+    // Fills a store from the generated dataset. The store keeps the strings of the source tasks,
+    // as it keeps those read by the loader; the source tasks themselves become garbage.
+    private static ColumnarTaskStore buildStore(int size, boolean recurring) {
+        ColumnarTaskStore store = new ColumnarTaskStore();
+        for (Task task : generate(size, recurring)) {
+            store.add(TaskRecord.of(task));
+        }
+        store.trimToSize();
+        return store;
+    }
+
+    // Generates the dataset. Recurring tasks drop the unique number from their descriptions, so
+    // descriptions repeat; each task still gets its own String, as rows read from the database do.
+    private static List<Task> generate(int size, boolean recurring) {
+        List<Task> tasks = TaskDatasets.generate(size, 42);
+        if (recurring) {
+            for (Task task : tasks) {
+                String description = task.getDescription();
+                task.setDescription(description.substring(0, description.lastIndexOf(' ')));
+            }
+        }
+        return tasks;
+    }
+
+    private static void report(String model, long bytes, int size, Object keepAlive) {
+        System.out.printf("%-34s %11.1f MB %8.1f B%n", model, bytes / 1048576.0, (double) bytes / size);
+        // Keeps the measured structure reachable until after the measurement
+        if (keepAlive.hashCode() == 42) {
+            System.out.print("");
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
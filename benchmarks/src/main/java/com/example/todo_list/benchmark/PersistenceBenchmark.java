@@ -0,0 +1,125 @@
+package com.example.todo_list.benchmark;
+
+import com.example.todo_list.Task;
+import com.example.todo_list.TaskRecord;
+import com.example.todo_list.util.DatabaseManager;
+import com.example.todo_list.util.MutationJournal;
+import com.example.todo_list.util.TaskChange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Measures saving edits and loading the table against an on-disk H2 database.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PersistenceBenchmark {
+    private static final int LOAD_PAGE_SIZE = 5000;
+    private static final int EDIT_BATCH_SIZE = 100;
+
+    @Param({"1000", "100000", "1000000"})
+    public int datasetSize;
+
+    private Path databaseDirectory;
+    private List<Task> tasks;
+    private int nextTask;
+    private MutationJournal journal;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        databaseDirectory = BenchmarkDatabase.useTemporaryDirectory();
+        tasks = TaskDatasets.generate(datasetSize, 42);
+        BenchmarkDatabase.insertAll(tasks);
+        journal = new MutationJournal(databaseDirectory.resolve("journal"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        BenchmarkDatabase.delete(databaseDirectory);
+    }
+
+    // One edited task, as written after a single UI action.
+    @Benchmark
+    public void saveSingleEdit() {
+        Task task = nextTask();
+        task.setCompleted(!task.isCompleted());
+        DatabaseManager.saveChanges(List.of(TaskChange.complete(TaskRecord.of(task))));
+        // Saved rows move to the next version, which the next edit of the task is based on
+        task.setVersion(task.getVersion() + 1);
+    }
+
+    // One edited task acknowledged through the mutation journal, as the write-behind queue does.
+    @Benchmark
+    public void appendSingleEdit() {
+        Task task = nextTask();
+        task.setCompleted(!task.isCompleted());
+        journal.append(TaskChange.complete(TaskRecord.of(task))).join();
+    }
+
+    // A burst of edits merged into one transaction by the write-behind queue.
+    @Benchmark
+    public void saveEditBatch() {
+        List<Task> edited = new ArrayList<>(EDIT_BATCH_SIZE);
+        List<TaskChange> changes = new ArrayList<>(EDIT_BATCH_SIZE);
+        for (int i = 0; i < EDIT_BATCH_SIZE; i++) {
+            Task task = nextTask();
+            task.setCompleted(!task.isCompleted());
+            edited.add(task);
+            changes.add(TaskChange.update(TaskRecord.of(task)));
+        }
+        DatabaseManager.saveChanges(changes);
+        for (Task task : edited) {
+            task.setVersion(task.getVersion() + 1);
+        }
+    }
+
+    // Reads the whole table with keyset pagination, as the streaming loader does.
+    @Benchmark
+    public int loadAllPaged() {
+        int maxId = DatabaseManager.getMaxTaskId();
+        int afterId = 0;
+        int loaded = 0;
+        List<Task> page = new ArrayList<>(LOAD_PAGE_SIZE);
+        while (true) {
+            page.clear();
+            int lastId = DatabaseManager.loadTasksPage(afterId, maxId, LOAD_PAGE_SIZE, page);
+            if (lastId == 0) {
+                return loaded;
+            }
+            loaded += page.size();
+            afterId = lastId;
+        }
+    }
+
+    // Reads the whole table in one query.
+    @Benchmark
+    public int loadAll() {
+        return DatabaseManager.loadTasks().size();
+    }
+
+    private Task nextTask() {
+        Task task = tasks.get(nextTask);
+        nextTask = (nextTask + 1) % tasks.size();
+        return task;
+    }
+}
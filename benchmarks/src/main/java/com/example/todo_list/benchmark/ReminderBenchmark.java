@@ -0,0 +1,83 @@
+package com.example.todo_list.benchmark;
+
+import com.example.todo_list.HasDueTime;
+import com.example.todo_list.Task;
+import com.example.todo_list.util.ReminderScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Measures the reminder scheduler against the once-a-minute full scan it replaced.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ReminderBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int datasetSize;
+
+    private List<Task> tasks;
+    private ReminderScheduler scheduler;
+    private int nextTask;
+
+    @Setup
+    public void setUp() {
+        tasks = TaskDatasets.generate(datasetSize, 42);
+        // Events are dropped; only scheduling cost is measured
+        scheduler = new ReminderScheduler(Runnable::run, event -> { });
+        scheduler.scheduleAll(tasks);
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    // Rescheduling after a single task edit.
+    @Benchmark
+    public void rescheduleOne() {
+        Task task = tasks.get(nextTask);
+        nextTask = (nextTask + 1) % tasks.size();
+        scheduler.schedule(task);
+    }
+
+    // The work checkDueTasks did on the FX thread every minute, without showing notifications.
+    @Benchmark
+    public int fullScanBaseline() {
+        LocalDate now = LocalDate.now();
+        LocalTime currentTime = LocalTime.now();
+        int due = 0;
+        for (Task task : tasks) {
+            if (!task.isCompleted() && task.getReminderDate() != null) {
+                String notificationKey = task.getDescription() + "_" + task.getReminderDate();
+                if (task instanceof HasDueTime) {
+                    LocalTime dueTime = ((HasDueTime) task).getDueTime();
+                    if (dueTime != null && task.getReminderDate().isEqual(now) &&
+                        (Math.abs(currentTime.toSecondOfDay() - dueTime.toSecondOfDay()) <= 60 || dueTime.isBefore(currentTime))) {
+                        due += notificationKey.length() > 0 ? 1 : 0;
+                    }
+                } else if (task.getReminderDate().isEqual(now)) {
+                    due += notificationKey.length() > 0 ? 1 : 0;
+                }
+            }
+        }
+        return due;
+    }
+}
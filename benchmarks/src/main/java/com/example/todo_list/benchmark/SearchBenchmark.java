@@ -0,0 +1,67 @@
+package com.example.todo_list.benchmark;
+
+import com.example.todo_list.HasDetails;
+import com.example.todo_list.Task;
+import com.example.todo_list.util.TaskSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Compares the trigram search index with the per-keystroke substring scan it replaced.
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SearchBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int datasetSize;
+
+    @Param({"quarterly review", "milk 12", "ta"})
+    public String query;
+
+    private List<Task> tasks;
+    private TaskSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        tasks = TaskDatasets.generate(datasetSize, 42);
+        index = new TaskSearchIndex();
+        tasks.forEach(index::add);
+    }
+
+    @Benchmark
+    public Set<Task> indexedSearch() {
+        return index.search(query.toLowerCase());
+    }
+
+    // The predicate the search field used to install for every keystroke.
+    @Benchmark
+    public int scanBaseline() {
+        String lowerCaseFilter = query.toLowerCase();
+        int matches = 0;
+        for (Task task : tasks) {
+            if (task.getDescription().toLowerCase().contains(lowerCaseFilter)) {
+                matches++;
+            } else if (task instanceof HasDetails && ((HasDetails) task).getDetails() != null &&
+                       ((HasDetails) task).getDetails().toLowerCase().contains(lowerCaseFilter)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
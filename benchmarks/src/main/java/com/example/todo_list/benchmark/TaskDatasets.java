@@ -0,0 +1,63 @@
+package com.example.todo_list.benchmark;
+
+import com.example.todo_list.DeadlineTask;
+import com.example.todo_list.DetailedTask;
+import com.example.todo_list.SimpleTask;
+import com.example.todo_list.Task;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Generates reproducible mixed datasets of Simple, Detailed and Deadline tasks.
+public final class TaskDatasets {
+    private static final String[] WORDS = {
+        "report", "quarterly", "review", "invoice", "call", "email", "plan", "budget", "draft",
+        "meeting", "groceries", "milk", "dentist", "renew", "license", "backup", "deploy", "fix",
+        "garden", "laundry", "project", "release", "notes", "homework", "gym", "taxes"
+    };
+
+    private TaskDatasets() {}
+
+    // Generates size tasks with descriptions, details, reminder dates and due times drawn from seed.
+    public static List<Task> generate(int size, long seed) {
+        Random random = new Random(seed);
+        LocalDate today = LocalDate.now();
+        List<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String description = words(random, 3) + " " + i;
+            LocalDate reminderDate = random.nextInt(3) == 0 ? null : today.plusDays(random.nextInt(90) - 30);
+            Task task;
+            switch (i % 3) {
+                case 0:
+                    task = new SimpleTask(description);
+                    task.setReminderDate(reminderDate);
+                    break;
+                case 1:
+                    task = new DetailedTask(description, words(random, 8));
+                    task.setReminderDate(reminderDate);
+                    break;
+                default:
+                    LocalTime dueTime = reminderDate != null ? LocalTime.of(random.nextInt(24), random.nextInt(60)) : null;
+                    task = new DeadlineTask(description, reminderDate, dueTime);
+                    break;
+            }
+            task.setCompleted(random.nextInt(4) == 0);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.todo_list;
+
+import java.time.LocalDate;
+
+// Task that keeps its state in its own fields; the base of SimpleTask, DetailedTask and DeadlineTask.
+public abstract class AbstractTask extends Task {
+    // Assigned from the task id sequence when the task is first queued for saving
+    private int id;
+    // The TaskList the task belongs to
+    private int listId = TaskList.DEFAULT_LIST_ID;
+    // Version of the stored row this task was read from, for optimistic concurrency
+    private int version;
+    private String description;
+    private LocalDate reminderDate;
+    private boolean completed;
+    // Rule the task repeats by, or null; the reminder date is then the current occurrence
+    private Recurrence recurrence;
+    // Occurrences completed since the task was loaded, or null
+    private CompletedOccurrences completedOccurrences;
+    private boolean dirty;
+
+    // Constructs a task with a description.
+    protected AbstractTask(String description) {
+        this.description = description;
+        this.completed = false;
+        this.reminderDate = null;
+        this.dirty = true;
+    }
+
+    @Override
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    @Override
+    public int getListId() {
+        return listId;
+    }
+
+    @Override
+    public void setListId(int listId) {
+        this.listId = listId;
+        markDirty();
+    }
+
+    @Override
+    public int getVersion() {
+        return version;
+    }
+
+    @Override
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    @Override
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    @Override
+    public void markClean() {
+        this.dirty = false;
+    }
+
+    @Override
+    protected void markDirty() {
+        this.dirty = true;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public void setDescription(String description) {
+        this.description = validDescription(description);
+        markDirty();
+    }
+
+    @Override
+    public LocalDate getReminderDate() {
+        return reminderDate;
+    }
+
+    @Override
+    public void setReminderDate(LocalDate reminderDate) {
+        this.reminderDate = reminderDate;
+        markDirty();
+    }
+
+    @Override
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    @Override
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+        markDirty();
+    }
+
+    @Override
+    public Recurrence getRecurrence() {
+        return recurrence;
+    }
+
+    @Override
+    public void setRecurrence(Recurrence recurrence) {
+        this.recurrence = recurrence;
+        markDirty();
+    }
+
+    @Override
+    public CompletedOccurrences getCompletedOccurrences() {
+        return completedOccurrences;
+    }
+
+    @Override
+    public void setCompletedOccurrences(CompletedOccurrences completedOccurrences) {
+        this.completedOccurrences = completedOccurrences;
+        markDirty();
+    }
+}
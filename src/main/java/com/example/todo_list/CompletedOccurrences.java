@@ -0,0 +1,121 @@
+package com.example.todo_list;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+// The completed occurrences of a recurring task on or after a date, as a task holds them in memory.
+// A task only gets one once an occurrence is completed after it was loaded; completions before
+// the date are only in the task_occurrences table. Saving the task replaces its stored completions
+// from the date on with these (see DatabaseManager.saveChanges). Immutable.
+public final class CompletedOccurrences {
+    private static final int[] NONE = new int[0];
+
+    private final LocalDate from;
+    // Completed dates as sorted epoch days
+    private final int[] days;
+
+    private CompletedOccurrences(LocalDate from, int[] days) {
+        this.from = from;
+        this.days = days;
+    }
+
+    // No completed occurrences on or after the date.
+    public static CompletedOccurrences startingAt(LocalDate from) {
+        return new CompletedOccurrences(from, NONE);
+    }
+
+    // The given completed occurrences on or after the date. Earlier dates are dropped.
+    public static CompletedOccurrences of(LocalDate from, Collection<LocalDate> dates) {
+        int[] days = dates.stream()
+                .filter(date -> !date.isBefore(from))
+                .mapToInt(date -> Math.toIntExact(date.toEpochDay()))
+                .sorted()
+                .distinct()
+                .toArray();
+        return new CompletedOccurrences(from, days);
+    }
+
+    // Combines the completions of an unsaved change with those of a later change to the same task,
+    // so that saving the result has the effect of saving both in order.
+    public static CompletedOccurrences merge(CompletedOccurrences earlier, CompletedOccurrences later) {
+        if (earlier == null || later == null) {
+            return later != null ? later : earlier;
+        }
+        if (!earlier.from.isBefore(later.from)) {
+            return later;
+        }
+        List<LocalDate> dates = new ArrayList<>(later.getDates());
+        for (LocalDate date : earlier.getDates()) {
+            if (date.isBefore(later.from)) {
+                dates.add(date);
+            }
+        }
+        return of(earlier.from, dates);
+    }
+
+    // Gets the first date these completions cover.
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    // Checks if the occurrence on the date is completed. Only known for dates from getFrom() on.
+    public boolean contains(LocalDate date) {
+        return Arrays.binarySearch(days, Math.toIntExact(date.toEpochDay())) >= 0;
+    }
+
+    // Returns these completions with the occurrence on the date completed as well.
+    public CompletedOccurrences with(LocalDate date) {
+        if (date.isBefore(from)) {
+            throw new IllegalArgumentException(date + " is before " + from);
+        }
+        int day = Math.toIntExact(date.toEpochDay());
+        int index = Arrays.binarySearch(days, day);
+        if (index >= 0) {
+            return this;
+        }
+        int insertAt = -index - 1;
+        int[] copy = new int[days.length + 1];
+        System.arraycopy(days, 0, copy, 0, insertAt);
+        copy[insertAt] = day;
+        System.arraycopy(days, insertAt, copy, insertAt + 1, days.length - insertAt);
+        return new CompletedOccurrences(from, copy);
+    }
+
+    // Returns these completions without the ones before the date, once they are saved.
+    public CompletedOccurrences since(LocalDate date) {
+        if (!date.isAfter(from)) {
+            return this;
+        }
+        int index = Arrays.binarySearch(days, Math.toIntExact(date.toEpochDay()));
+        int first = index >= 0 ? index : -index - 1;
+        return new CompletedOccurrences(date, Arrays.copyOfRange(days, first, days.length));
+    }
+
+    // Gets the completed dates in order.
+    public List<LocalDate> getDates() {
+        List<LocalDate> dates = new ArrayList<>(days.length);
+        for (int day : days) {
+            dates.add(LocalDate.ofEpochDay(day));
+        }
+        return dates;
+    }
+
+    // Returns the number of completed dates.
+    public int size() {
+        return days.length;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof CompletedOccurrences && from.equals(((CompletedOccurrences) other).from)
+                && Arrays.equals(days, ((CompletedOccurrences) other).days);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * from.hashCode() + Arrays.hashCode(days);
+    }
+}
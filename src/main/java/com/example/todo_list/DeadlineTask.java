@@ -3,10 +3,9 @@ package com.example.todo_list;
 import com.example.todo_list.exception.InvalidTaskInputException;
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
 
 // Represents a task that has a specific due date and time.
-public class DeadlineTask extends Task {
+public class DeadlineTask extends AbstractTask implements HasDueTime {
     private LocalTime dueTime;
 
     // Constructs a DeadlineTask with a description, reminder date, and due time.
@@ -20,16 +19,17 @@ public class DeadlineTask extends Task {
     }
 
     // Gets the due time of the task.
+    @Override
     public LocalTime getDueTime() {
         return dueTime;
     }
 
     // Sets the due time of the task.
+    @Override
     public void setDueTime(LocalTime dueTime) {
-        if (dueTime != null && getReminderDate() == null) {
-            throw new InvalidTaskInputException("Due time cannot be set without a reminder date.");
-        }
+        checkDueTime(dueTime);
         this.dueTime = dueTime;
+        markDirty();
     }
 
     // Returns the type of the task.
@@ -37,14 +37,4 @@ public class DeadlineTask extends Task {
     public String getType() {
         return "Deadline";
     }
-
-    // Returns a string representation of the DeadlineTask.
-    @Override
-    public String toString() {
-        StringBuilder sb = new StringBuilder(super.toString());
-        if (dueTime != null) {
-            sb.append(" (Due: ").append(dueTime.format(DateTimeFormatter.ofPattern("HH:mm"))).append(")");
-        }
-        return sb.toString();
-    }
-} 
\ No newline at end of file
+}
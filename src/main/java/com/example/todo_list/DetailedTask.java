@@ -1,9 +1,7 @@
 package com.example.todo_list;
 
-import java.time.LocalDate;
-
 // Represents a task that includes additional details along with its description.
-public class DetailedTask extends Task {
+public class DetailedTask extends AbstractTask implements HasDetails {
     private String details;
 
     // Constructs a DetailedTask with a description and details.
@@ -13,13 +11,16 @@ public class DetailedTask extends Task {
     }
 
     // Gets the details of the task.
+    @Override
     public String getDetails() {
         return details;
     }
 
     // Sets the details of the task.
+    @Override
     public void setDetails(String details) {
         this.details = details != null ? details.trim() : null;
+        markDirty();
     }
 
     // Returns the type of the task.
@@ -27,10 +28,4 @@ public class DetailedTask extends Task {
     public String getType() {
         return "Detailed";
     }
-
-    // Returns a string representation of the DetailedTask.
-    @Override
-    public String toString() {
-        return super.toString() + " [Details: " + (details != null && !details.isEmpty() ? details : "N/A") + "]";
-    }
 } 
\ No newline at end of file
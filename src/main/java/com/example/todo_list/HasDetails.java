@@ -0,0 +1,10 @@
+package com.example.todo_list;
+
+// Implemented by Detailed tasks, which carry details along with their description.
+public interface HasDetails {
+    // Gets the details of the task.
+    String getDetails();
+
+    // Sets the details of the task.
+    void setDetails(String details);
+}
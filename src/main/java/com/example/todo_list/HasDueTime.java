@@ -0,0 +1,12 @@
+package com.example.todo_list;
+
+import java.time.LocalTime;
+
+// Implemented by Deadline tasks, which can have a due time on their reminder date.
+public interface HasDueTime {
+    // Gets the due time of the task.
+    LocalTime getDueTime();
+
+    // Sets the due time of the task.
+    void setDueTime(LocalTime dueTime);
+}
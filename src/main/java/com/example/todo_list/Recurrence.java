@@ -0,0 +1,384 @@
+package com.example.todo_list;
+
+import com.example.todo_list.exception.InvalidTaskInputException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+// Rule by which a task repeats: every N days, every N weeks on given days of the week, or every
+// N months on the day of the month it starts on (the last day in shorter months), from a start
+// date until an end date, for a number of occurrences, or without end.
+// Occurrences are computed when asked for (occurrences(), latestOnOrBefore()) and never stored,
+// so a rule costs the same however far ahead its schedule reaches. Immutable.
+//
+// The text form, used in the tasks table, the journal and the command line, is e.g.
+// "every 2 weeks on mon,thu from 2026-10-19 until 2026-12-31" or "daily from 2026-10-19 count 30".
+public final class Recurrence {
+    // The unit the interval counts in
+    public enum Frequency {
+        DAILY,
+        WEEKLY,
+        MONTHLY
+    }
+
+    private static final int MAX_INTERVAL = 999;
+    private static final String SYNTAX = "Use e.g. \"daily\", \"every 3 days\", \"weekly on mon,thu\", "
+            + "\"every 2 weeks on fri\" or \"monthly\", optionally followed by \"from yyyy-MM-dd\" "
+            + "and \"until yyyy-MM-dd\" or \"count N\".";
+
+    private final Frequency frequency;
+    private final int interval;
+    // Days of a weekly rule as a bit mask, bit 0 for Monday
+    private final int days;
+    private final LocalDate start;
+    // Last possible occurrence, or null
+    private final LocalDate until;
+    // Number of occurrences, or 0 for no limit
+    private final int count;
+
+    private Recurrence(Frequency frequency, int interval, int days, LocalDate start, LocalDate until, int count) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.days = days;
+        this.start = start;
+        this.until = until;
+        this.count = count;
+    }
+
+    // Parses the text form of a rule. A rule without "from" starts on defaultStart.
+    public static Recurrence parse(String text, LocalDate defaultStart) throws InvalidTaskInputException {
+        String[] tokens = text.trim().toLowerCase(Locale.ROOT).replace(",", " , ").split("\\s+");
+        int pos = 0;
+        Frequency frequency;
+        int interval = 1;
+        switch (tokens[pos++]) {
+            case "daily":
+                frequency = Frequency.DAILY;
+                break;
+            case "weekly":
+                frequency = Frequency.WEEKLY;
+                break;
+            case "monthly":
+                frequency = Frequency.MONTHLY;
+                break;
+            case "every":
+                if (pos < tokens.length && !tokens[pos].isEmpty() && Character.isDigit(tokens[pos].charAt(0))) {
+                    interval = parseNumber(tokens[pos++], "interval");
+                }
+                frequency = parseUnit(pos < tokens.length ? tokens[pos++] : "");
+                break;
+            default:
+                throw invalid(text);
+        }
+        if (interval > MAX_INTERVAL) {
+            throw new InvalidTaskInputException("A task can repeat at most every " + MAX_INTERVAL + " periods.");
+        }
+
+        int days = 0;
+        LocalDate start = defaultStart;
+        LocalDate until = null;
+        int count = 0;
+        if (pos < tokens.length && tokens[pos].equals("on")) {
+            if (frequency != Frequency.WEEKLY) {
+                throw new InvalidTaskInputException("Only weekly repeats can be on given days of the week.");
+            }
+            pos++;
+            do {
+                days |= 1 << parseDay(pos < tokens.length ? tokens[pos++] : "").ordinal();
+            } while (pos < tokens.length && tokens[pos].equals(",") && ++pos > 0);
+        }
+        if (pos + 1 < tokens.length && tokens[pos].equals("from")) {
+            start = parseDate(tokens[pos + 1]);
+            pos += 2;
+        }
+        if (pos + 1 < tokens.length && tokens[pos].equals("until")) {
+            until = parseDate(tokens[pos + 1]);
+            pos += 2;
+        } else if (pos + 1 < tokens.length && tokens[pos].equals("count")) {
+            count = parseNumber(tokens[pos + 1], "count");
+            pos += 2;
+        }
+        if (pos < tokens.length) {
+            throw invalid(text);
+        }
+        if (start == null) {
+            throw new InvalidTaskInputException("A repeating task needs a start date.");
+        }
+        if (until != null && until.isBefore(start)) {
+            throw new InvalidTaskInputException("A task cannot repeat until a date before it starts.");
+        }
+        if (frequency == Frequency.WEEKLY && days == 0) {
+            days = 1 << start.getDayOfWeek().ordinal();
+        }
+        return new Recurrence(frequency, interval, days, start, until, count);
+    }
+
+    // Gets the unit the interval counts in.
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    // Gets the number of days, weeks or months between occurrences.
+    public int getInterval() {
+        return interval;
+    }
+
+    // Gets the date the rule starts on. The first occurrence is on or after it.
+    public LocalDate getStart() {
+        return start;
+    }
+
+    // Gets the last date an occurrence can fall on, or null.
+    public LocalDate getUntil() {
+        return until;
+    }
+
+    // Gets the number of occurrences, or 0 if the rule does not end after a number of them.
+    public int getCount() {
+        return count;
+    }
+
+    // Returns the same rule starting on another date.
+    public Recurrence startingOn(LocalDate date) {
+        if (until != null && until.isBefore(date)) {
+            throw new InvalidTaskInputException("A task cannot repeat until a date before it starts.");
+        }
+        return new Recurrence(frequency, interval, days, date, until, count);
+    }
+
+    // Returns the occurrences on or after from, in order. Each one is computed when the iterator
+    // reaches it; the position of the first is computed directly, without stepping through the
+    // occurrences before it.
+    public Iterator<LocalDate> occurrences(LocalDate from) {
+        long first = indexOnOrAfter(from);
+        return new Iterator<>() {
+            private long index = first;
+            private LocalDate next = occurrenceOrNull(first);
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public LocalDate next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                LocalDate date = next;
+                next = occurrenceOrNull(++index);
+                return date;
+            }
+        };
+    }
+
+    // Returns the latest occurrence on or before the date, or null if the first one is after it.
+    public LocalDate latestOnOrBefore(LocalDate date) {
+        long index = indexOnOrAfter(date.plusDays(1)) - 1;
+        if (count > 0) {
+            index = Math.min(index, count - 1);
+        }
+        while (index >= 0 && until != null && occurrence(index).isAfter(until)) {
+            index = Math.min(index - 1, indexOnOrAfter(until.plusDays(1)) - 1);
+        }
+        return index >= 0 ? occurrence(index) : null;
+    }
+
+    // Returns the first occurrence on or after from that is not in completed, or null if there is none.
+    public LocalDate firstOpenOccurrence(LocalDate from, CompletedOccurrences completed) {
+        Iterator<LocalDate> occurrences = occurrences(from);
+        while (occurrences.hasNext()) {
+            LocalDate date = occurrences.next();
+            if (completed == null || !completed.contains(date)) {
+                return date;
+            }
+        }
+        return null;
+    }
+
+    // Returns the rule without its start date, e.g. "weekly on mon,thu until 2026-12-31".
+    public String getRule() {
+        return format(false);
+    }
+
+    // Returns the text form, which parse() reads back.
+    @Override
+    public String toString() {
+        return format(true);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof Recurrence)) {
+            return false;
+        }
+        Recurrence that = (Recurrence) other;
+        return frequency == that.frequency && interval == that.interval && days == that.days
+                && start.equals(that.start) && Objects.equals(until, that.until) && count == that.count;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(frequency, interval, days, start, until, count);
+    }
+
+    private String format(boolean withStart) {
+        StringBuilder sb = new StringBuilder(48);
+        String unit = frequency == Frequency.DAILY ? "day" : frequency == Frequency.WEEKLY ? "week" : "month";
+        if (interval == 1) {
+            sb.append(frequency == Frequency.DAILY ? "daily" : unit + "ly");
+        } else {
+            sb.append("every ").append(interval).append(' ').append(unit).append('s');
+        }
+        if (frequency == Frequency.WEEKLY) {
+            sb.append(" on ");
+            String separator = "";
+            for (DayOfWeek day : DayOfWeek.values()) {
+                if ((days & 1 << day.ordinal()) != 0) {
+                    sb.append(separator).append(day.name().substring(0, 3).toLowerCase(Locale.ROOT));
+                    separator = ",";
+                }
+            }
+        }
+        if (withStart) {
+            sb.append(" from ").append(start);
+        }
+        if (until != null) {
+            sb.append(" until ").append(until);
+        } else if (count > 0) {
+            sb.append(" count ").append(count);
+        }
+        return sb.toString();
+    }
+
+    // Returns the occurrence at the index, or null past the end of the rule.
+    private LocalDate occurrenceOrNull(long index) {
+        if (count > 0 && index >= count) {
+            return null;
+        }
+        LocalDate date = occurrence(index);
+        return until != null && date.isAfter(until) ? null : date;
+    }
+
+    // Returns the occurrence at the index (0 for the first), ignoring the end of the rule.
+    private LocalDate occurrence(long index) {
+        switch (frequency) {
+            case DAILY:
+                return start.plusDays(index * interval);
+            case MONTHLY:
+                // Counted from the start each time, so a month-end start keeps coming back to the month end
+                return start.plusMonths(index * interval);
+            default:
+                int firstWeekDays = Integer.bitCount(days >>> start.getDayOfWeek().ordinal());
+                LocalDate monday = start.minusDays(start.getDayOfWeek().ordinal());
+                long week = 0;
+                long slot = index;
+                if (index >= firstWeekDays) {
+                    int perWeek = Integer.bitCount(days);
+                    week = 1 + (index - firstWeekDays) / perWeek;
+                    slot = (index - firstWeekDays) % perWeek;
+                } else {
+                    // Days before the start do not count in the first week
+                    slot += Integer.bitCount(days & ((1 << start.getDayOfWeek().ordinal()) - 1));
+                }
+                return monday.plusWeeks(week * interval).plusDays(nthDay((int) slot));
+        }
+    }
+
+    // Returns the index of the first occurrence on or after the date, ignoring the end of the rule.
+    private long indexOnOrAfter(LocalDate date) {
+        if (!date.isAfter(start)) {
+            return 0;
+        }
+        long index;
+        switch (frequency) {
+            case DAILY:
+                long daysSince = ChronoUnit.DAYS.between(start, date);
+                return (daysSince + interval - 1) / interval;
+            case MONTHLY:
+                index = ChronoUnit.MONTHS.between(start.withDayOfMonth(1), date.withDayOfMonth(1)) / interval;
+                break;
+            default:
+                LocalDate monday = start.minusDays(start.getDayOfWeek().ordinal());
+                long periods = ChronoUnit.WEEKS.between(monday, date) / interval;
+                index = periods == 0 ? 0
+                        : Integer.bitCount(days >>> start.getDayOfWeek().ordinal())
+                          + (periods - 1) * Integer.bitCount(days);
+                break;
+        }
+        // The estimate is at or just before the answer
+        index = Math.max(0, index - 1);
+        while (occurrence(index).isBefore(date)) {
+            index++;
+        }
+        return index;
+    }
+
+    // Returns the offset from Monday of the n-th day (0 for the first) in the day mask.
+    private int nthDay(int n) {
+        for (int day = 0; day < 7; day++) {
+            if ((days & 1 << day) != 0 && n-- == 0) {
+                return day;
+            }
+        }
+        throw new IllegalStateException("Day " + n + " not in the rule");
+    }
+
+    private static Frequency parseUnit(String unit) {
+        switch (unit) {
+            case "day":
+            case "days":
+                return Frequency.DAILY;
+            case "week":
+            case "weeks":
+                return Frequency.WEEKLY;
+            case "month":
+            case "months":
+                return Frequency.MONTHLY;
+            default:
+                throw new InvalidTaskInputException("Unknown repeat unit \"" + unit + "\". " + SYNTAX);
+        }
+    }
+
+    // Reads a day name, full or shortened to at least three letters.
+    private static DayOfWeek parseDay(String name) {
+        if (name.length() >= 3) {
+            for (DayOfWeek day : DayOfWeek.values()) {
+                if (day.name().toLowerCase(Locale.ROOT).startsWith(name)) {
+                    return day;
+                }
+            }
+        }
+        throw new InvalidTaskInputException("Unknown day of the week \"" + name + "\". " + SYNTAX);
+    }
+
+    private static LocalDate parseDate(String text) {
+        try {
+            return LocalDate.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new InvalidTaskInputException("Invalid date \"" + text + "\" in repeat rule. Please use yyyy-MM-dd.", e);
+        }
+    }
+
+    private static int parseNumber(String text, String what) {
+        try {
+            int number = Integer.parseInt(text);
+            if (number >= 1) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new InvalidTaskInputException("Invalid repeat " + what + " \"" + text + "\": use a whole number of at least 1.");
+    }
+
+    private static InvalidTaskInputException invalid(String text) {
+        return new InvalidTaskInputException("Invalid repeat rule \"" + text.trim() + "\". " + SYNTAX);
+    }
+}
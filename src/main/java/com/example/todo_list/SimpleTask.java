@@ -1,7 +1,7 @@
 package com.example.todo_list;
 
 // Represents a basic task with only a description.
-public class SimpleTask extends Task {
+public class SimpleTask extends AbstractTask {
 
     // Constructs a SimpleTask with a description.
     public SimpleTask(String description) {
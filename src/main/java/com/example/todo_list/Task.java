@@ -1,71 +1,122 @@
 package com.example.todo_list;
 
 import com.example.todo_list.exception.InvalidTaskInputException;
+import com.example.todo_list.util.DateTimeUtil;
 import java.time.LocalDate;
+import java.time.LocalTime;
 
-// Abstract base class for all types of tasks.
+// Abstract base class for all types of tasks. Declares the state every task has but keeps none
+// of it: AbstractTask keeps it in fields, ColumnarTaskStore in its columns. Detailed tasks also
+// implement HasDetails and Deadline tasks HasDueTime.
 public abstract class Task {
-    private String description;
-    private LocalDate reminderDate;
-    private boolean completed;
-
-    // Constructs a Task with a description.
-    public Task(String description) {
-        this.description = description;
-        this.completed = false;
-        this.reminderDate = null;
-    }
+
+    // Gets the database id of the task, or 0 if it has not been queued for saving yet.
+    public abstract int getId();
+
+    // Sets the database id of the task. Called by the persistence layer.
+    public abstract void setId(int id);
+
+    // Gets the id of the list the task belongs to.
+    public abstract int getListId();
+
+    // Moves the task to another list.
+    public abstract void setListId(int listId);
+
+    // Gets the version of the stored row the task was last read from (0 for new tasks).
+    public abstract int getVersion();
+
+    // Sets the version of the stored row. Called by the persistence layer; not a change to the task.
+    public abstract void setVersion(int version);
+
+    // Checks if the task has changes that have not been written to the database.
+    public abstract boolean isDirty();
+
+    // Marks the task as in sync with the database.
+    public abstract void markClean();
+
+    // Marks the task as changed since it was last written to the database.
+    protected abstract void markDirty();
 
     // Gets the description of the task.
-    public String getDescription() {
-        return description;
-    }
+    public abstract String getDescription();
+
+    // Sets the description of the task.
+    public abstract void setDescription(String description);
 
     // Gets the reminder date of the task.
-    public LocalDate getReminderDate() {
-        return reminderDate;
-    }
+    public abstract LocalDate getReminderDate();
 
     // Sets the reminder date of the task.
-    public void setReminderDate(LocalDate reminderDate) {
-        this.reminderDate = reminderDate;
-    }
+    public abstract void setReminderDate(LocalDate reminderDate);
 
     // Checks if the task is completed.
-    public boolean isCompleted() {
-        return completed;
-    }
+    public abstract boolean isCompleted();
 
     // Sets the completion status of the task.
-    public void setCompleted(boolean completed) {
-        this.completed = completed;
-    }
+    public abstract void setCompleted(boolean completed);
 
-    // Sets the description of the task.
-    public void setDescription(String description) {
+    // Gets the rule the task repeats by, or null if it does not repeat.
+    public abstract Recurrence getRecurrence();
+
+    // Sets the rule the task repeats by, or null to stop repeating.
+    public abstract void setRecurrence(Recurrence recurrence);
+
+    // Gets the completed occurrences the task holds in memory, or null if it holds none.
+    public abstract CompletedOccurrences getCompletedOccurrences();
+
+    // Sets the completed occurrences the task holds in memory.
+    public abstract void setCompletedOccurrences(CompletedOccurrences completedOccurrences);
+
+    // Abstract method to get the type of the task (e.g., "Simple", "Detailed").
+    public abstract String getType();
+
+    // Checks a new description and returns it trimmed.
+    protected static String validDescription(String description) {
         if (description == null || description.trim().isEmpty()) {
             throw new InvalidTaskInputException("Description cannot be empty.");
         }
-        this.description = description.trim();
+        return description.trim();
     }
 
-    // Abstract method to get the type of the task (e.g., "Simple", "Detailed").
-    public abstract String getType();
+    // Checks that a due time is only set on a task with a reminder date.
+    protected void checkDueTime(LocalTime dueTime) {
+        if (dueTime != null && getReminderDate() == null) {
+            throw new InvalidTaskInputException("Due time cannot be set without a reminder date.");
+        }
+    }
 
     // Returns a string representation of the Task.
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
         
-        if (completed) {
+        if (isCompleted()) {
             sb.append("[COMPLETED] ");
         }
         
-        sb.append("(").append(getType()).append(") ").append(description);
+        sb.append("(").append(getType()).append(") ").append(getDescription());
         
+        LocalDate reminderDate = getReminderDate();
         if (reminderDate != null) {
             sb.append(" (Reminder: ").append(reminderDate.toString()).append(")");
         }
+
+        Recurrence recurrence = getRecurrence();
+        if (recurrence != null) {
+            sb.append(" (Repeats: ").append(recurrence.getRule()).append(")");
+        }
+
+        if (this instanceof HasDueTime) {
+            LocalTime dueTime = ((HasDueTime) this).getDueTime();
+            if (dueTime != null) {
+                sb.append(" (Due: ").append(dueTime.format(DateTimeUtil.TIME_FORMATTER)).append(")");
+            }
+        }
+
+        if (this instanceof HasDetails) {
+            String details = ((HasDetails) this).getDetails();
+            sb.append(" [Details: ").append(details != null && !details.isEmpty() ? details : "N/A").append("]");
+        }
         
         return sb.toString();
     }
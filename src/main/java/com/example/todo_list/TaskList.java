@@ -0,0 +1,35 @@
+package com.example.todo_list;
+
+// A named list of tasks, such as a project. Every task belongs to exactly one list.
+public final class TaskList {
+    // The list that exists in every database and holds tasks created before lists existed
+    public static final int DEFAULT_LIST_ID = 1;
+    public static final String DEFAULT_LIST_NAME = "Tasks";
+    // Longest name the task_lists table accepts
+    public static final int MAX_NAME_LENGTH = 100;
+
+    private final int id;
+    private final String name;
+
+    // Constructs a TaskList with its database id and name.
+    public TaskList(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    // Gets the database id of the list.
+    public int getId() {
+        return id;
+    }
+
+    // Gets the name of the list.
+    public String getName() {
+        return name;
+    }
+
+    // Returns the name, as shown in the list selector.
+    @Override
+    public String toString() {
+        return name;
+    }
+}
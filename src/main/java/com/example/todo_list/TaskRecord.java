@@ -0,0 +1,202 @@
+package com.example.todo_list;
+
+import com.example.todo_list.exception.InvalidTaskInputException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Immutable snapshot of the persistent fields of a task.
+// Used to hand task state to background threads without sharing the mutable Task object.
+public final class TaskRecord {
+    private final int id;
+    private final String type;
+    private final String description;
+    private final String details;
+    private final LocalDate reminderDate;
+    private final LocalTime dueTime;
+    private final boolean completed;
+    private final int listId;
+    private final int version;
+    private final Recurrence recurrence;
+    // Completed occurrences to store from their start date on, or null to leave the stored ones as they are
+    private final CompletedOccurrences completedOccurrences;
+
+    // Constructs a TaskRecord from individual column values, for a task in the default list.
+    public TaskRecord(int id, String type, String description, String details,
+                      LocalDate reminderDate, LocalTime dueTime, boolean completed) {
+        this(id, type, description, details, reminderDate, dueTime, completed, TaskList.DEFAULT_LIST_ID);
+    }
+
+    // Constructs a TaskRecord from individual column values, including the id of the task's list.
+    public TaskRecord(int id, String type, String description, String details,
+                      LocalDate reminderDate, LocalTime dueTime, boolean completed, int listId) {
+        this(id, type, description, details, reminderDate, dueTime, completed, listId, 0);
+    }
+
+    // Constructs a TaskRecord from individual column values, including the list id and row version.
+    public TaskRecord(int id, String type, String description, String details,
+                      LocalDate reminderDate, LocalTime dueTime, boolean completed, int listId, int version) {
+        this(id, type, description, details, reminderDate, dueTime, completed, listId, version, null, null);
+    }
+
+    // Constructs a TaskRecord from individual column values and the repeat rule and completed
+    // occurrences of a recurring task.
+    public TaskRecord(int id, String type, String description, String details,
+                      LocalDate reminderDate, LocalTime dueTime, boolean completed, int listId, int version,
+                      Recurrence recurrence, CompletedOccurrences completedOccurrences) {
+        this.id = id;
+        this.type = type;
+        this.description = description;
+        this.details = details;
+        this.reminderDate = reminderDate;
+        this.dueTime = dueTime;
+        this.completed = completed;
+        this.listId = listId;
+        this.version = version;
+        this.recurrence = recurrence;
+        this.completedOccurrences = completedOccurrences;
+    }
+
+    // Creates a snapshot of the current state of a task.
+    public static TaskRecord of(Task task) {
+        String details = task instanceof HasDetails ? ((HasDetails) task).getDetails() : null;
+        LocalTime dueTime = task instanceof HasDueTime ? ((HasDueTime) task).getDueTime() : null;
+        return new TaskRecord(task.getId(), task.getType(), task.getDescription(), details,
+                task.getReminderDate(), dueTime, task.isCompleted(), task.getListId(), task.getVersion(),
+                task.getRecurrence(), task.getCompletedOccurrences());
+    }
+
+    // Creates a new task from this snapshot, applying the same validation as the task constructors.
+    // The id is copied; the task is marked as in sync with the database only if it has an id.
+    public Task toTask() {
+        if (description == null || description.trim().isEmpty()) {
+            throw new InvalidTaskInputException("Description cannot be empty.");
+        }
+        Task task;
+        switch (type != null ? type : "") {
+            case "Simple":
+                task = new SimpleTask(description);
+                task.setReminderDate(reminderDate);
+                break;
+            case "Detailed":
+                task = new DetailedTask(description, details);
+                task.setReminderDate(reminderDate);
+                break;
+            case "Deadline":
+                task = new DeadlineTask(description, reminderDate, dueTime);
+                break;
+            default:
+                throw new InvalidTaskInputException("Unknown task type: " + type);
+        }
+        task.setCompleted(completed);
+        task.setRecurrence(recurrence);
+        task.setCompletedOccurrences(completedOccurrences);
+        task.setListId(listId);
+        task.setVersion(version);
+        task.setId(id);
+        if (id != 0) {
+            task.markClean();
+        }
+        return task;
+    }
+
+    // Sets the fields of a task of the same type back to this snapshot, e.g. to undo a change.
+    // The id and list of the task are left as they are.
+    public void applyTo(Task task) {
+        if (!task.getType().equals(type)) {
+            throw new IllegalArgumentException("Cannot apply a " + type + " snapshot to a " + task.getType() + " task");
+        }
+        if (task instanceof HasDueTime) {
+            // Clear first, so the reminder date can be cleared too
+            ((HasDueTime) task).setDueTime(null);
+        }
+        task.setDescription(description);
+        task.setReminderDate(reminderDate);
+        if (task instanceof HasDetails) {
+            ((HasDetails) task).setDetails(details);
+        }
+        if (task instanceof HasDueTime) {
+            ((HasDueTime) task).setDueTime(dueTime);
+        }
+        task.setCompleted(completed);
+        task.setRecurrence(recurrence);
+        if (completedOccurrences != null || task.getCompletedOccurrences() == null) {
+            task.setCompletedOccurrences(completedOccurrences);
+        } else {
+            // Drop the completions made since the snapshot, so saving removes them from the database too
+            task.setCompletedOccurrences(CompletedOccurrences.startingAt(task.getCompletedOccurrences().getFrom()));
+        }
+    }
+
+    // Gets the database id captured with the snapshot (0 if the task was not stored yet).
+    public int getId() {
+        return id;
+    }
+
+    // Gets the task type (e.g., "Simple", "Detailed", "Deadline").
+    public String getType() {
+        return type;
+    }
+
+    // Gets the description of the task.
+    public String getDescription() {
+        return description;
+    }
+
+    // Gets the details of a detailed task, or null.
+    public String getDetails() {
+        return details;
+    }
+
+    // Gets the reminder date, or null.
+    public LocalDate getReminderDate() {
+        return reminderDate;
+    }
+
+    // Gets the due time of a deadline task, or null.
+    public LocalTime getDueTime() {
+        return dueTime;
+    }
+
+    // Checks if the task was completed.
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    // Gets the id of the list the task belongs to.
+    public int getListId() {
+        return listId;
+    }
+
+    // Gets the version of the stored row the snapshot is based on.
+    public int getVersion() {
+        return version;
+    }
+
+    // Gets the rule the task repeats by, or null.
+    public Recurrence getRecurrence() {
+        return recurrence;
+    }
+
+    // Gets the completed occurrences to store, or null.
+    public CompletedOccurrences getCompletedOccurrences() {
+        return completedOccurrences;
+    }
+
+    // Returns a copy of this snapshot with another id.
+    public TaskRecord withId(int id) {
+        return new TaskRecord(id, type, description, details, reminderDate, dueTime, completed, listId, version,
+                recurrence, completedOccurrences);
+    }
+
+    // Returns a copy of this snapshot with another row version.
+    public TaskRecord withVersion(int version) {
+        return new TaskRecord(id, type, description, details, reminderDate, dueTime, completed, listId, version,
+                recurrence, completedOccurrences);
+    }
+
+    // Returns a copy of this snapshot with other completed occurrences.
+    public TaskRecord withCompletedOccurrences(CompletedOccurrences completedOccurrences) {
+        return new TaskRecord(id, type, description, details, reminderDate, dueTime, completed, listId, version,
+                recurrence, completedOccurrences);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.todo_list;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Section of the task list a task is grouped under when grouping by schedule, in display order.
+public enum TaskSection {
+    // The reminder date has passed, or a deadline task's due time today has passed
+    OVERDUE("Overdue"),
+    // The reminder date is today
+    TODAY("Today"),
+    // The reminder date is after today
+    UPCOMING("Upcoming"),
+    // Not completed and without a reminder date
+    NO_DATE("No Date"),
+    // The task is completed
+    COMPLETED("Completed");
+
+    private final String label;
+
+    TaskSection(String label) {
+        this.label = label;
+    }
+
+    // Classifies a task for the given date and time.
+    public static TaskSection of(Task task, LocalDate today, LocalTime now) {
+        if (task.isCompleted()) {
+            return COMPLETED;
+        }
+        LocalDate reminderDate = task.getReminderDate();
+        if (reminderDate == null) {
+            return NO_DATE;
+        }
+        if (reminderDate.isAfter(today)) {
+            return UPCOMING;
+        }
+        if (reminderDate.isBefore(today) || TaskStatus.of(task, today, now) == TaskStatus.OVERDUE) {
+            return OVERDUE;
+        }
+        return TODAY;
+    }
+
+    // Returns the section heading, e.g. "Today".
+    @Override
+    public String toString() {
+        return label;
+    }
+}
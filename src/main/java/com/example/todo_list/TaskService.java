@@ -0,0 +1,353 @@
+package com.example.todo_list;
+
+import com.example.todo_list.exception.InvalidTaskInputException;
+import com.example.todo_list.util.DateTimeUtil;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Objects;
+
+// The rules for creating and changing tasks, without any user interface.
+// Used by the JavaFX controller and by the command-line interface (TodoListCli), so both accept
+// and reject the same input. Methods only validate and change Task objects; saving them is up to
+// the caller. A rule violation is reported as an InvalidTaskInputException whose message can be
+// shown to the user as is.
+//
+// A recurring task keeps its current occurrence as its reminder date: the first occurrence it has
+// not completed, counted from the latest one due by today, so a missed occurrence stays overdue
+// until the next one is due. advanceOccurrence() moves it on when the day changes.
+public class TaskService {
+    // Task types, as returned by Task.getType()
+    public static final String SIMPLE_TASK = "Simple";
+    public static final String DETAILED_TASK = "Detailed";
+    public static final String DEADLINE_TASK = "Deadline";
+    public static final List<String> TASK_TYPES = List.of(SIMPLE_TASK, DETAILED_TASK, DEADLINE_TASK);
+    // Column sizes of the tasks table
+    public static final int MAX_DESCRIPTION_LENGTH = 255;
+    public static final int MAX_DETAILS_LENGTH = 1000;
+
+    // Creates a task of the given type. Details are only used by detailed tasks and the due time
+    // (HH:mm, may be empty) only by deadline tasks.
+    public Task createTask(String type, String description, String details, LocalDate reminderDate,
+                           String dueTimeText) throws InvalidTaskInputException {
+        return createTask(type, description, details, reminderDate, dueTimeText, null);
+    }
+
+    // Creates a task that repeats by the rule in repeatText (see Recurrence; null or empty for a
+    // task that does not repeat). The rule starts on the reminder date, or today without one.
+    public Task createTask(String type, String description, String details, LocalDate reminderDate,
+                           String dueTimeText, String repeatText) throws InvalidTaskInputException {
+        Recurrence recurrence = parseRepeat(repeatText, reminderDate != null ? reminderDate : LocalDate.now());
+        // A repeating task always has a reminder date, so it may have a due time without one being given
+        Task task = buildTask(type, description, details,
+                recurrence != null && reminderDate == null ? LocalDate.now() : reminderDate, dueTimeText);
+        if (recurrence != null) {
+            setRecurrence(task, recurrence);
+        }
+        return task;
+    }
+
+    private Task buildTask(String type, String description, String details, LocalDate reminderDate,
+                           String dueTimeText) throws InvalidTaskInputException {
+        String trimmedDescription = requireDescription(description);
+        if (reminderDate != null && reminderDate.isBefore(LocalDate.now())) {
+            throw new InvalidTaskInputException("Reminder date cannot be in the past.");
+        }
+
+        Task task;
+        switch (type != null ? type : "") {
+            case SIMPLE_TASK:
+                task = new SimpleTask(trimmedDescription);
+                if (reminderDate != null) {
+                    task.setReminderDate(reminderDate);
+                }
+                break;
+            case DETAILED_TASK:
+                task = new DetailedTask(trimmedDescription, requireDetails(details));
+                if (reminderDate != null) {
+                    task.setReminderDate(reminderDate);
+                }
+                break;
+            case DEADLINE_TASK:
+                LocalTime dueTime = parseDueTime(dueTimeText);
+                checkDueTimeNotPast(reminderDate, dueTime);
+                task = new DeadlineTask(trimmedDescription, reminderDate, dueTime);
+                break;
+            default:
+                throw new InvalidTaskInputException("Unknown task type: " + type);
+        }
+        return task;
+    }
+
+    // Applies new values to a task. Returns the task itself, or a new task of the new type when
+    // the type changes; the caller then replaces the old task with it.
+    // Clearing the reminder date of a deadline task also clears its due time (see clearsDueTime).
+    public Task updateTask(Task task, String type, String description, String details, LocalDate reminderDate,
+                           String dueTimeText) throws InvalidTaskInputException {
+        return updateTask(task, type, description, details, reminderDate, dueTimeText, null);
+    }
+
+    // Applies new values to a task, including its repeat rule: null keeps the rule, an empty text
+    // stops the task repeating. A rule that differs from the current one, or a new reminder date,
+    // restarts the series on the reminder date (today without one).
+    public Task updateTask(Task task, String type, String description, String details, LocalDate reminderDate,
+                           String dueTimeText, String repeatText) throws InvalidTaskInputException {
+        Recurrence current = task.getRecurrence();
+        Recurrence recurrence = current;
+        if (repeatText != null) {
+            recurrence = parseRepeat(repeatText, reminderDate != null ? reminderDate : LocalDate.now());
+            if (recurrence != null && current != null && recurrence.getRule().equals(current.getRule())
+                    && Objects.equals(reminderDate, task.getReminderDate())
+                    && recurrence.getStart().equals(reminderDate)) {
+                recurrence = current;
+            }
+        }
+        if (recurrence != null && recurrence == current) {
+            if (reminderDate == null) {
+                throw new InvalidTaskInputException("A repeating task needs a reminder date.");
+            }
+            if (!reminderDate.equals(task.getReminderDate())) {
+                recurrence = current.startingOn(reminderDate);
+                requireOccurrence(recurrence);
+            }
+        }
+
+        Task result = applyUpdate(task, type, description, details, reminderDate, dueTimeText);
+        if (result != task) {
+            // A new task has no stored completions; its reminder date is already the current occurrence
+            result.setRecurrence(current);
+        }
+        if (recurrence != current) {
+            setRecurrence(result, recurrence);
+        }
+        return result;
+    }
+
+    private Task applyUpdate(Task task, String type, String description, String details, LocalDate reminderDate,
+                             String dueTimeText) throws InvalidTaskInputException {
+        if (task.isCompleted()) {
+            throw new InvalidTaskInputException("Completed tasks cannot be updated.");
+        }
+        if (reminderDate != null && reminderDate.isBefore(LocalDate.now())
+                && !reminderDate.equals(task.getReminderDate())) {
+            throw new InvalidTaskInputException("Reminder date cannot be set to a date in the past.");
+        }
+        String trimmedDescription = requireDescription(description);
+        String trimmedDetails = DETAILED_TASK.equals(type) ? requireDetails(details) : trim(details);
+        LocalTime dueTime = parseDueTime(dueTimeText);
+        if (DEADLINE_TASK.equals(type)) {
+            checkDueTimeNotPast(reminderDate, dueTime);
+        }
+
+        if (!task.getType().equals(type)) {
+            Task newTask;
+            switch (type != null ? type : "") {
+                case SIMPLE_TASK:
+                    newTask = new SimpleTask(trimmedDescription);
+                    break;
+                case DETAILED_TASK:
+                    newTask = new DetailedTask(trimmedDescription, trimmedDetails);
+                    break;
+                case DEADLINE_TASK:
+                    newTask = new DeadlineTask(trimmedDescription, reminderDate, dueTime);
+                    break;
+                default:
+                    throw new InvalidTaskInputException("Invalid task type: " + type);
+            }
+            newTask.setCompleted(task.isCompleted());
+            newTask.setListId(task.getListId());
+            if (!(newTask instanceof HasDueTime)) {
+                newTask.setReminderDate(reminderDate != null ? reminderDate : task.getReminderDate());
+            } else if (reminderDate != null) {
+                newTask.setReminderDate(reminderDate);
+            }
+            return newTask;
+        }
+
+        task.setDescription(trimmedDescription);
+        task.setReminderDate(reminderDate);
+        if (task instanceof HasDetails) {
+            ((HasDetails) task).setDetails(trimmedDetails);
+        }
+        if (task instanceof HasDueTime) {
+            if (reminderDate == null && ((HasDueTime) task).getDueTime() != null) {
+                ((HasDueTime) task).setDueTime(null);
+            }
+            ((HasDueTime) task).setDueTime(dueTime);
+        }
+        return task;
+    }
+
+    // Checks if updateTask with this reminder date clears the due time of the task.
+    public boolean clearsDueTime(Task task, LocalDate reminderDate) {
+        return task instanceof HasDueTime && reminderDate == null && ((HasDueTime) task).getDueTime() != null;
+    }
+
+    // Sets or clears the reminder date of a task. A deadline task with a due time needs a reminder date.
+    // A recurring task always needs one; its series restarts on the new date.
+    public void setReminder(Task task, LocalDate reminderDate) throws InvalidTaskInputException {
+        if (task.getRecurrence() != null) {
+            if (reminderDate == null) {
+                throw new InvalidTaskInputException("A repeating task needs a reminder date.");
+            }
+            Recurrence restarted = task.getRecurrence().startingOn(reminderDate);
+            requireOccurrence(restarted);
+            setRecurrence(task, restarted);
+            return;
+        }
+        if (reminderDate == null) {
+            if (!(task instanceof HasDueTime && ((HasDueTime) task).getDueTime() != null)) {
+                throw new InvalidTaskInputException("Please select a date for the reminder.");
+            }
+            throw new InvalidTaskInputException("Cannot clear reminder date for a Deadline Task that has a due time. "
+                    + "Clear due time first or set a new date.");
+        }
+        task.setReminderDate(reminderDate);
+    }
+
+    // Marks a task as complete. Returns false if it already was.
+    // For a recurring task only the current occurrence is completed, and the reminder date moves
+    // to the next open one; the task itself is completed once the rule has no occurrences left.
+    public boolean completeTask(Task task) {
+        if (task.isCompleted()) {
+            return false;
+        }
+        LocalDate occurrence = task.getRecurrence() != null ? currentOccurrence(task, LocalDate.now()) : null;
+        if (occurrence == null) {
+            task.setCompleted(true);
+            return true;
+        }
+        CompletedOccurrences completed = task.getCompletedOccurrences();
+        if (completed == null) {
+            completed = CompletedOccurrences.startingAt(occurrence);
+        }
+        task.setCompletedOccurrences(completed.with(occurrence));
+        advanceOccurrence(task);
+        return true;
+    }
+
+    // Sets or clears the rule a task repeats by and moves its reminder date to the current occurrence.
+    // Completions of occurrences before both the new start and the old current occurrence are kept;
+    // those from there on are dropped when the task is saved. A task that stops repeating keeps
+    // its reminder date and all its completions.
+    public void setRecurrence(Task task, Recurrence recurrence) {
+        if (recurrence != null) {
+            LocalDate from = recurrence.getStart();
+            if (task.getRecurrence() != null) {
+                CompletedOccurrences completed = task.getCompletedOccurrences();
+                LocalDate done = completed != null ? completed.getFrom() : task.getReminderDate();
+                if (done != null && done.isBefore(from)) {
+                    from = done;
+                }
+            }
+            task.setCompletedOccurrences(CompletedOccurrences.startingAt(from));
+        }
+        task.setRecurrence(recurrence);
+        if (recurrence != null) {
+            advanceOccurrence(task);
+        }
+    }
+
+    // Moves the reminder date of a recurring task to its current occurrence as of today, completing
+    // the task if the rule has ended. Returns true if the task changed and needs saving.
+    public boolean advanceOccurrence(Task task) {
+        if (task.getRecurrence() == null || task.isCompleted()) {
+            return false;
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate occurrence = currentOccurrence(task, today);
+        if (occurrence == null) {
+            task.setCompleted(true);
+            return true;
+        }
+        if (occurrence.equals(task.getReminderDate())) {
+            return false;
+        }
+        task.setReminderDate(occurrence);
+        CompletedOccurrences completed = task.getCompletedOccurrences();
+        if (completed != null) {
+            // Completions before the search start can no longer matter once saved
+            task.setCompletedOccurrences(completed.since(searchStart(task, today)));
+        }
+        return true;
+    }
+
+    // Returns the first open occurrence of a recurring task on or after searchStart(), or null if there is none.
+    private static LocalDate currentOccurrence(Task task, LocalDate today) {
+        return task.getRecurrence().firstOpenOccurrence(searchStart(task, today), task.getCompletedOccurrences());
+    }
+
+    // The later of the latest occurrence due by today and the date before which all occurrences are
+    // known to be done: the start of the completions held in memory, else the stored reminder date.
+    private static LocalDate searchStart(Task task, LocalDate today) {
+        Recurrence recurrence = task.getRecurrence();
+        LocalDate latest = recurrence.latestOnOrBefore(today);
+        LocalDate start = latest != null ? latest : recurrence.getStart();
+        CompletedOccurrences completed = task.getCompletedOccurrences();
+        LocalDate done = completed != null ? completed.getFrom() : task.getReminderDate();
+        return done != null && done.isAfter(start) ? done : start;
+    }
+
+    private static Recurrence parseRepeat(String repeatText, LocalDate defaultStart) throws InvalidTaskInputException {
+        if (repeatText == null || repeatText.trim().isEmpty()) {
+            return null;
+        }
+        Recurrence recurrence = Recurrence.parse(repeatText, defaultStart);
+        requireOccurrence(recurrence);
+        return recurrence;
+    }
+
+    private static void requireOccurrence(Recurrence recurrence) throws InvalidTaskInputException {
+        if (!recurrence.occurrences(recurrence.getStart()).hasNext()) {
+            throw new InvalidTaskInputException("The repeat rule has no occurrences.");
+        }
+    }
+
+    // Checks that a description and details fit their columns, so a task that is accepted can
+    // always be saved. Details may be null.
+    public static void checkLengths(String description, String details) throws InvalidTaskInputException {
+        if (description.length() > MAX_DESCRIPTION_LENGTH) {
+            throw new InvalidTaskInputException("Description is longer than " + MAX_DESCRIPTION_LENGTH + " characters.");
+        }
+        if (details != null && details.length() > MAX_DETAILS_LENGTH) {
+            throw new InvalidTaskInputException("Details are longer than " + MAX_DETAILS_LENGTH + " characters.");
+        }
+    }
+
+    private static String requireDescription(String description) throws InvalidTaskInputException {
+        String trimmed = trim(description);
+        if (trimmed.isEmpty()) {
+            throw new InvalidTaskInputException("Task description cannot be empty.");
+        }
+        checkLengths(trimmed, null);
+        return trimmed;
+    }
+
+    private static String requireDetails(String details) throws InvalidTaskInputException {
+        String trimmed = trim(details);
+        checkLengths("", trimmed);
+        return trimmed;
+    }
+
+    private static LocalTime parseDueTime(String dueTimeText) throws InvalidTaskInputException {
+        try {
+            return DateTimeUtil.parseTime(dueTimeText);
+        } catch (DateTimeParseException e) {
+            throw new InvalidTaskInputException("Invalid due time format. Please use HH:mm.", e);
+        }
+    }
+
+    // A deadline task due today cannot be due at a time that has already passed.
+    private static void checkDueTimeNotPast(LocalDate reminderDate, LocalTime dueTime) throws InvalidTaskInputException {
+        if (reminderDate != null && reminderDate.isEqual(LocalDate.now())
+                && dueTime != null && dueTime.isBefore(LocalTime.now())) {
+            throw new InvalidTaskInputException("Due time for a task due today cannot be in the past.");
+        }
+    }
+
+    private static String trim(String text) {
+        return text != null ? text.trim() : "";
+    }
+}
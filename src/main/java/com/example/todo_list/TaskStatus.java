@@ -0,0 +1,63 @@
+package com.example.todo_list;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+// Display status of a task at a point in time.
+public enum TaskStatus {
+    // The task is completed
+    COMPLETED,
+    // A deadline task due today whose due time has passed
+    OVERDUE,
+    // The reminder date is today or earlier
+    DUE,
+    // Not completed and not yet due
+    PENDING;
+
+    // Classifies a task for the given date and time.
+    public static TaskStatus of(Task task, LocalDate today, LocalTime now) {
+        LocalTime dueTime = task instanceof HasDueTime ? ((HasDueTime) task).getDueTime() : null;
+        return of(task.isCompleted(), task.getReminderDate(), dueTime, today, now);
+    }
+
+    // Classifies a task snapshot for the given date and time.
+    public static TaskStatus of(TaskRecord record, LocalDate today, LocalTime now) {
+        return of(record.isCompleted(), record.getReminderDate(), record.getDueTime(), today, now);
+    }
+
+    private static TaskStatus of(boolean completed, LocalDate reminderDate, LocalTime dueTime,
+                                 LocalDate today, LocalTime now) {
+        if (completed) {
+            return COMPLETED;
+        }
+        if (reminderDate == null || reminderDate.isAfter(today)) {
+            return PENDING;
+        }
+        if (dueTime != null && reminderDate.isEqual(today) && dueTime.isBefore(now)) {
+            return OVERDUE;
+        }
+        return DUE;
+    }
+
+    // Returns the first instant after now at which of() may classify the task differently,
+    // or null if its status can only change when the task itself changes.
+    public static LocalDateTime nextChange(Task task, LocalDateTime now) {
+        LocalDate reminderDate = task.getReminderDate();
+        if (task.isCompleted() || reminderDate == null) {
+            return null;
+        }
+        LocalDate today = now.toLocalDate();
+        if (reminderDate.isAfter(today)) {
+            // Becomes due at the start of the reminder date
+            return reminderDate.atStartOfDay();
+        }
+        LocalTime dueTime = task instanceof HasDueTime ? ((HasDueTime) task).getDueTime() : null;
+        if (dueTime == null || !reminderDate.isEqual(today)) {
+            return null;
+        }
+        LocalDateTime overdueAt = reminderDate.atTime(dueTime).plusNanos(1);
+        // Overdue from just after the due time until the end of the day, then due again
+        return now.isBefore(overdueAt) ? overdueAt : reminderDate.plusDays(1).atStartOfDay();
+    }
+}
@@ -8,23 +8,32 @@ import javafx.scene.Scene;
 import javafx.stage.Stage;
 import javafx.stage.WindowEvent;
 import com.example.todo_list.util.DatabaseManager;
+import com.example.todo_list.util.Metrics;
+import com.example.todo_list.util.StartupTimings;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.concurrent.CompletableFuture;
 
 // Main application class for the To-Do List.
 public class TodoListApplication extends Application {
     private TodoListController controller;
 
     // Starts the JavaFX application, setting up the primary stage and scene.
+    // The database is opened on a background thread while the FXML and stylesheet are loaded,
+    // and the window is shown before the stored tasks have been read.
     @Override
     public void start(Stage stage) {
+        StartupTimings.mark("javafx started");
+        CompletableFuture<Void> databaseReady = DatabaseManager.initializeAsync();
+        if (isH2ConsoleRequested()) {
+            databaseReady.thenRun(DatabaseManager::startH2Console);
+        }
+
         try {
-            // Start H2 Console
-            DatabaseManager.startH2Console();
-            
             FXMLLoader fxmlLoader = new FXMLLoader(TodoListApplication.class.getResource("/com/example/todo_list/todo-list-view.fxml"));
             Scene scene = new Scene(fxmlLoader.load(), 550, 500);
+            StartupTimings.mark("fxml loaded");
             
             URL cssUrl = TodoListApplication.class.getResource("/com/example/todo_list/styles.css");
             if (cssUrl != null) {
@@ -34,10 +43,26 @@ public class TodoListApplication extends Application {
             }
             
             controller = fxmlLoader.getController();
+            int httpApiPort = getHttpApiPort();
+            if (httpApiPort >= 0) {
+                try {
+                    controller.startHttpApi(httpApiPort);
+                } catch (IOException e) {
+                    System.err.println("Failed to start the task API on port " + httpApiPort + ": " + e.getMessage());
+                }
+            }
             
             stage.setTitle("To-Do List");
             stage.setScene(scene);
+            scene.addPostLayoutPulseListener(new Runnable() {
+                @Override
+                public void run() {
+                    StartupTimings.mark("first frame");
+                    scene.removePostLayoutPulseListener(this);
+                }
+            });
             stage.show();
+            StartupTimings.mark("window shown");
             
             // Add window close handler
             stage.setOnCloseRequest((WindowEvent event) -> {
@@ -47,19 +72,44 @@ public class TodoListApplication extends Application {
             });
         } catch (IOException e) {
             String errorMessage = "Failed to initialize the application UI. Please check application resources.";
-            AlertUtil.showAlert("Application Error", "Fatal Error: " + errorMessage + "\nDetails: " + e.getMessage());
+            AlertUtil.showAlertAndWait("Application Error", "Fatal Error: " + errorMessage + "\nDetails: " + e.getMessage());
             throw new AppInitializationException(errorMessage, e);
         }
     }
 
+    // Checks if the H2 web console was asked for with --h2-console or -Dtodo_list.h2Console=true.
+    private boolean isH2ConsoleRequested() {
+        return Boolean.getBoolean("todo_list.h2Console") || getParameters().getRaw().contains("--h2-console");
+    }
+
+    // Returns the port of the local HTTP API, given with --http-port=<port> or
+    // -Dtodo_list.httpPort=<port>, or -1 if it was not asked for.
+    private int getHttpApiPort() {
+        String port = getParameters().getNamed().get("http-port");
+        if (port == null) {
+            port = System.getProperty("todo_list.httpPort");
+        }
+        if (port == null) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(port.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid HTTP API port: " + port);
+            return -1;
+        }
+    }
+
     @Override
     public void stop() {
-        // Stop H2 Console when application closes
+        // Stop H2 Console when application closes (if it was started)
         DatabaseManager.stopH2Console();
+        Metrics.logIfEnabled();
     }
 
     // Main method to launch the application.
     public static void main(String[] args) {
-        launch();
+        StartupTimings.mark("main");
+        launch(args);
     }
 } 
\ No newline at end of file
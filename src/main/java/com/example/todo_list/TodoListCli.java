@@ -0,0 +1,436 @@
+package com.example.todo_list;
+
+import com.example.todo_list.exception.DataPersistenceException;
+import com.example.todo_list.exception.InvalidTaskInputException;
+import com.example.todo_list.util.CsvTaskFormat;
+import com.example.todo_list.util.DatabaseManager;
+import com.example.todo_list.util.JsonLinesTaskFormat;
+import com.example.todo_list.util.Metrics;
+import com.example.todo_list.util.SearchQuery;
+import com.example.todo_list.util.TaskChange;
+import com.example.todo_list.util.TaskQuery;
+import com.example.todo_list.util.TaskRecordFormat;
+import com.example.todo_list.util.TaskTransfer;
+import com.example.todo_list.util.TaskWriteBehindQueue;
+import com.example.todo_list.util.TransferResult;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Command-line entry point for scripted work on the task database, without JavaFX.
+// Works on the same database as the application (see -Dtodo_list.db.dir), which must not be
+// running at the same time. New tasks go through the same TaskService rules as the UI.
+// Run with: java -cp <classes and H2 jar> com.example.todo_list.TodoListCli <command> [arguments]
+public final class TodoListCli {
+    private static final String USAGE = String.join("\n",
+            "Usage: TodoListCli <command> [arguments]",
+            "  add <type> <description> [--details <text>] [--date <yyyy-MM-dd>] [--time <HH:mm>]",
+            "      [--repeat <rule>]",
+            "                      type is Simple, Detailed or Deadline; rule e.g. 'weekly on mon,thu until 2026-12-31'",
+            "  complete <id>...    marks tasks as complete, or the current occurrence of recurring tasks;",
+            "                      '-' reads ids from standard input",
+            "  occurrences <id> [--from <yyyy-MM-dd>] [--limit <n>]",
+            "                      lists the occurrences of a recurring task from a date (default today)",
+            "                      as date<TAB>completed|missed|open",
+            "  purge               deletes all completed tasks",
+            "  query [--status pending|due|overdue|completed] [--type <type>] [--search <search>]",
+            "        [--format text|csv|jsonl]",
+            "                      writes matching tasks to standard output; text is id<TAB>task;",
+            "                      search as in the search box, e.g. 'type:deadline due:<2026-11-01 is:open report'",
+            "  count [--status pending|due|overdue|completed] [--type <type>]",
+            "                      prints the number of matching tasks",
+            "  import <file>       imports a .csv or .jsonl file",
+            "  export <file>       exports all tasks to a .csv or .jsonl file");
+    private static final int EXIT_ERROR = 1;
+    private static final int EXIT_USAGE = 2;
+    private static final int QUERY_PAGE_SIZE = 5000;
+
+    private final TaskService taskService = new TaskService();
+    private final Writer out;
+
+    private TodoListCli(Writer out) {
+        this.out = out;
+    }
+
+    public static void main(String[] args) {
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 64 * 1024);
+        int status;
+        try {
+            status = new TodoListCli(out).run(args);
+        } catch (UsageException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            status = EXIT_USAGE;
+        } catch (InvalidTaskInputException | DataPersistenceException e) {
+            System.err.println("Error: " + e.getMessage());
+            status = EXIT_ERROR;
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            status = EXIT_ERROR;
+        }
+        try {
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            status = EXIT_ERROR;
+        }
+        Metrics.logIfEnabled();
+        System.exit(status);
+    }
+
+    private int run(String[] args) throws IOException {
+        if (args.length == 0) {
+            throw new UsageException("No command given.");
+        }
+        String command = args[0];
+        List<String> arguments = Arrays.asList(args).subList(1, args.length);
+        switch (command) {
+            case "add":
+                return add(arguments);
+            case "complete":
+                return complete(arguments);
+            case "occurrences":
+                return occurrences(arguments);
+            case "purge":
+                return purge(arguments);
+            case "query":
+                return query(arguments);
+            case "count":
+                return count(arguments);
+            case "import":
+                return transfer(arguments, true);
+            case "export":
+                return transfer(arguments, false);
+            case "help":
+            case "--help":
+                println(USAGE);
+                return 0;
+            default:
+                throw new UsageException("Unknown command: " + command);
+        }
+    }
+
+    private int add(List<String> arguments) throws IOException {
+        Options options = new Options(arguments, "--details", "--date", "--time", "--repeat");
+        if (options.positional.size() != 2) {
+            throw new UsageException("add needs a type and a description.");
+        }
+        LocalDate reminderDate = null;
+        if (options.get("--date") != null) {
+            try {
+                reminderDate = LocalDate.parse(options.get("--date"));
+            } catch (DateTimeParseException e) {
+                throw new InvalidTaskInputException("Invalid reminder date format. Please use yyyy-MM-dd.", e);
+            }
+        }
+        Task task = taskService.createTask(options.positional.get(0), options.positional.get(1),
+                options.get("--details"), reminderDate, options.get("--time"), options.get("--repeat"));
+
+        openDatabase();
+        task.setId(DatabaseManager.nextTaskId());
+        DatabaseManager.saveChanges(List.of(TaskChange.add(TaskRecord.of(task))));
+        println("Added task " + task.getId() + ": " + task);
+        return 0;
+    }
+
+    private int complete(List<String> arguments) throws IOException {
+        if (arguments.isEmpty()) {
+            throw new UsageException("complete needs at least one task id.");
+        }
+        List<String> idTexts = arguments;
+        if (arguments.equals(List.of("-"))) {
+            idTexts = new ArrayList<>();
+            BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!line.isBlank()) {
+                    idTexts.add(line.trim());
+                }
+            }
+        }
+        int[] ids = new int[idTexts.size()];
+        for (int i = 0; i < ids.length; i++) {
+            try {
+                ids[i] = Integer.parseInt(idTexts.get(i));
+            } catch (NumberFormatException e) {
+                throw new UsageException("Not a task id: " + idTexts.get(i));
+            }
+        }
+
+        openDatabase();
+        int completed = DatabaseManager.completeTasks(ids);
+        // Recurring tasks were left alone by the bulk update; only their current occurrence is completed
+        List<Integer> idList = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            idList.add(id);
+        }
+        List<TaskChange> changes = new ArrayList<>();
+        List<String> messages = new ArrayList<>();
+        for (TaskRecord record : DatabaseManager.loadTasksById(idList).values()) {
+            if (record.getRecurrence() == null || record.isCompleted()) {
+                continue;
+            }
+            Task task = record.toTask();
+            taskService.completeTask(task);
+            changes.add(TaskChange.update(TaskRecord.of(task)));
+            messages.add(task.isCompleted()
+                    ? "Completed the last occurrence of task " + task.getId() + "."
+                    : "Completed an occurrence of task " + task.getId() + "; next on " + task.getReminderDate() + ".");
+        }
+        List<Integer> conflicts = DatabaseManager.saveChanges(changes);
+        if (!conflicts.isEmpty()) {
+            throw new DataPersistenceException("Tasks " + conflicts + " changed while being completed; try again.");
+        }
+        for (String message : messages) {
+            println(message);
+        }
+        println("Completed " + (completed + changes.size()) + " of " + ids.length + " tasks.");
+        return 0;
+    }
+
+    // Lists the occurrences of a recurring task, generated from its rule as they are printed.
+    // Only the completed ones are read from the database.
+    private int occurrences(List<String> arguments) throws IOException {
+        Options options = new Options(arguments, "--from", "--limit");
+        if (options.positional.size() != 1) {
+            throw new UsageException("occurrences needs a task id.");
+        }
+        int id;
+        int limit = 10;
+        try {
+            id = Integer.parseInt(options.positional.get(0));
+            if (options.get("--limit") != null) {
+                limit = Integer.parseInt(options.get("--limit"));
+            }
+        } catch (NumberFormatException e) {
+            throw new UsageException("Not a number: " + e.getMessage());
+        }
+        LocalDate from = LocalDate.now();
+        if (options.get("--from") != null) {
+            try {
+                from = LocalDate.parse(options.get("--from"));
+            } catch (DateTimeParseException e) {
+                throw new InvalidTaskInputException("Invalid date format. Please use yyyy-MM-dd.", e);
+            }
+        }
+
+        openDatabase();
+        TaskRecord record = DatabaseManager.loadTasksById(List.of(id)).get(id);
+        if (record == null) {
+            throw new InvalidTaskInputException("Task " + id + " not found.");
+        }
+        if (record.getRecurrence() == null) {
+            throw new InvalidTaskInputException("Task " + id + " does not repeat.");
+        }
+        List<LocalDate> dates = new ArrayList<>(Math.min(limit, QUERY_PAGE_SIZE));
+        Iterator<LocalDate> occurrences = record.getRecurrence().occurrences(from);
+        while (dates.size() < limit && occurrences.hasNext()) {
+            dates.add(occurrences.next());
+        }
+        if (dates.isEmpty()) {
+            return 0;
+        }
+        Set<LocalDate> completed = DatabaseManager.loadCompletedOccurrences(id, dates.get(0), dates.get(dates.size() - 1));
+        // Occurrences before the stored one are done: completed, or missed if not recorded as completed
+        LocalDate current = record.isCompleted() ? LocalDate.MAX : record.getReminderDate();
+        for (LocalDate date : dates) {
+            String state = completed.contains(date) ? "completed"
+                    : current != null && date.isBefore(current) ? "missed" : "open";
+            println(date + "\t" + state);
+        }
+        return 0;
+    }
+
+    private int purge(List<String> arguments) throws IOException {
+        expectNoArguments(arguments);
+        openDatabase();
+        println("Deleted " + DatabaseManager.deleteCompletedTasks() + " completed tasks.");
+        return 0;
+    }
+
+    // Streams the matching tasks page by page. Status, type and the type, status and date clauses
+    // of the search are filtered by the database; the rest of the search is checked here.
+    private int query(List<String> arguments) throws IOException {
+        Options options = new Options(arguments, "--status", "--type", "--search", "--format");
+        if (!options.positional.isEmpty()) {
+            throw new UsageException("Unexpected argument: " + options.positional.get(0));
+        }
+        TaskQuery query = parseQuery(options);
+        SearchQuery search = null;
+        if (options.get("--search") != null) {
+            search = SearchQuery.parse(options.get("--search"));
+            if (!search.getErrors().isEmpty()) {
+                throw new UsageException(String.join("\n", search.getErrors()));
+            }
+            query = search.pushDown(query);
+        }
+        // Null for the text format
+        TaskRecordFormat format;
+        String formatName = options.get("--format") != null ? options.get("--format") : "text";
+        switch (formatName) {
+            case "text":
+                format = null;
+                break;
+            case "csv":
+                format = new CsvTaskFormat();
+                break;
+            case "jsonl":
+                format = new JsonLinesTaskFormat();
+                break;
+            default:
+                throw new UsageException("Unknown format: " + formatName);
+        }
+
+        openDatabase();
+        if (format != null && format.getHeader() != null) {
+            println(format.getHeader());
+        }
+        int afterId = 0;
+        List<Task> page = new ArrayList<>(QUERY_PAGE_SIZE);
+        while (true) {
+            page.clear();
+            int lastId = DatabaseManager.queryTasks(query, afterId, QUERY_PAGE_SIZE, page);
+            if (lastId == 0) {
+                break;
+            }
+            for (Task task : page) {
+                if (search != null && !search.matches(task, null)) {
+                    continue;
+                }
+                println(format != null ? format.format(TaskRecord.of(task)) : task.getId() + "\t" + task);
+            }
+            afterId = lastId;
+        }
+        return 0;
+    }
+
+    private int count(List<String> arguments) throws IOException {
+        Options options = new Options(arguments, "--status", "--type");
+        if (!options.positional.isEmpty()) {
+            throw new UsageException("Unexpected argument: " + options.positional.get(0));
+        }
+        TaskQuery query = parseQuery(options);
+        openDatabase();
+        println(String.valueOf(DatabaseManager.countTasks(query)));
+        return 0;
+    }
+
+    // Builds the database query for the --status and --type options, evaluating the status now.
+    private static TaskQuery parseQuery(Options options) {
+        TaskQuery query = TaskQuery.all();
+        if (options.get("--status") != null) {
+            TaskStatus status;
+            try {
+                status = TaskStatus.valueOf(options.get("--status").toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new UsageException("Unknown status: " + options.get("--status"));
+            }
+            query = query.withStatus(status, LocalDate.now(), LocalTime.now());
+        }
+        if (options.get("--type") != null) {
+            String type = null;
+            for (String knownType : TaskService.TASK_TYPES) {
+                if (knownType.equalsIgnoreCase(options.get("--type"))) {
+                    type = knownType;
+                }
+            }
+            if (type == null) {
+                throw new UsageException("Unknown type: " + options.get("--type"));
+            }
+            query = query.ofType(type);
+        }
+        return query;
+    }
+
+    private int transfer(List<String> arguments, boolean isImport) throws IOException {
+        if (arguments.size() != 1) {
+            throw new UsageException((isImport ? "import" : "export") + " needs a file.");
+        }
+        Path file = Path.of(arguments.get(0));
+        openDatabase();
+        TransferResult result = isImport ? TaskTransfer.importTasks(file) : TaskTransfer.exportTasks(file);
+        println(result.toString());
+        return result.getRejectedRows() > 0 ? EXIT_ERROR : 0;
+    }
+
+    // Opens the database and first writes any changes the application left in its journal, so
+    // the commands work on the latest state and a later replay cannot undo them.
+    private static void openDatabase() throws DataPersistenceException {
+        AtomicReference<DataPersistenceException> replayError = new AtomicReference<>();
+        TaskWriteBehindQueue journal = new TaskWriteBehindQueue(0, DatabaseManager.initializeAsync(),
+                e -> replayError.compareAndSet(null, e));
+        try {
+            journal.recoveredFuture().join();
+        } finally {
+            journal.close();
+        }
+        if (replayError.get() != null) {
+            throw replayError.get();
+        }
+    }
+
+    private static void expectNoArguments(List<String> arguments) {
+        if (!arguments.isEmpty()) {
+            throw new UsageException("Unexpected argument: " + arguments.get(0));
+        }
+    }
+
+    private void println(String line) throws IOException {
+        out.write(line);
+        out.write('\n');
+    }
+
+    // Positional arguments and "--name value" options.
+    private static final class Options {
+        private final List<String> positional = new ArrayList<>();
+        private final List<String> names;
+        private final String[] values;
+
+        private Options(List<String> arguments, String... names) {
+            this.names = Arrays.asList(names);
+            this.values = new String[names.length];
+            for (int i = 0; i < arguments.size(); i++) {
+                String argument = arguments.get(i);
+                if (!argument.startsWith("--")) {
+                    positional.add(argument);
+                    continue;
+                }
+                int index = this.names.indexOf(argument);
+                if (index < 0) {
+                    throw new UsageException("Unknown option: " + argument);
+                }
+                if (i + 1 >= arguments.size()) {
+                    throw new UsageException("Missing value for " + argument);
+                }
+                values[index] = arguments.get(++i);
+            }
+        }
+
+        private String get(String name) {
+            return values[names.indexOf(name)];
+        }
+    }
+
+    // Invalid command line.
+    private static final class UsageException extends RuntimeException {
+        private UsageException(String message) {
+            super(message);
+        }
+    }
+}
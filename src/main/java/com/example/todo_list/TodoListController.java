@@ -1,35 +1,66 @@
 package com.example.todo_list;
 
+import javafx.animation.PauseTransition;
+import javafx.beans.binding.Bindings;
 import javafx.collections.FXCollections;
+import javafx.css.PseudoClass;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.ListCell;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
 import javafx.collections.ListChangeListener;
 import javafx.application.Platform;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import javafx.util.Duration;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 
-import com.example.todo_list.util.NotificationUtil;
+import com.example.todo_list.util.NotificationCenter;
+import com.example.todo_list.util.NotificationLedger;
+import com.example.todo_list.util.ReminderEvent;
+import com.example.todo_list.util.ReminderScheduler;
 import com.example.todo_list.util.AlertUtil;
-import com.example.todo_list.util.DateTimeUtil;
+import com.example.todo_list.util.ColumnarTaskStore;
 import com.example.todo_list.util.DatabaseManager;
-import com.example.todo_list.exception.InvalidTaskInputException;
+import com.example.todo_list.util.DateTimeUtil;
+import com.example.todo_list.util.LruCache;
+import com.example.todo_list.util.SearchQuery;
+import com.example.todo_list.util.SortedTaskView;
+import com.example.todo_list.util.StartupTimings;
+import com.example.todo_list.util.TaskApiServer;
+import com.example.todo_list.util.TaskChangeWatcher;
+import com.example.todo_list.util.TaskSearchIndex;
+import com.example.todo_list.util.TaskRenderCache;
+import com.example.todo_list.util.TaskStatistics;
+import com.example.todo_list.util.TaskStreamLoader;
+import com.example.todo_list.util.TaskWriteBehindQueue;
+import com.example.todo_list.util.UiActionEvent;
+import com.example.todo_list.util.UndoHistory;
+import com.example.todo_list.exception.AppInitializationException;
 import com.example.todo_list.exception.DataPersistenceException;
-import java.util.HashSet;
+import com.example.todo_list.exception.InvalidTaskInputException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 // Controller class for the main view of the To-Do List application.
 public class TodoListController {
     // FXML UI Elements
     @FXML
+    private ComboBox<TaskList> taskListComboBox;
+    @FXML
     private TextField taskInput;
     @FXML
     private ComboBox<String> taskTypeComboBox;
@@ -43,6 +74,8 @@ public class TodoListController {
     private TextField dueTimeInput;
     @FXML
     private DatePicker reminderDatePicker;
+    @FXML
+    private TextField repeatInput;
 
     @FXML
     private Button addTaskButton;
@@ -58,6 +91,14 @@ public class TodoListController {
     private Button updateTaskButton;
     @FXML
     private TextField searchField;
+    @FXML
+    private ComboBox<SortedTaskView.Order> sortOrderComboBox;
+    @FXML
+    private ComboBox<SortedTaskView.Grouping> groupingComboBox;
+    @FXML
+    private Button undoButton;
+    @FXML
+    private Button redoButton;
 
     @FXML
     private Label totalTasksLabel;
@@ -65,96 +106,179 @@ public class TodoListController {
     private Label completedTasksLabel;
     @FXML
     private Label pendingTasksLabel;
+    @FXML
+    private Label dueTasksLabel;
+    @FXML
+    private Label overdueTasksLabel;
+    @FXML
+    private ProgressBar loadProgressBar;
+    @FXML
+    private Button cancelLoadButton;
 
-    // Task list data
+    // Task list data. masterTasksList only holds the tasks of the active list.
     private ObservableList<Task> masterTasksList;
     private FilteredList<Task> filteredTasksList;
+    // The filtered tasks in the chosen order and grouping, as shown in the list view
+    private SortedTaskView sortedTasksList;
+    // Writes task changes to the database in the background
+    private TaskWriteBehindQueue persistenceQueue;
+    // Streams stored tasks into masterTasksList after the window is shown
+    private TaskStreamLoader taskLoader;
+    // The list whose tasks are shown, and whether all of its tasks have been loaded
+    private int activeListId = TaskList.DEFAULT_LIST_ID;
+    private boolean activeListComplete;
+    // Fully loaded lists shown recently, so switching back to them does not reload them
+    private final LruCache<Integer, List<Task>> listCache = new LruCache<>(LIST_CACHE_SIZE);
+    // Stored tasks of the active list by id, for applying undo steps and changes made elsewhere
+    private final Map<Integer, Task> tasksById = new HashMap<>();
+    // Set while the list is brought in line with the database (switching lists, applying changes
+    // made by another process), so the removals are not written back
+    private boolean applyingStoredState;
+    // Search index over all tasks, and the live result of the current search (null when not searching)
+    private final TaskSearchIndex searchIndex = new TaskSearchIndex();
+    private SearchQuery searchQuery;
+    private Set<Task> searchMatches;
+    private static final PseudoClass PSEUDO_CLASS_INVALID = PseudoClass.getPseudoClass("invalid");
+    // Running counters behind the statistics labels
+    private final TaskStatistics taskStatistics = new TaskStatistics();
+    // Display text and status of each task, shared by the list cells
+    private TaskRenderCache renderCache;
+    // Non-modal toasts for reminders and task events, merged into digests when they come in bursts
+    private NotificationCenter notifications;
+    // Reminder notifications already shown, kept in the database so a restart does not repeat them
+    private NotificationLedger notificationLedger;
+    private PauseTransition dayRollover;
+    // Optional local HTTP API over the task list (null unless started)
+    private TaskApiServer httpApi;
+    // Applies changes made by other processes in shared mode (null otherwise)
+    private TaskChangeWatcher changeWatcher;
 
-    // Constants for task types
-    private static final String SIMPLE_TASK = "Simple";
-    private static final String DETAILED_TASK = "Detailed";
-    private static final String DEADLINE_TASK = "Deadline";
+    // Task rules shared with the command-line interface
+    private final TaskService taskService = new TaskService();
+    // Edits made in the window that can be undone, for the active list only
+    private final UndoHistory undoHistory = new UndoHistory(UNDO_BUDGET_BYTES);
 
-    // Constants for CSS style classes
-    private static final String STYLE_CLASS_TASK_COMPLETED = "task-completed";
-    private static final String STYLE_CLASS_TASK_DUE = "task-due";
-    private static final String STYLE_CLASS_TASK_OVERDUE = "task-overdue";
+    // CSS pseudo-classes for the task status of a cell
+    private static final PseudoClass PSEUDO_CLASS_COMPLETED = PseudoClass.getPseudoClass("completed");
+    private static final PseudoClass PSEUDO_CLASS_DUE = PseudoClass.getPseudoClass("due");
+    private static final PseudoClass PSEUDO_CLASS_OVERDUE = PseudoClass.getPseudoClass("overdue");
 
-    private ScheduledExecutorService scheduler;
-    private static final long CHECK_INTERVAL_SECONDS = 60; // Check every minute
-    private Set<String> shownNotifications = new HashSet<>();
+    // Wakes up when the next task reminder is due
+    private ReminderScheduler reminderScheduler;
+    // Time window in which task changes are merged into one database transaction
+    private static final long WRITE_BEHIND_WINDOW_MILLIS = Long.getLong("todo_list.writeBehindMillis", 250);
+    // Page sizes for streaming tasks from the database; the first page fills the first screen
+    private static final int FIRST_LOAD_PAGE_SIZE = 100;
+    private static final int LOAD_PAGE_SIZE = 5000;
+    // Keeps loaded tasks in a ColumnarTaskStore instead of one object graph per task
+    private static final boolean COLUMNAR_TASK_STORE = Boolean.getBoolean("todo_list.columnarStore");
+    // Number of inactive lists kept in memory
+    private static final int LIST_CACHE_SIZE = Integer.getInteger("todo_list.listCacheSize", 3);
+    // Memory the undo history may take before its oldest edits are dropped
+    private static final long UNDO_BUDGET_BYTES = Long.getLong("todo_list.undoBudgetBytes", 2L * 1024 * 1024);
+    // How often to check for changes made by other processes in shared mode
+    private static final long CHANGE_POLL_MILLIS = Long.getLong("todo_list.db.pollMillis", 1000);
 
     // Initializes the controller class. This method is automatically called
     // after the fxml file has been loaded.
     @FXML
     public void initialize() {
-        // Load tasks from database
+        // Tasks are streamed in from the database once the UI is set up. The render cache
+        // observes each task, so invalidating a task redraws only its cell.
+        renderCache = new TaskRenderCache();
+        masterTasksList = FXCollections.observableArrayList(renderCache::observe);
+        
+        notifications = new NotificationCenter(taskListView);
+        notificationLedger = new NotificationLedger(DatabaseManager.initializeAsync(), Platform::runLater);
+        reminderScheduler = new ReminderScheduler(Platform::runLater, this::handleReminder);
         try {
-            masterTasksList = DatabaseManager.loadTasks();
+            persistenceQueue = new TaskWriteBehindQueue(WRITE_BEHIND_WINDOW_MILLIS, DatabaseManager.initializeAsync(),
+                    e -> Platform.runLater(() -> showSaveError(e)));
         } catch (DataPersistenceException e) {
-            AlertUtil.showAlert("Database Error", "Failed to load tasks: " + e.getMessage());
-            masterTasksList = FXCollections.observableArrayList();
+            throw new AppInitializationException("Failed to open the task journal: " + e.getMessage(), e);
         }
-        
+        persistenceQueue.setConflictHandler(this::handleConflicts);
+        persistenceQueue.setIdAssignedHandler(Platform::runLater, this::handleIdAssigned);
+
+        // Keep the search index and the current search result up to date. Registered before the
+        // FilteredList so added tasks are already indexed when the filter evaluates them.
+        masterTasksList.addListener((ListChangeListener<Task>) c -> {
+            while (c.next()) {
+                for (Task removed : c.getRemoved()) {
+                    searchIndex.remove(removed);
+                    if (searchMatches != null) {
+                        searchMatches.remove(removed);
+                    }
+                }
+                for (Task added : c.getAddedSubList()) {
+                    searchIndex.add(added);
+                    if (searchMatches != null && searchQuery.matches(added, searchIndex)) {
+                        searchMatches.add(added);
+                    }
+                }
+            }
+        });
+
         filteredTasksList = new FilteredList<>(masterTasksList, p -> true);
+        sortedTasksList = new SortedTaskView(filteredTasksList);
 
-        taskListView.setItems(filteredTasksList);
+        taskListView.setItems(sortedTasksList);
 
-        taskTypeComboBox.setItems(FXCollections.observableArrayList(SIMPLE_TASK, DETAILED_TASK, DEADLINE_TASK));
-        taskTypeComboBox.setValue(SIMPLE_TASK);
+        sortOrderComboBox.setItems(FXCollections.observableArrayList(SortedTaskView.Order.values()));
+        sortOrderComboBox.setValue(sortedTasksList.getOrder());
+        sortOrderComboBox.valueProperty().addListener((obs, oldOrder, newOrder) ->
+                measureUiAction("sort", () -> sortedTasksList.setOrder(newOrder)));
+        groupingComboBox.setItems(FXCollections.observableArrayList(SortedTaskView.Grouping.values()));
+        groupingComboBox.setValue(sortedTasksList.getGrouping());
+        groupingComboBox.valueProperty().addListener((obs, oldGrouping, newGrouping) ->
+                measureUiAction("group", () -> sortedTasksList.setGrouping(newGrouping)));
+
+        // Switches the list shown. Also fired when the lists are first loaded, with the active list.
+        taskListComboBox.valueProperty().addListener((obs, oldList, newList) -> {
+            if (newList != null && newList.getId() != activeListId) {
+                measureUiAction("switchList", () -> switchList(newList));
+            }
+        });
+
+        taskTypeComboBox.setItems(FXCollections.observableArrayList(TaskService.TASK_TYPES));
+        taskTypeComboBox.setValue(TaskService.SIMPLE_TASK);
 
         // Listener to update UI fields based on selected task type.
         taskTypeComboBox.valueProperty().addListener((obs, oldVal, newVal) -> {
             updateTaskSpecificFieldVisibility(newVal);
         });
-        updateTaskSpecificFieldVisibility(SIMPLE_TASK);
+        updateTaskSpecificFieldVisibility(TaskService.SIMPLE_TASK);
 
         // Listener to filter tasks based on text entered in the search field.
-        searchField.textProperty().addListener((observable, oldValue, newValue) -> {
-            filteredTasksList.setPredicate(task -> {
-                if (newValue == null || newValue.isEmpty()) {
-                    return true;
-                }
-                String lowerCaseFilter = newValue.toLowerCase();
-                if (task.getDescription().toLowerCase().contains(lowerCaseFilter)) {
-                    return true; 
-                }
-
-                if (task instanceof DetailedTask) {
-                    DetailedTask detailedTask = (DetailedTask) task;
-                    if (detailedTask.getDetails() != null && detailedTask.getDetails().toLowerCase().contains(lowerCaseFilter)) {
-                        return true;
-                    }
-                }
-                return false;
-            });
-        });
+        searchField.textProperty().addListener((observable, oldValue, newValue) -> applySearch(newValue));
 
         // Sets a custom cell factory for the task ListView to control how tasks are displayed.
-        // This includes applying different styles based on task status (completed, due, overdue).
+        // Text and status (completed, due, overdue) come from the render cache and the status is
+        // shown through pseudo-classes, so an unchanged cell costs no string building or CSS pass.
+        // When the tasks are grouped, the first cell of each section shows its heading above the task.
         taskListView.setCellFactory(param -> new ListCell<Task>() {
+            private final Label sectionHeader = new Label();
+
+            {
+                sectionHeader.getStyleClass().add("section-header");
+                setContentDisplay(ContentDisplay.TOP);
+            }
+
             @Override
             protected void updateItem(Task task, boolean empty) {
                 super.updateItem(task, empty);
 
-                getStyleClass().removeAll(STYLE_CLASS_TASK_COMPLETED, STYLE_CLASS_TASK_DUE, STYLE_CLASS_TASK_OVERDUE);
-                setText(null); 
-
-                if (empty || task == null) {
+                TaskStatus status = empty || task == null ? null : renderCache.getStatus(task);
+                setText(status != null ? renderCache.getText(task) : null);
+                if (status != null && sortedTasksList.startsSection(getIndex())) {
+                    sectionHeader.setText(sortedTasksList.getSection(getIndex()));
+                    setGraphic(sectionHeader);
                 } else {
-                    setText(task.toString());
-                    if (task.isCompleted()) {
-                        getStyleClass().add(STYLE_CLASS_TASK_COMPLETED);
-                    } else if (task.getReminderDate() != null && task.getReminderDate().isBefore(LocalDate.now().plusDays(1))) {
-                        if (task instanceof DeadlineTask && ((DeadlineTask) task).getDueTime() != null && 
-                            task.getReminderDate().isEqual(LocalDate.now()) && 
-                            ((DeadlineTask) task).getDueTime().isBefore(LocalTime.now())) {
-                            getStyleClass().add(STYLE_CLASS_TASK_OVERDUE);
-                        } else {
-                            getStyleClass().add(STYLE_CLASS_TASK_DUE);
-                        }
-                    } 
+                    setGraphic(null);
                 }
+                pseudoClassStateChanged(PSEUDO_CLASS_COMPLETED, status == TaskStatus.COMPLETED);
+                pseudoClassStateChanged(PSEUDO_CLASS_DUE, status == TaskStatus.DUE);
+                pseudoClassStateChanged(PSEUDO_CLASS_OVERDUE, status == TaskStatus.OVERDUE);
             }
         });
 
@@ -169,21 +293,23 @@ public class TodoListController {
             if (taskSelected) {
                 taskInput.setText(newValue.getDescription());
                 reminderDatePicker.setValue(newValue.getReminderDate());
+                repeatInput.setText(newValue.getRecurrence() != null ? newValue.getRecurrence().getRule() : "");
                 taskTypeComboBox.setValue(newValue.getType()); 
-                if (newValue instanceof DetailedTask) {
-                    detailsInput.setText(((DetailedTask) newValue).getDetails());
+                if (newValue instanceof HasDetails) {
+                    detailsInput.setText(((HasDetails) newValue).getDetails());
                 } else {
                     detailsInput.clear();
                 }
-                if (newValue instanceof DeadlineTask) { 
-                    dueTimeInput.setText(DateTimeUtil.formatTime(((DeadlineTask) newValue).getDueTime()));
+                if (newValue instanceof HasDueTime) { 
+                    dueTimeInput.setText(DateTimeUtil.formatTime(((HasDueTime) newValue).getDueTime()));
                 } else {
                     dueTimeInput.clear();
                 }
             } else {
                 taskInput.clear();
                 reminderDatePicker.setValue(null);
-                taskTypeComboBox.setValue(SIMPLE_TASK);
+                repeatInput.clear();
+                taskTypeComboBox.setValue(TaskService.SIMPLE_TASK);
                 detailsInput.clear();
                 dueTimeInput.clear();
             }
@@ -192,23 +318,255 @@ public class TodoListController {
 
         // Listener to update task statistics when the master list of tasks changes.
         masterTasksList.addListener((ListChangeListener<Task>) c -> {
-            updateTaskStatistics();
-            // Save tasks to database whenever the list changes
-            saveTasks();
+            // Queue the added and removed tasks for the database and schedule their reminders.
+            // Only the reminders of the active list are scheduled.
+            if (httpApi != null) {
+                httpApi.tasksChanged();
+            }
+            while (c.next()) {
+                for (Task removed : c.getRemoved()) {
+                    renderCache.remove(removed);
+                    tasksById.remove(removed.getId(), removed);
+                    if (!applyingStoredState) {
+                        persistenceQueue.taskRemoved(removed);
+                    }
+                    reminderScheduler.cancel(removed);
+                    taskStatistics.remove(removed);
+                }
+                for (Task added : c.getAddedSubList()) {
+                    taskStatistics.add(added);
+                    try {
+                        if (added.getId() == 0) {
+                            // New tasks go into the list shown
+                            added.setListId(activeListId);
+                            persistenceQueue.taskAdded(added);
+                        } else if (added.isDirty()) {
+                            persistenceQueue.taskChanged(added);
+                        }
+                    } catch (DataPersistenceException e) {
+                        showSaveError(e);
+                    }
+                    if (added.getId() != 0) {
+                        tasksById.put(added.getId(), added);
+                    }
+                }
+                if (c.wasAdded()) {
+                    reminderScheduler.scheduleAll(c.getAddedSubList());
+                }
+            }
         });
 
-        updateTaskStatistics(); 
+        bindTaskStatistics();
+        bindUndoHistory();
+
+        loadTaskLists();
+        loadTasks();
 
-        // Initialize the scheduler for periodic task checks
-        scheduler = Executors.newSingleThreadScheduledExecutor();
-        scheduler.scheduleAtFixedRate(this::checkDueTasks, 0, CHECK_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        if (DatabaseManager.isSharedMode()) {
+            changeWatcher = new TaskChangeWatcher(CHANGE_POLL_MILLIS, Platform::runLater,
+                    changes -> measureUiAction("applyStoredTasks", () -> applyStoredTasks(changes)));
+            changeWatcher.start(DatabaseManager.initializeAsync());
+        }
+    }
+
+    // Filters the list to the tasks matching the search (see SearchQuery for the syntax).
+    // Text candidates come from the search index; a search that narrows the previous one only
+    // re-checks the previous matches.
+    private void applySearch(String text) {
+        measureUiAction("search", () -> updateSearch(text));
+    }
+
+    private void updateSearch(String text) {
+        SearchQuery query = SearchQuery.parse(text != null ? text : "");
+        showSearchErrors(query.getErrors());
+        if (query.isEmpty()) {
+            searchQuery = null;
+            searchMatches = null;
+            filteredTasksList.setPredicate(p -> true);
+            return;
+        }
+        if (searchMatches != null && query.narrows(searchQuery)) {
+            searchMatches = query.refine(searchMatches, searchIndex);
+        } else {
+            searchMatches = query.search(masterTasksList, searchIndex);
+        }
+        searchQuery = query;
+        Set<Task> matches = searchMatches;
+        filteredTasksList.setPredicate(matches::contains);
+    }
+
+    // Marks the search field while part of the search is not understood, explaining why in its tooltip.
+    private void showSearchErrors(List<String> errors) {
+        searchField.pseudoClassStateChanged(PSEUDO_CLASS_INVALID, !errors.isEmpty());
+        searchField.setTooltip(errors.isEmpty() ? null : new Tooltip(String.join("\n", errors)));
+    }
+
+    // Re-indexes a task whose text changed and updates its membership in the current search result.
+    private void reindexTask(Task task) {
+        searchIndex.update(task);
+        updateSearchMatch(task);
+    }
+
+    // Updates the membership of a changed task in the current search result. Called before the
+    // task's update event, on which the filtered list re-checks it.
+    private void updateSearchMatch(Task task) {
+        if (searchMatches != null) {
+            if (searchQuery.matches(task, searchIndex)) {
+                searchMatches.add(task);
+            } else {
+                searchMatches.remove(task);
+            }
+        }
+    }
+
+    // Shows the lists in the list selector once they are read from the database. Until then the
+    // selector only holds the default list, which is the one loaded at startup.
+    private void loadTaskLists() {
+        taskListComboBox.getItems().setAll(new TaskList(TaskList.DEFAULT_LIST_ID, TaskList.DEFAULT_LIST_NAME));
+        taskListComboBox.getSelectionModel().selectFirst();
+        DatabaseManager.initializeAsync()
+                .thenApplyAsync(ready -> DatabaseManager.loadTaskLists())
+                .whenCompleteAsync((lists, error) -> {
+                    if (error != null) {
+                        AlertUtil.showAlert("Database Error", "Failed to load task lists: " + rootCause(error).getMessage());
+                        return;
+                    }
+                    TaskList active = null;
+                    for (TaskList list : lists) {
+                        if (list.getId() == activeListId) {
+                            active = list;
+                        }
+                    }
+                    taskListComboBox.getItems().setAll(lists);
+                    taskListComboBox.setValue(active != null ? active : taskListComboBox.getItems().get(0));
+                }, Platform::runLater);
+    }
+
+    // Shows the tasks of another list. The list shown so far is kept in the list cache if all
+    // of its tasks were loaded; the new one is taken from the cache or streamed in.
+    private void switchList(TaskList list) {
+        if (taskLoader != null) {
+            taskLoader.cancel();
+        }
+        if (activeListComplete) {
+            listCache.put(activeListId, new ArrayList<>(masterTasksList));
+        } else {
+            listCache.remove(activeListId);
+        }
+        List<Task> cached = listCache.get(list.getId());
+        activeListId = list.getId();
+        applyingStoredState = true;
+        try {
+            if (cached != null) {
+                masterTasksList.setAll(cached);
+            } else {
+                masterTasksList.clear();
+            }
+        } finally {
+            applyingStoredState = false;
+        }
+        if (cached != null) {
+            // The list may have been cached before the day changed
+            advanceOccurrences(cached).forEach(this::saveTask);
+        }
+        activeListComplete = cached != null;
+        if (cached == null) {
+            loadTasks();
+        }
+        // The history refers to the tasks of the list shown before
+        undoHistory.clear();
+    }
+
+    // Handles the action of creating a new task list and switching to it.
+    @FXML
+    protected void handleNewList() {
+        TextInputDialog dialog = new TextInputDialog();
+        dialog.setTitle("New List");
+        dialog.setHeaderText(null);
+        dialog.setContentText("List name:");
+        dialog.showAndWait().ifPresent(this::createList);
+    }
+
+    private void createList(String text) {
+        String name = text.trim();
+        if (name.isEmpty()) {
+            AlertUtil.showAlert("Input Error", "List name cannot be empty.");
+            return;
+        }
+        if (name.length() > TaskList.MAX_NAME_LENGTH) {
+            AlertUtil.showAlert("Input Error", "List name cannot be longer than " + TaskList.MAX_NAME_LENGTH + " characters.");
+            return;
+        }
+        for (TaskList list : taskListComboBox.getItems()) {
+            if (list.getName().equalsIgnoreCase(name)) {
+                AlertUtil.showAlert("Input Error", "A list named \"" + list.getName() + "\" already exists.");
+                return;
+            }
+        }
+        CompletableFuture.supplyAsync(() -> DatabaseManager.createTaskList(name))
+                .whenCompleteAsync((list, error) -> {
+                    if (error != null) {
+                        AlertUtil.showAlert("Database Error", "Failed to create list: " + rootCause(error).getMessage());
+                        return;
+                    }
+                    taskListComboBox.getItems().add(list);
+                    taskListComboBox.setValue(list);
+                }, Platform::runLater);
+    }
+
+    private static Throwable rootCause(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    // Starts streaming the stored tasks of the active list into the list in pages, showing
+    // progress while loading. Queued changes are written first, so the list is read as last shown.
+    private void loadTasks() {
+        TaskStreamLoader loader = new TaskStreamLoader(FIRST_LOAD_PAGE_SIZE, LOAD_PAGE_SIZE,
+                persistenceQueue.flushAsync(),
+                chunk -> {
+                    // Tasks another process added while loading may have arrived through the change watcher
+                    if (!tasksById.isEmpty()) {
+                        chunk.removeIf(task -> tasksById.containsKey(task.getId()));
+                    }
+                    // Recurring tasks whose stored occurrence has passed are queued for saving when added
+                    advanceOccurrences(chunk);
+                    masterTasksList.addAll(chunk);
+                    StartupTimings.mark("first tasks shown");
+                },
+                e -> AlertUtil.showAlert("Database Error", "Failed to load tasks: " + e.getMessage()));
+        loader.setListId(activeListId);
+        if (COLUMNAR_TASK_STORE) {
+            loader.setTaskFactory(new ColumnarTaskStore()::add);
+        }
+        loadProgressBar.progressProperty().bind(loader.progressProperty());
+        loadProgressBar.visibleProperty().bind(loader.runningProperty());
+        loadProgressBar.managedProperty().bind(loader.runningProperty());
+        cancelLoadButton.visibleProperty().bind(loader.runningProperty());
+        cancelLoadButton.managedProperty().bind(loader.runningProperty());
+        loader.runningProperty().addListener((obs, wasRunning, isRunning) -> {
+            if (!isRunning) {
+                StartupTimings.mark("all tasks loaded");
+                activeListComplete = loader == taskLoader && loader.isComplete();
+            }
+        });
+        activeListComplete = false;
+        taskLoader = loader;
+        loader.start();
+    }
+
+    // Handles the action of cancelling the task load that is still running.
+    @FXML
+    protected void handleCancelLoad() {
+        if (taskLoader != null) {
+            taskLoader.cancel();
+        }
     }
 
     // Updates the visibility of task-specific input fields (details, due time)
     // based on the selected task type.
     private void updateTaskSpecificFieldVisibility(String taskType) {
-        boolean isDetailed = DETAILED_TASK.equals(taskType);
-        boolean isDeadline = DEADLINE_TASK.equals(taskType);
+        boolean isDetailed = TaskService.DETAILED_TASK.equals(taskType);
+        boolean isDeadline = TaskService.DEADLINE_TASK.equals(taskType);
 
         detailsLabel.setVisible(isDetailed);
         detailsLabel.setManaged(isDetailed);
@@ -221,105 +579,163 @@ public class TodoListController {
         dueTimeInput.setManaged(isDeadline);
     }
 
-    // Updates the labels displaying task statistics (total, completed, pending).
-    private void updateTaskStatistics() {
-        long total = masterTasksList.size();
-        long completed = masterTasksList.stream().filter(Task::isCompleted).count();
-        long pending = total - completed;
+    // Binds the statistics labels to the running counters and keeps date-dependent counts
+    // up to date across midnight.
+    private void bindTaskStatistics() {
+        totalTasksLabel.textProperty().bind(Bindings.concat("Total: ", taskStatistics.totalProperty()));
+        completedTasksLabel.textProperty().bind(Bindings.concat("Completed: ", taskStatistics.completedProperty()));
+        pendingTasksLabel.textProperty().bind(Bindings.concat("Pending: ", taskStatistics.pendingProperty()));
+        dueTasksLabel.textProperty().bind(Bindings.concat("Due: ", taskStatistics.statusCountProperty(TaskStatus.DUE)));
+        overdueTasksLabel.textProperty().bind(Bindings.concat("Overdue: ", taskStatistics.statusCountProperty(TaskStatus.OVERDUE)));
+
+        Tooltip typeBreakdown = new Tooltip();
+        typeBreakdown.textProperty().bind(Bindings.concat(
+                TaskService.SIMPLE_TASK, ": ", taskStatistics.typeCountProperty(TaskService.SIMPLE_TASK), "\n",
+                TaskService.DETAILED_TASK, ": ", taskStatistics.typeCountProperty(TaskService.DETAILED_TASK), "\n",
+                TaskService.DEADLINE_TASK, ": ", taskStatistics.typeCountProperty(TaskService.DEADLINE_TASK)));
+        totalTasksLabel.setTooltip(typeBreakdown);
+
+        scheduleDayRollover();
+    }
 
-        totalTasksLabel.setText("Total: " + total);
-        completedTasksLabel.setText("Completed: " + completed);
-        pendingTasksLabel.setText("Pending: " + pending);
+    // Enables the undo and redo buttons when there is something to undo or redo, and adds the
+    // Ctrl+Z and Ctrl+Y (Cmd on macOS) shortcuts once the view is in a scene.
+    private void bindUndoHistory() {
+        undoButton.disableProperty().bind(undoHistory.undoLabelProperty().isNull());
+        redoButton.disableProperty().bind(undoHistory.redoLabelProperty().isNull());
+        Tooltip undoTooltip = new Tooltip();
+        undoTooltip.textProperty().bind(Bindings.concat("Undo ", undoHistory.undoLabelProperty()));
+        undoButton.setTooltip(undoTooltip);
+        Tooltip redoTooltip = new Tooltip();
+        redoTooltip.textProperty().bind(Bindings.concat("Redo ", undoHistory.redoLabelProperty()));
+        redoButton.setTooltip(redoTooltip);
+
+        taskListView.sceneProperty().addListener((obs, oldScene, scene) -> {
+            if (scene != null) {
+                scene.getAccelerators().put(new KeyCodeCombination(KeyCode.Z, KeyCombination.SHORTCUT_DOWN), this::handleUndo);
+                scene.getAccelerators().put(new KeyCodeCombination(KeyCode.Y, KeyCombination.SHORTCUT_DOWN), this::handleRedo);
+            }
+        });
+    }
+
+    // Re-classifies all tasks shortly after midnight, when due dates move.
+    private void scheduleDayRollover() {
+        Duration untilMidnight = Duration.millis(
+                ChronoUnit.MILLIS.between(LocalDateTime.now(), LocalDate.now().plusDays(1).atStartOfDay()) + 1000);
+        dayRollover = new PauseTransition(untilMidnight);
+        dayRollover.setOnFinished(e -> {
+            for (Task task : advanceOccurrences(masterTasksList)) {
+                reindexTask(task);
+                saveTask(task);
+            }
+            taskStatistics.refreshAll();
+            renderCache.invalidateStatuses();
+            if (sortedTasksList.getGrouping() == SortedTaskView.Grouping.SCHEDULE) {
+                sortedTasksList.refreshAll();
+            }
+            scheduleDayRollover();
+        });
+        dayRollover.play();
     }
     
-    // Saves tasks to database
-    private void saveTasks() {
+    // Moves recurring tasks on to their current occurrence (see TaskService.advanceOccurrence) and
+    // returns the tasks that changed.
+    private List<Task> advanceOccurrences(List<Task> tasks) {
+        List<Task> changed = new ArrayList<>();
+        for (Task task : tasks) {
+            if (taskService.advanceOccurrence(task)) {
+                changed.add(task);
+            }
+        }
+        return changed;
+    }
+
+    // Queues a changed task to be saved to database, reschedules its reminders, redraws its cell
+    // and updates the statistics
+    private void saveTask(Task task) {
         try {
-            DatabaseManager.saveTasks(masterTasksList);
+            persistenceQueue.taskChanged(task);
         } catch (DataPersistenceException e) {
-            AlertUtil.showAlert("Database Error", "Failed to save tasks: " + e.getMessage());
+            showSaveError(e);
+        }
+        // Searches can filter on dates and status, not only text
+        updateSearchMatch(task);
+        reminderScheduler.schedule(task);
+        renderCache.invalidate(task);
+        taskStatistics.refresh(task);
+        if (httpApi != null) {
+            httpApi.tasksChanged();
         }
     }
 
-    // Handles the action of adding a new task.
-    @FXML
-    protected void handleAddTask() {
-        String description = taskInput.getText().trim();
-        if (description.isEmpty()) {
-            AlertUtil.showAlert("Input Error", "Task description cannot be empty.");
-            return;
+    // Queues a completed task to be saved to database and updates its reminders, its cell and the statistics
+    private void saveCompletedTask(Task task) {
+        try {
+            persistenceQueue.taskCompleted(task);
+        } catch (DataPersistenceException e) {
+            showSaveError(e);
         }
-
-        LocalDate reminderForTask = reminderDatePicker.getValue();
-        if (reminderForTask != null && reminderForTask.isBefore(LocalDate.now())) {
-            AlertUtil.showAlert("Input Error", "Reminder date cannot be in the past.");
-            return;
+        updateSearchMatch(task);
+        reminderScheduler.schedule(task);
+        renderCache.invalidate(task);
+        taskStatistics.refresh(task);
+        if (httpApi != null) {
+            httpApi.tasksChanged();
         }
+    }
 
-        String selectedType = taskTypeComboBox.getValue();
-        Task newTask = null;
+    // Runs work on the FX thread as a UiActionEvent, so slow handlers show up in a JFR recording
+    // and in the ui.<action> latency histogram.
+    private void measureUiAction(String action, Runnable work) {
+        UiActionEvent event = UiActionEvent.start(action);
         try {
-            switch (selectedType) {
-                case SIMPLE_TASK:
-                    newTask = new SimpleTask(description);
-                    if (reminderForTask != null) {
-                        newTask.setReminderDate(reminderForTask);
-                    }
-                    break;
-                case DETAILED_TASK:
-                    String details = detailsInput.getText().trim();
-                    newTask = new DetailedTask(description, details);
-                    if (reminderForTask != null) { 
-                        newTask.setReminderDate(reminderForTask);
-                    }
-                    break;
-                case DEADLINE_TASK:
-                    LocalTime dueTime = null;
-                    String dueTimeText = dueTimeInput.getText().trim();
-                    dueTime = DateTimeUtil.parseTime(dueTimeText);
-
-                    if (reminderForTask != null && reminderForTask.isEqual(LocalDate.now()) && 
-                        dueTime != null && dueTime.isBefore(LocalTime.now())) {
-                        AlertUtil.showAlert("Input Error", "Due time for a task due today cannot be in the past.");
-                        return;
-                    }
+            work.run();
+        } finally {
+            event.setListSizes(masterTasksList.size(), filteredTasksList.size());
+            event.finish();
+        }
+    }
 
-                    newTask = new DeadlineTask(description, reminderForTask, dueTime);
-                    break;
-                default:
-                    AlertUtil.showAlert("Type Error", "Unknown task type selected.");
-                    return;
-            }
+    private void showSaveError(DataPersistenceException e) {
+        AlertUtil.showAlert("Database Error", "Failed to save tasks: " + e.getMessage());
+    }
+
+    // Handles the action of adding a new task.
+    @FXML
+    protected void handleAddTask() {
+        measureUiAction("addTask", this::addTask);
+    }
+
+    // Adds a task built from the input fields.
+    private void addTask() {
+        Task newTask;
+        try {
+            newTask = taskService.createTask(taskTypeComboBox.getValue(), taskInput.getText(), detailsInput.getText(),
+                    reminderDatePicker.getValue(), dueTimeInput.getText(), repeatInput.getText());
         } catch (InvalidTaskInputException e) {
             AlertUtil.showAlert("Input Error", e.getMessage());
             return;
-        } catch (DateTimeParseException e) {
-            AlertUtil.showAlert("Input Error", "Invalid due time format. Please use HH:mm.");
-            return;
-        } catch (IllegalArgumentException e) {
-            AlertUtil.showAlert("Input Error", "An unexpected input error occurred: " + e.getMessage());
-            return;
         }
 
-        if (newTask != null) {
-            masterTasksList.add(newTask);
-            clearInputFields();
-            updateTaskStatistics(); 
+        masterTasksList.add(newTask);
+        clearInputFields();
+        if (newTask.getId() != 0) {
+            undoHistory.record("Add", List.of(UndoHistory.Step.added(TaskRecord.of(newTask))));
+        }
 
-            if (newTask instanceof DeadlineTask) {
-                DeadlineTask deadlineTask = (DeadlineTask) newTask;
-                if (deadlineTask.getReminderDate() != null && deadlineTask.getReminderDate().isBefore(LocalDate.now())) {
-                    if (deadlineTask.getDueTime() != null && deadlineTask.getReminderDate().isEqual(LocalDate.now()) && deadlineTask.getDueTime().isBefore(LocalTime.now())) {
-                        NotificationUtil.showTaskNotification("Task Overdue", "Deadline task \"" + deadlineTask.getDescription() + "\" was added already overdue.");
-                    } else if (deadlineTask.getDueTime() == null) { 
-                         NotificationUtil.showTaskNotification("Task Past Reminder", "Deadline task \"" + deadlineTask.getDescription() + "\" was added past its due date.");
-                    }
-                } else if (deadlineTask.getReminderDate() != null && deadlineTask.getReminderDate().isEqual(LocalDate.now()) && deadlineTask.getDueTime() != null && deadlineTask.getDueTime().isBefore(LocalTime.now())) {
-                     NotificationUtil.showTaskNotification("Task Overdue", "Deadline task \"" + deadlineTask.getDescription() + "\" is due today and already past time.");
+        if (newTask instanceof HasDueTime) {
+            LocalTime dueTime = ((HasDueTime) newTask).getDueTime();
+            if (newTask.getReminderDate() != null && newTask.getReminderDate().isBefore(LocalDate.now())) {
+                if (dueTime != null && newTask.getReminderDate().isEqual(LocalDate.now()) && dueTime.isBefore(LocalTime.now())) {
+                    notifications.post("Task Overdue", "Deadline task \"" + newTask.getDescription() + "\" was added already overdue.", "overdue");
+                } else if (dueTime == null) { 
+                     notifications.post("Task Past Reminder", "Deadline task \"" + newTask.getDescription() + "\" was added past its due date.", "past their reminder date");
                 }
-            } else if (newTask.getReminderDate() != null && newTask.getReminderDate().isBefore(LocalDate.now())) {
-                NotificationUtil.showTaskNotification("Task Past Reminder", "Task \"" + newTask.getDescription() + "\" was added with a reminder date in the past.");
+            } else if (newTask.getReminderDate() != null && newTask.getReminderDate().isEqual(LocalDate.now()) && dueTime != null && dueTime.isBefore(LocalTime.now())) {
+                 notifications.post("Task Overdue", "Deadline task \"" + newTask.getDescription() + "\" is due today and already past time.", "overdue");
             }
+        } else if (newTask.getReminderDate() != null && newTask.getReminderDate().isBefore(LocalDate.now())) {
+            notifications.post("Task Past Reminder", "Task \"" + newTask.getDescription() + "\" was added with a reminder date in the past.", "past their reminder date");
         }
     }
 
@@ -329,13 +745,19 @@ public class TodoListController {
         detailsInput.clear();
         dueTimeInput.clear();
         reminderDatePicker.setValue(null);
-        taskTypeComboBox.setValue(SIMPLE_TASK);
-        updateTaskSpecificFieldVisibility(SIMPLE_TASK);
+        repeatInput.clear();
+        taskTypeComboBox.setValue(TaskService.SIMPLE_TASK);
+        updateTaskSpecificFieldVisibility(TaskService.SIMPLE_TASK);
     }
 
     // Handles the action of setting or updating a reminder for the selected task.
     @FXML
     protected void handleSetReminder() {
+        measureUiAction("setReminder", this::setReminder);
+    }
+
+    // Sets or clears the reminder date of the selected task.
+    private void setReminder() {
         Task selectedTask = taskListView.getSelectionModel().getSelectedItem();
         LocalDate reminderDate = reminderDatePicker.getValue();
 
@@ -343,36 +765,49 @@ public class TodoListController {
             AlertUtil.showAlert("Selection Error", "Please select a task to set a reminder.");
             return;
         }
-        if (reminderDate == null && !(selectedTask instanceof DeadlineTask && ((DeadlineTask)selectedTask).getDueTime() != null)){
-             AlertUtil.showAlert("Input Error", "Please select a date for the reminder.");
-            return;
-        }
-        if (selectedTask instanceof DeadlineTask && reminderDate == null && ((DeadlineTask) selectedTask).getDueTime() != null) {
-            AlertUtil.showAlert("Input Error", "Cannot clear reminder date for a Deadline Task that has a due time. Clear due time first or set a new date.");
+        TaskRecord before = TaskRecord.of(selectedTask);
+        try {
+            taskService.setReminder(selectedTask, reminderDate);
+        } catch (InvalidTaskInputException e) {
+            AlertUtil.showAlert("Input Error", e.getMessage());
             reminderDatePicker.setValue(selectedTask.getReminderDate());
             return;
         }
-
-        selectedTask.setReminderDate(reminderDate);
         
-        refreshListView();
-        saveTasks();
+        saveTask(selectedTask);
+        undoHistory.record("Set Reminder", List.of(UndoHistory.Step.changed(before, TaskRecord.of(selectedTask))));
         AlertUtil.showAlert("Reminder Set", "Reminder for \"" + selectedTask.getDescription() + "\" set to " + (reminderDate != null ? reminderDate.toString() : "cleared") + ".");
     }
 
     // Handles the action of marking the selected task as complete.
     @FXML
     protected void handleMarkComplete() {
+        measureUiAction("markComplete", this::markComplete);
+    }
+
+    // Marks the selected task as complete.
+    private void markComplete() {
         Task selectedTask = taskListView.getSelectionModel().getSelectedItem();
         if (selectedTask != null) {
-            if (!selectedTask.isCompleted()) { 
-                selectedTask.setCompleted(true);
-                refreshListView();
-                updateTaskStatistics(); 
-                saveTasks();
-                NotificationUtil.showTaskNotification("Task Completed", "\"" + selectedTask.getDescription() + "\" is complete!");
+            TaskRecord before = TaskRecord.of(selectedTask);
+            if (taskService.completeTask(selectedTask)) {
+                if (selectedTask.isCompleted()) {
+                    saveCompletedTask(selectedTask);
+                    notifications.post("Task Completed", "\"" + selectedTask.getDescription() + "\" is complete!", "completed");
+                } else {
+                    // Only an occurrence of a recurring task was completed
+                    reindexTask(selectedTask);
+                    saveTask(selectedTask);
+                }
+                undoHistory.record("Mark Complete", List.of(UndoHistory.Step.changed(before, TaskRecord.of(selectedTask))));
+            }
+            if (selectedTask.isCompleted()) {
+                AlertUtil.showAlert("Task Complete", "\"" + selectedTask.getDescription() + "\" marked as complete.");
+            } else {
+                AlertUtil.showAlert("Occurrence Complete", "\"" + selectedTask.getDescription() + "\" on "
+                        + before.getReminderDate() + " marked as complete. Next: " + selectedTask.getReminderDate() + ".");
+                reminderDatePicker.setValue(selectedTask.getReminderDate());
             }
-            AlertUtil.showAlert("Task Complete", "\"" + selectedTask.getDescription() + "\" marked as complete.");
         } else {
             AlertUtil.showAlert("Selection Error", "Please select a task to mark as complete.");
         }
@@ -381,10 +816,16 @@ public class TodoListController {
     // Handles the action of deleting the selected task.
     @FXML
     protected void handleDeleteTask() {
+        measureUiAction("deleteTask", this::deleteTask);
+    }
+
+    // Deletes the selected task.
+    private void deleteTask() {
         Task selectedTask = taskListView.getSelectionModel().getSelectedItem();
         if (selectedTask != null) {
+            TaskRecord before = TaskRecord.of(selectedTask);
             masterTasksList.remove(selectedTask);
-            updateTaskStatistics(); 
+            undoHistory.record("Delete", List.of(UndoHistory.Step.removed(before)));
             AlertUtil.showAlert("Task Deleted", "\"" + selectedTask.getDescription() + "\" has been deleted.");
         } else {
             AlertUtil.showAlert("Selection Error", "Please select a task to delete.");
@@ -394,190 +835,307 @@ public class TodoListController {
     // Handles the action of updating the selected task with new information from the input fields.
     @FXML
     protected void handleUpdateTask() {
+        measureUiAction("updateTask", this::updateTask);
+    }
+
+    // Updates the selected task from the input fields.
+    private void updateTask() {
         Task selectedTask = taskListView.getSelectionModel().getSelectedItem();
         if (selectedTask == null) {
             AlertUtil.showAlert("No Task Selected", "Please select a task to update.");
             return;
         }
 
-        if (selectedTask.isCompleted()) {
-            AlertUtil.showAlert("Task Completed", "Completed tasks cannot be updated.");
+        LocalDate newReminderDate = reminderDatePicker.getValue();
+        TaskRecord before = TaskRecord.of(selectedTask);
+        boolean dueTimeCleared = taskService.clearsDueTime(selectedTask, newReminderDate);
+        Task updatedTask;
+        try {
+            updatedTask = taskService.updateTask(selectedTask, taskTypeComboBox.getValue(), taskInput.getText(),
+                    detailsInput.getText(), newReminderDate, dueTimeInput.getText(), repeatInput.getText());
+        } catch (InvalidTaskInputException e) {
+            AlertUtil.showAlert(selectedTask.isCompleted() ? "Task Completed" : "Input Error", e.getMessage());
             return;
         }
 
-        String newDescription = taskInput.getText().trim();
-        LocalDate newReminderDate = reminderDatePicker.getValue();
-
-        if (newReminderDate != null && newReminderDate.isBefore(LocalDate.now())) {
-            boolean reminderDateChanged = (selectedTask.getReminderDate() == null && newReminderDate != null) || 
-                                          (selectedTask.getReminderDate() != null && !selectedTask.getReminderDate().equals(newReminderDate));
-            if (reminderDateChanged && newReminderDate.isBefore(LocalDate.now())) {
-                 AlertUtil.showAlert("Input Error", "Reminder date cannot be set to a date in the past.");
-                 return;
+        if (updatedTask != selectedTask) {
+            masterTasksList.remove(selectedTask);
+            masterTasksList.add(updatedTask);
+            taskListView.getSelectionModel().select(updatedTask);
+            undoHistory.record("Update", List.of(UndoHistory.Step.removed(before),
+                    UndoHistory.Step.added(TaskRecord.of(updatedTask))));
+        } else {
+            if (dueTimeCleared) {
+                dueTimeInput.clear();
+                AlertUtil.showAlert("Due Time Cleared", "Reminder date was cleared, so due time was also cleared for the deadline task.");
             }
+            reindexTask(selectedTask);
+            saveTask(selectedTask);
+            undoHistory.record("Update", List.of(UndoHistory.Step.changed(before, TaskRecord.of(selectedTask))));
         }
 
-        String newType = taskTypeComboBox.getValue();
-        String newDetails = detailsInput.getText().trim();
-        String newDueTimeText = dueTimeInput.getText().trim();
-
-        if (newDescription.isEmpty()) {
-            AlertUtil.showAlert("Input Error", "Task description cannot be empty.");
-            return;
-        }
-
-        try {
-            LocalTime newDueTime = DateTimeUtil.parseTime(newDueTimeText);
+        AlertUtil.showAlert("Task Updated", "Task '" + updatedTask.getDescription() + "' has been updated.");
+    }
 
-            if (newType.equals(DEADLINE_TASK)) {
-                if (newReminderDate != null && newReminderDate.isEqual(LocalDate.now()) &&
-                    newDueTime != null && newDueTime.isBefore(LocalTime.now())) {
-                    AlertUtil.showAlert("Input Error", "Due time for a task due today cannot be in the past.");
-                    return;
+    // Handles the action of undoing the last edit.
+    @FXML
+    protected void handleUndo() {
+        measureUiAction("undo", () -> {
+            List<UndoHistory.Step> steps = undoHistory.undo();
+            if (steps != null) {
+                for (int i = steps.size() - 1; i >= 0; i--) {
+                    restoreTask(steps.get(i).getAfter(), steps.get(i).getBefore());
                 }
             }
+        });
+    }
 
-            if (!selectedTask.getType().equals(newType)) {
-           
-                Task newTask;
-                switch (newType) {
-                    case SIMPLE_TASK:
-                        newTask = new SimpleTask(newDescription);
-                        break;
-                    case DETAILED_TASK:
-                        newTask = new DetailedTask(newDescription, newDetails);
-                        break;
-                    case DEADLINE_TASK:
-                        newTask = new DeadlineTask(newDescription, newReminderDate, newDueTime);
-                        break;
-                    default:
-                        throw new IllegalArgumentException("Invalid task type: " + newType);
-                }
-        
-                newTask.setCompleted(selectedTask.isCompleted()); 
-                if (!(newTask instanceof DeadlineTask)) { 
-                     if(newReminderDate != null) newTask.setReminderDate(newReminderDate);
-                     else newTask.setReminderDate(selectedTask.getReminderDate());
-                } else if (newReminderDate != null){
-                    newTask.setReminderDate(newReminderDate);
+    // Handles the action of redoing the last undone edit.
+    @FXML
+    protected void handleRedo() {
+        measureUiAction("redo", () -> {
+            List<UndoHistory.Step> steps = undoHistory.redo();
+            if (steps != null) {
+                for (UndoHistory.Step step : steps) {
+                    restoreTask(step.getBefore(), step.getAfter());
                 }
-             
+            }
+        });
+    }
 
-                masterTasksList.remove(selectedTask);
-                masterTasksList.add(newTask);
-                taskListView.getSelectionModel().select(newTask); 
-            } else {
-                
-                selectedTask.setDescription(newDescription);
-                selectedTask.setReminderDate(newReminderDate); 
+    // Brings a task from one snapshot to another (null meaning the task does not exist) through
+    // the task list, so only that task is written to the database. A deleted task comes back
+    // under its old id.
+    private void restoreTask(TaskRecord from, TaskRecord to) {
+        Task task = findTask(to != null ? to.getId() : from.getId());
+        if (to == null) {
+            if (task != null) {
+                masterTasksList.remove(task);
+            }
+            return;
+        }
+        if (task != null && task.getType().equals(to.getType())) {
+            to.applyTo(task);
+            reindexTask(task);
+            saveTask(task);
+            return;
+        }
+        if (task != null) {
+            masterTasksList.remove(task);
+        }
+        Task restored = to.toTask();
+        masterTasksList.add(restored);
+        // Loaded-looking tasks are not queued by the list listener, so queue it here. Queued as
+        // an add, so a row deleted in the meantime is written again.
+        try {
+            persistenceQueue.taskAdded(restored);
+        } catch (DataPersistenceException e) {
+            showSaveError(e);
+        }
+    }
 
-                if (selectedTask instanceof DetailedTask) {
-                    ((DetailedTask) selectedTask).setDetails(newDetails);
-                }
-                if (selectedTask instanceof DeadlineTask) {
-                    
-                    if (newReminderDate == null && ((DeadlineTask) selectedTask).getDueTime() != null) {
-                        ((DeadlineTask) selectedTask).setDueTime(null); 
-                        dueTimeInput.clear();
-                        AlertUtil.showAlert("Due Time Cleared", "Reminder date was cleared, so due time was also cleared for the deadline task.");
+    // Makes a task added before any task id was reserved findable by the id it got since.
+    private void handleIdAssigned(Task task) {
+        if (task.getListId() == activeListId) {
+            tasksById.put(task.getId(), task);
+        }
+        if (httpApi != null) {
+            httpApi.tasksChanged();
+        }
+    }
+
+    // Returns the task with the given id in the active list, or null.
+    private Task findTask(int id) {
+        return tasksById.get(id);
+    }
+
+    // Brings the active list in line with stored tasks that another process changed, or that
+    // could not be saved because of such a change. A null record means the task was deleted.
+    // Nothing here is written back to the database.
+    private void applyStoredTasks(Map<Integer, TaskRecord> records) {
+        boolean otherListsChanged = false;
+        applyingStoredState = true;
+        try {
+            for (Map.Entry<Integer, TaskRecord> entry : records.entrySet()) {
+                Task task = tasksById.get(entry.getKey());
+                TaskRecord record = entry.getValue();
+                if (record == null || record.getListId() != activeListId) {
+                    otherListsChanged |= record != null || task == null;
+                    if (task != null) {
+                        masterTasksList.remove(task);
                     }
-                    ((DeadlineTask) selectedTask).setDueTime(newDueTime);
+                } else if (task == null) {
+                    masterTasksList.add(record.toTask());
+                } else if (task.getType().equals(record.getType())) {
+                    record.applyTo(task);
+                    // Completions held in memory are stale; the stored reminder date is the current occurrence
+                    task.setCompletedOccurrences(null);
+                    task.setVersion(record.getVersion());
+                    task.markClean();
+                    reindexTask(task);
+                    reminderScheduler.schedule(task);
+                    renderCache.invalidate(task);
+                    taskStatistics.refresh(task);
+                } else {
+                    masterTasksList.remove(task);
+                    masterTasksList.add(record.toTask());
                 }
             }
+        } finally {
+            applyingStoredState = false;
+        }
+        // Cached lists may hold stale copies of these tasks
+        if (otherListsChanged) {
+            listCache.clear();
+        }
+        if (httpApi != null) {
+            httpApi.tasksChanged();
+        }
+    }
 
-            refreshListView();
-            updateTaskStatistics();
-            saveTasks();
-            AlertUtil.showAlert("Task Updated", "Task '" + newDescription + "' has been updated.");
-
-        } catch (InvalidTaskInputException e) {
-            AlertUtil.showAlert("Input Error", e.getMessage());
-        } catch (DateTimeParseException e) {
-            AlertUtil.showAlert("Input Error", "Invalid due time format. Please use HH:mm.");
-        } catch (IllegalArgumentException e) {
-            AlertUtil.showAlert("Update Error", "An unexpected error occurred during update: " + e.getMessage());
+    // Called on the write-behind thread with the ids of tasks whose changes were not saved
+    // because another process changed or deleted them first. The stored state wins: it is read
+    // back and shown in place of the local edit.
+    private void handleConflicts(List<Integer> taskIds) {
+        Map<Integer, TaskRecord> stored;
+        try {
+            stored = DatabaseManager.loadTasksById(taskIds);
+        } catch (DataPersistenceException e) {
+            System.err.println("Failed to reload conflicting tasks: " + e.getMessage());
+            return;
         }
+        Map<Integer, TaskRecord> records = new HashMap<>();
+        for (Integer id : taskIds) {
+            records.put(id, stored.get(id));
+        }
+        Platform.runLater(() -> {
+            applyStoredTasks(records);
+            notifications.post("Changes Not Saved", taskIds.size() == 1
+                    ? "A task was changed elsewhere, so your edit to it was not saved."
+                    : taskIds.size() + " tasks were changed elsewhere, so your edits to them were not saved.",
+                    "changed elsewhere, not saved");
+        });
     }
-    
-    // Refreshes the ListView to reflect any changes to the tasks.
-    private void refreshListView() {
-        taskListView.refresh();
+
+    // Shows the notification for a reminder that has become due.
+    // Each task, date and kind of reminder is only notified once.
+    private void handleReminder(ReminderEvent event) {
+        measureUiAction("reminder", () -> showReminder(event));
     }
 
-    // Method to check for due and overdue tasks
-    private void checkDueTasks() {
-        Platform.runLater(() -> {
-            LocalDate now = LocalDate.now();
-            LocalTime currentTime = LocalTime.now();
-            
-            for (Task task : masterTasksList) {
-                if (!task.isCompleted() && task.getReminderDate() != null) {
-                    String notificationKey = task.getDescription() + "_" + task.getReminderDate();
-                    
-                    if (task instanceof DeadlineTask) {
-                        DeadlineTask deadlineTask = (DeadlineTask) task;
-                        if (deadlineTask.getDueTime() != null) {
-                            // Check if the task is due today
-                            if (task.getReminderDate().isEqual(now)) {
-                                LocalTime dueTime = deadlineTask.getDueTime();
-                                // Check if we're within a minute of the due time
-                                if (Math.abs(currentTime.toSecondOfDay() - dueTime.toSecondOfDay()) <= 60) {
-                                    notificationKey += "_due_time";
-                                    if (!shownNotifications.contains(notificationKey)) {
-                                        NotificationUtil.showTaskNotification(
-                                            "Task Due",
-                                            "Task \"" + task.getDescription() + "\" is due now!"
-                                        );
-                                        shownNotifications.add(notificationKey);
-                                    }
-                                }
-                                // Check if the task is overdue
-                                else if (dueTime.isBefore(currentTime)) {
-                                    notificationKey += "_overdue";
-                                    if (!shownNotifications.contains(notificationKey)) {
-                                        NotificationUtil.showTaskNotification(
-                                            "Task Overdue",
-                                            "Task \"" + task.getDescription() + "\" is overdue!"
-                                        );
-                                        shownNotifications.add(notificationKey);
-                                    }
-                                }
-                            }
-                        }
-                    } else if (task.getReminderDate().isEqual(now)) {
-                        // For non-deadline tasks, notify when the date is reached
-                        notificationKey += "_due";
-                        if (!shownNotifications.contains(notificationKey)) {
-                            NotificationUtil.showTaskNotification(
-                                "Task Due",
-                                "Task \"" + task.getDescription() + "\" is due today!"
-                            );
-                            shownNotifications.add(notificationKey);
-                        }
-                    }
-                }
+    private void showReminder(ReminderEvent event) {
+        Task task = event.getTask();
+        // A due or overdue boundary has passed for this task
+        taskStatistics.refresh(task);
+        if (sortedTasksList.getGrouping() == SortedTaskView.Grouping.SCHEDULE) {
+            sortedTasksList.refresh(task);
+        }
+        if (task.isCompleted()) {
+            return;
+        }
+        String title;
+        String message;
+        String digestLabel;
+        switch (event.getKind()) {
+            case DUE_NOW:
+                title = "Task Due";
+                message = "Task \"" + task.getDescription() + "\" is due now!";
+                digestLabel = "due now";
+                break;
+            case OVERDUE:
+                title = "Task Overdue";
+                message = "Task \"" + task.getDescription() + "\" is overdue!";
+                digestLabel = "overdue";
+                break;
+            default:
+                title = "Task Due";
+                message = "Task \"" + task.getDescription() + "\" is due today!";
+                digestLabel = "due today";
+                break;
+        }
+
+        notificationLedger.showOnce(task.getId(), event.getKind(), event.getDate(),
+                () -> notifications.post(title, message, digestLabel));
+    }
+
+    // Starts the local HTTP API (see TaskApiServer) on the given port. Changes made through it go
+    // through the same list, rules and persistence as changes made in the window.
+    public void startHttpApi(int port) throws IOException {
+        httpApi = new TaskApiServer(port, taskService, Platform::runLater, new TaskApiServer.TaskStore() {
+            @Override
+            public List<Task> getTasks() {
+                return masterTasksList;
+            }
+
+            @Override
+            public Task find(int id) {
+                return findTask(id);
+            }
+
+            @Override
+            public boolean canAssignId() {
+                return persistenceQueue.hasTaskIds();
+            }
+
+            @Override
+            public void add(Task task) {
+                masterTasksList.add(task);
+            }
+
+            @Override
+            public void replace(Task oldTask, Task newTask) {
+                masterTasksList.remove(oldTask);
+                masterTasksList.add(newTask);
+            }
+
+            @Override
+            public void changed(Task task) {
+                reindexTask(task);
+                saveTask(task);
+            }
+
+            @Override
+            public void completed(Task task) {
+                saveCompletedTask(task);
+            }
+
+            @Override
+            public void remove(Task task) {
+                masterTasksList.remove(task);
             }
-            
-            // Clean up old notifications (older than today)
-            shownNotifications.removeIf(key -> {
-                String[] parts = key.split("_");
-                if (parts.length >= 2) {
-                    try {
-                        LocalDate notificationDate = LocalDate.parse(parts[1]);
-                        return notificationDate.isBefore(now);
-                    } catch (Exception e) {
-                        return true; // Remove invalid entries
-                    }
-                }
-                return true;
-            });
         });
+        httpApi.start();
     }
 
-    // Add cleanup method to stop the scheduler when the application closes
+    // Add cleanup method to stop the reminder scheduler when the application closes
     public void cleanup() {
-        if (scheduler != null && !scheduler.isShutdown()) {
-            scheduler.shutdown();
+        if (httpApi != null) {
+            httpApi.stop();
+        }
+        if (changeWatcher != null) {
+            changeWatcher.stop();
+        }
+        if (taskLoader != null) {
+            taskLoader.cancel();
+        }
+        if (reminderScheduler != null) {
+            reminderScheduler.shutdown();
+        }
+        if (dayRollover != null) {
+            dayRollover.stop();
+        }
+        if (renderCache != null) {
+            renderCache.stop();
+        }
+        if (notifications != null) {
+            notifications.stop();
+        }
+        if (notificationLedger != null) {
+            notificationLedger.close();
+        }
+        // Write any changes still waiting in the write-behind queue
+        if (persistenceQueue != null) {
+            persistenceQueue.close();
         }
     }
 } 
\ No newline at end of file
@@ -9,12 +9,23 @@ public class AlertUtil {
     // Private constructor to prevent instantiation of utility class
     private AlertUtil() {}
 
-    // Displays an information alert dialog.
+    // Displays an information alert dialog. Returns without waiting for the dialog to be closed,
+    // so the caller and the FX thread keep running.
     public static void showAlert(String title, String content) {
+        createAlert(title, content).show();
+    }
+
+    // Displays an information alert dialog and waits until it is closed.
+    // Only for errors that end the application, where nothing else should run meanwhile.
+    public static void showAlertAndWait(String title, String content) {
+        createAlert(title, content).showAndWait();
+    }
+
+    private static Alert createAlert(String title, String content) {
         Alert alert = new Alert(AlertType.INFORMATION);
         alert.setTitle(title);
         alert.setHeaderText(null);
         alert.setContentText(content);
-        alert.showAndWait();
+        return alert;
     }
 } 
\ No newline at end of file
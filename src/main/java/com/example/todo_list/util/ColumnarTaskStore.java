@@ -0,0 +1,486 @@
+package com.example.todo_list.util;
+
+import com.example.todo_list.CompletedOccurrences;
+import com.example.todo_list.HasDetails;
+import com.example.todo_list.HasDueTime;
+import com.example.todo_list.Recurrence;
+import com.example.todo_list.Task;
+import com.example.todo_list.TaskRecord;
+import com.example.todo_list.exception.InvalidTaskInputException;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+// Compact column-oriented storage for large numbers of tasks.
+// Each task is a row: the id, list id, row version, type code, reminder date (epoch day) and due time (second of day)
+// are kept in primitive arrays, the completed and dirty flags in bitsets, and the description and
+// details as indexes into a shared table that stores every distinct string once. The repeat rules
+// and completed occurrences of the few recurring tasks are kept in maps keyed by row.
+// Rows are exposed as Task views that read and write the columns, so a view costs a small object
+// holding only the store and the row instead of a task with its own String, LocalDate and LocalTime
+// objects. Views of Detailed and Deadline rows implement HasDetails and HasDueTime, like the tasks.
+//
+// All methods are synchronized, so rows can be added on a loader thread while views are read on
+// the FX thread. Rows are never removed; build a new store to drop tasks.
+public class ColumnarTaskStore {
+    private static final byte TYPE_SIMPLE = 0;
+    private static final byte TYPE_DETAILED = 1;
+    private static final byte TYPE_DEADLINE = 2;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final int NO_TIME = -1;
+    private static final int NO_TEXT = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private int size;
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int[] listIds = new int[INITIAL_CAPACITY];
+    private int[] versions = new int[INITIAL_CAPACITY];
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private int[] descriptions = new int[INITIAL_CAPACITY];
+    private int[] details = new int[INITIAL_CAPACITY];
+    private int[] reminderDays = new int[INITIAL_CAPACITY];
+    private int[] dueSeconds = new int[INITIAL_CAPACITY];
+    private final BitSet completed = new BitSet();
+    private final BitSet dirty = new BitSet();
+    private final Map<Integer, Recurrence> recurrences = new HashMap<>();
+    private final Map<Integer, CompletedOccurrences> completedOccurrences = new HashMap<>();
+
+    // Shared string table: each distinct string is stored once and referenced by index.
+    // stringSlots is an open-addressing hash set of string indexes plus one (0 marks a free slot),
+    // which avoids a map entry and a boxed Integer per string.
+    private String[] strings = new String[INITIAL_CAPACITY];
+    private int stringCount;
+    private int[] stringSlots = new int[2 * INITIAL_CAPACITY];
+
+    // Adds a row with the state of the record and returns a view of it.
+    // Rows with an id are marked as in sync with the database, like TaskRecord.toTask().
+    public synchronized Task add(TaskRecord record) {
+        int row = addRow(record);
+        dirty.set(row, record.getId() == 0);
+        return view(row);
+    }
+
+    // Adds a row with the current state of the task and returns a view of it.
+    public synchronized Task add(Task task) {
+        int row = addRow(TaskRecord.of(task));
+        dirty.set(row, task.isDirty());
+        return view(row);
+    }
+
+    // Returns a new view of a row. Views of the same row share their state.
+    public synchronized Task view(int row) {
+        checkRow(row);
+        switch (types[row]) {
+            case TYPE_DETAILED:
+                return new DetailedView(this, row);
+            case TYPE_DEADLINE:
+                return new DeadlineView(this, row);
+            default:
+                return new RowView(this, row);
+        }
+    }
+
+    // Returns the number of rows.
+    public synchronized int size() {
+        return size;
+    }
+
+    // Returns the number of distinct strings in the string table.
+    public synchronized int getDistinctStringCount() {
+        return stringCount;
+    }
+
+    // Shrinks the columns to the number of rows, e.g. after a bulk load.
+    public synchronized void trimToSize() {
+        resize(Math.max(size, 1));
+        strings = Arrays.copyOf(strings, Math.max(stringCount, 1));
+    }
+
+    private int addRow(TaskRecord record) {
+        if (record.getDescription() == null || record.getDescription().trim().isEmpty()) {
+            throw new InvalidTaskInputException("Description cannot be empty.");
+        }
+        byte type = typeCode(record.getType());
+        if (type == TYPE_DEADLINE && record.getReminderDate() == null && record.getDueTime() != null) {
+            throw new InvalidTaskInputException("Cannot set due time without a reminder date.");
+        }
+        ensureCapacity(size + 1);
+        int row = size++;
+        ids[row] = record.getId();
+        listIds[row] = record.getListId();
+        versions[row] = record.getVersion();
+        types[row] = type;
+        descriptions[row] = intern(record.getDescription());
+        details[row] = type == TYPE_DETAILED ? intern(record.getDetails()) : NO_TEXT;
+        reminderDays[row] = toEpochDay(record.getReminderDate());
+        dueSeconds[row] = type == TYPE_DEADLINE ? toSecondOfDay(record.getDueTime()) : NO_TIME;
+        completed.set(row, record.isCompleted());
+        if (record.getRecurrence() != null) {
+            recurrences.put(row, record.getRecurrence());
+        }
+        if (record.getCompletedOccurrences() != null) {
+            completedOccurrences.put(row, record.getCompletedOccurrences());
+        }
+        return row;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > ids.length) {
+            resize(Math.max(capacity, ids.length + (ids.length >> 1)));
+        }
+    }
+
+    private void resize(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        listIds = Arrays.copyOf(listIds, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        types = Arrays.copyOf(types, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        details = Arrays.copyOf(details, capacity);
+        reminderDays = Arrays.copyOf(reminderDays, capacity);
+        dueSeconds = Arrays.copyOf(dueSeconds, capacity);
+    }
+
+    // Returns the string table index of the text, adding it if it is new.
+    private int intern(String text) {
+        if (text == null) {
+            return NO_TEXT;
+        }
+        int mask = stringSlots.length - 1;
+        int slot = spread(text.hashCode()) & mask;
+        while (stringSlots[slot] != 0) {
+            int index = stringSlots[slot] - 1;
+            if (strings[index].equals(text)) {
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (stringCount == strings.length) {
+            strings = Arrays.copyOf(strings, stringCount + (stringCount >> 1) + 1);
+        }
+        strings[stringCount] = text;
+        stringSlots[slot] = stringCount + 1;
+        stringCount++;
+        // Keep the load factor at or below one half
+        if (2 * stringCount > stringSlots.length) {
+            rehashStrings(2 * stringSlots.length);
+        }
+        return stringCount - 1;
+    }
+
+    private void rehashStrings(int slotCount) {
+        stringSlots = new int[slotCount];
+        int mask = slotCount - 1;
+        for (int index = 0; index < stringCount; index++) {
+            int slot = spread(strings[index].hashCode()) & mask;
+            while (stringSlots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            stringSlots[slot] = index + 1;
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private String text(int index) {
+        return index == NO_TEXT ? null : strings[index];
+    }
+
+    private static byte typeCode(String type) {
+        switch (type != null ? type : "") {
+            case "Simple":
+                return TYPE_SIMPLE;
+            case "Detailed":
+                return TYPE_DETAILED;
+            case "Deadline":
+                return TYPE_DEADLINE;
+            default:
+                throw new InvalidTaskInputException("Unknown task type: " + type);
+        }
+    }
+
+    private static int toEpochDay(LocalDate date) {
+        return date == null ? NO_DATE : Math.toIntExact(date.toEpochDay());
+    }
+
+    private static int toSecondOfDay(LocalTime time) {
+        return time == null ? NO_TIME : time.toSecondOfDay();
+    }
+
+    // Column accessors used by the views.
+
+    private synchronized int getId(int row) {
+        return ids[row];
+    }
+
+    private synchronized void setId(int row, int id) {
+        ids[row] = id;
+    }
+
+    private synchronized int getListId(int row) {
+        return listIds[row];
+    }
+
+    private synchronized void setListId(int row, int listId) {
+        listIds[row] = listId;
+        dirty.set(row);
+    }
+
+    private synchronized int getVersion(int row) {
+        return versions[row];
+    }
+
+    private synchronized void setVersion(int row, int version) {
+        versions[row] = version;
+    }
+
+    private synchronized boolean isDirty(int row) {
+        return dirty.get(row);
+    }
+
+    private synchronized void setDirty(int row, boolean value) {
+        dirty.set(row, value);
+    }
+
+    private synchronized String getDescription(int row) {
+        return text(descriptions[row]);
+    }
+
+    private synchronized void setDescription(int row, String description) {
+        descriptions[row] = intern(description);
+        dirty.set(row);
+    }
+
+    private synchronized String getDetails(int row) {
+        return text(details[row]);
+    }
+
+    private synchronized void setDetails(int row, String text) {
+        details[row] = intern(text);
+        dirty.set(row);
+    }
+
+    private synchronized LocalDate getReminderDate(int row) {
+        int day = reminderDays[row];
+        return day == NO_DATE ? null : LocalDate.ofEpochDay(day);
+    }
+
+    private synchronized void setReminderDate(int row, LocalDate date) {
+        reminderDays[row] = toEpochDay(date);
+        dirty.set(row);
+    }
+
+    private synchronized LocalTime getDueTime(int row) {
+        int seconds = dueSeconds[row];
+        return seconds == NO_TIME ? null : LocalTime.ofSecondOfDay(seconds);
+    }
+
+    private synchronized void setDueTime(int row, LocalTime time) {
+        dueSeconds[row] = toSecondOfDay(time);
+        dirty.set(row);
+    }
+
+    private synchronized boolean isCompleted(int row) {
+        return completed.get(row);
+    }
+
+    private synchronized void setCompleted(int row, boolean value) {
+        completed.set(row, value);
+        dirty.set(row);
+    }
+
+    private synchronized Recurrence getRecurrence(int row) {
+        return recurrences.get(row);
+    }
+
+    private synchronized void setRecurrence(int row, Recurrence recurrence) {
+        putOrRemove(recurrences, row, recurrence);
+        dirty.set(row);
+    }
+
+    private synchronized CompletedOccurrences getCompletedOccurrences(int row) {
+        return completedOccurrences.get(row);
+    }
+
+    private synchronized void setCompletedOccurrences(int row, CompletedOccurrences occurrences) {
+        putOrRemove(completedOccurrences, row, occurrences);
+        dirty.set(row);
+    }
+
+    private static <V> void putOrRemove(Map<Integer, V> column, int row, V value) {
+        if (value != null) {
+            column.put(row, value);
+        } else {
+            column.remove(row);
+        }
+    }
+
+    // View of a row: holds only the store and the row, and reads and writes the columns. Simple
+    // task rows are viewed as is; Detailed and Deadline rows add their own column.
+    private static class RowView extends Task {
+        final ColumnarTaskStore store;
+        final int row;
+
+        private RowView(ColumnarTaskStore store, int row) {
+            this.store = store;
+            this.row = row;
+        }
+
+        @Override
+        public int getId() {
+            return store.getId(row);
+        }
+
+        @Override
+        public void setId(int id) {
+            store.setId(row, id);
+        }
+
+        @Override
+        public int getListId() {
+            return store.getListId(row);
+        }
+
+        @Override
+        public void setListId(int listId) {
+            store.setListId(row, listId);
+        }
+
+        @Override
+        public int getVersion() {
+            return store.getVersion(row);
+        }
+
+        @Override
+        public void setVersion(int version) {
+            store.setVersion(row, version);
+        }
+
+        @Override
+        public boolean isDirty() {
+            return store.isDirty(row);
+        }
+
+        @Override
+        public void markClean() {
+            store.setDirty(row, false);
+        }
+
+        @Override
+        protected void markDirty() {
+            store.setDirty(row, true);
+        }
+
+        @Override
+        public String getDescription() {
+            return store.getDescription(row);
+        }
+
+        @Override
+        public void setDescription(String description) {
+            store.setDescription(row, validDescription(description));
+        }
+
+        @Override
+        public LocalDate getReminderDate() {
+            return store.getReminderDate(row);
+        }
+
+        @Override
+        public void setReminderDate(LocalDate reminderDate) {
+            store.setReminderDate(row, reminderDate);
+        }
+
+        @Override
+        public boolean isCompleted() {
+            return store.isCompleted(row);
+        }
+
+        @Override
+        public void setCompleted(boolean completed) {
+            store.setCompleted(row, completed);
+        }
+
+        @Override
+        public Recurrence getRecurrence() {
+            return store.getRecurrence(row);
+        }
+
+        @Override
+        public void setRecurrence(Recurrence recurrence) {
+            store.setRecurrence(row, recurrence);
+        }
+
+        @Override
+        public CompletedOccurrences getCompletedOccurrences() {
+            return store.getCompletedOccurrences(row);
+        }
+
+        @Override
+        public void setCompletedOccurrences(CompletedOccurrences occurrences) {
+            store.setCompletedOccurrences(row, occurrences);
+        }
+
+        @Override
+        public String getType() {
+            return "Simple";
+        }
+    }
+
+    // View of a Detailed task row.
+    private static final class DetailedView extends RowView implements HasDetails {
+        private DetailedView(ColumnarTaskStore store, int row) {
+            super(store, row);
+        }
+
+        @Override
+        public String getDetails() {
+            return store.getDetails(row);
+        }
+
+        @Override
+        public void setDetails(String details) {
+            store.setDetails(row, details != null ? details.trim() : null);
+        }
+
+        @Override
+        public String getType() {
+            return "Detailed";
+        }
+    }
+
+    // View of a Deadline task row.
+    private static final class DeadlineView extends RowView implements HasDueTime {
+        private DeadlineView(ColumnarTaskStore store, int row) {
+            super(store, row);
+        }
+
+        @Override
+        public LocalTime getDueTime() {
+            return store.getDueTime(row);
+        }
+
+        @Override
+        public void setDueTime(LocalTime dueTime) {
+            checkDueTime(dueTime);
+            store.setDueTime(row, dueTime);
+        }
+
+        @Override
+        public String getType() {
+            return "Deadline";
+        }
+    }
+}
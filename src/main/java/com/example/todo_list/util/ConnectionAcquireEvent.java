@@ -0,0 +1,28 @@
+package com.example.todo_list.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// JFR event for borrowing a connection from the ConnectionPool, including any wait for a free one.
+@Name("com.example.todo_list.ConnectionAcquire")
+@Label("Connection Acquire")
+@Category({"Todo List", "Database"})
+@Description("Borrowing a database connection from the pool")
+public class ConnectionAcquireEvent extends TimedEvent {
+    @Label("Active Connections")
+    int activeConnections;
+
+    // Starts an event for one acquisition.
+    public static ConnectionAcquireEvent start() {
+        ConnectionAcquireEvent event = new ConnectionAcquireEvent();
+        event.startTiming("db.getConnection");
+        return event;
+    }
+
+    // Sets the number of borrowed connections, including this one.
+    public void setActiveConnections(int activeConnections) {
+        this.activeConnections = activeConnections;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.todo_list.util;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bounded pool of JDBC connections with a per-connection prepared statement cache.
+// Connections that have been idle for a while are validated before they are handed out again.
+public class ConnectionPool {
+    private static final long VALIDATION_IDLE_MILLIS = 30_000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final BlockingQueue<PooledConnection> idle;
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private volatile boolean closed;
+
+    // Creates a pool that opens at most maxSize connections and waits up to acquireTimeoutMillis for a free one.
+    public ConnectionPool(String url, String user, String password, int maxSize, long acquireTimeoutMillis) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.idle = new ArrayBlockingQueue<>(maxSize);
+    }
+
+    // Borrows a connection. Closing the returned connection gives it back to the pool.
+    public PooledConnection getConnection() throws SQLException {
+        ConnectionAcquireEvent event = ConnectionAcquireEvent.start();
+        try {
+            PooledConnection conn = acquire();
+            event.setActiveConnections(active.get());
+            return conn;
+        } finally {
+            event.finish();
+        }
+    }
+
+    private PooledConnection acquire() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed.");
+        }
+        long start = System.nanoTime();
+        PooledConnection conn = idle.poll();
+        while (conn == null || !validate(conn)) {
+            conn = null;
+            if (reserveSlot()) {
+                try {
+                    conn = new PooledConnection(this, DriverManager.getConnection(url, user, password));
+                } catch (SQLException e) {
+                    created.decrementAndGet();
+                    throw e;
+                }
+                break;
+            }
+            try {
+                conn = idle.poll(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database connection.", e);
+            }
+            if (conn == null) {
+                throw new SQLException("Timed out after " + acquireTimeoutMillis + " ms waiting for a database connection.");
+            }
+        }
+        recordWait(System.nanoTime() - start);
+        active.incrementAndGet();
+        conn.markBorrowed();
+        return conn;
+    }
+
+    // Returns current usage and wait time statistics.
+    public ConnectionPoolStatistics getStatistics() {
+        long count = acquisitions.sum();
+        long averageWait = count == 0 ? 0 : totalWaitNanos.sum() / count;
+        return new ConnectionPoolStatistics(active.get(), idle.size(), created.get(), maxSize,
+                count, averageWait, maxWaitNanos.get());
+    }
+
+    // Closes all idle connections and rejects further requests.
+    // Connections still borrowed are closed when they are returned.
+    public void close() {
+        closed = true;
+        PooledConnection conn;
+        while ((conn = idle.poll()) != null) {
+            discard(conn);
+        }
+    }
+
+    // Called by PooledConnection.close().
+    void release(PooledConnection conn) {
+        active.decrementAndGet();
+        if (closed || !conn.resetForReuse() || !idle.offer(conn)) {
+            discard(conn);
+        }
+    }
+
+    private boolean reserveSlot() {
+        while (true) {
+            int current = created.get();
+            if (current >= maxSize) {
+                return false;
+            }
+            if (created.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean validate(PooledConnection conn) {
+        if (System.currentTimeMillis() - conn.getLastReturnedMillis() < VALIDATION_IDLE_MILLIS) {
+            return true;
+        }
+        try {
+            if (conn.getConnection().isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return true;
+            }
+        } catch (SQLException e) {
+            // Treated as invalid below
+        }
+        discard(conn);
+        return false;
+    }
+
+    private void discard(PooledConnection conn) {
+        created.decrementAndGet();
+        conn.closePhysically();
+    }
+
+    private void recordWait(long nanos) {
+        acquisitions.increment();
+        totalWaitNanos.add(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+}
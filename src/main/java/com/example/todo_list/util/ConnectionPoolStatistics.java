@@ -0,0 +1,67 @@
+package com.example.todo_list.util;
+
+// Point-in-time usage statistics of a ConnectionPool.
+public final class ConnectionPoolStatistics {
+    private final int active;
+    private final int idle;
+    private final int open;
+    private final int maxSize;
+    private final long acquisitions;
+    private final long averageWaitNanos;
+    private final long maxWaitNanos;
+
+    // Constructs a statistics snapshot.
+    public ConnectionPoolStatistics(int active, int idle, int open, int maxSize,
+                                    long acquisitions, long averageWaitNanos, long maxWaitNanos) {
+        this.active = active;
+        this.idle = idle;
+        this.open = open;
+        this.maxSize = maxSize;
+        this.acquisitions = acquisitions;
+        this.averageWaitNanos = averageWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+    }
+
+    // Gets the number of connections currently borrowed.
+    public int getActive() {
+        return active;
+    }
+
+    // Gets the number of open connections waiting to be borrowed.
+    public int getIdle() {
+        return idle;
+    }
+
+    // Gets the number of physical connections currently open.
+    public int getOpen() {
+        return open;
+    }
+
+    // Gets the maximum number of physical connections.
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    // Gets the total number of successful borrows.
+    public long getAcquisitions() {
+        return acquisitions;
+    }
+
+    // Gets the average time spent waiting for a connection, in nanoseconds.
+    public long getAverageWaitNanos() {
+        return averageWaitNanos;
+    }
+
+    // Gets the longest time spent waiting for a connection, in nanoseconds.
+    public long getMaxWaitNanos() {
+        return maxWaitNanos;
+    }
+
+    // Returns a string representation of the statistics.
+    @Override
+    public String toString() {
+        return "active=" + active + ", idle=" + idle + ", open=" + open + "/" + maxSize +
+                ", acquisitions=" + acquisitions +
+                ", avgWait=" + (averageWaitNanos / 1000) + "us, maxWait=" + (maxWaitNanos / 1000) + "us";
+    }
+}
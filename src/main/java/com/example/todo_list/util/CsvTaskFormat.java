@@ -0,0 +1,146 @@
+package com.example.todo_list.util;
+
+import com.example.todo_list.Recurrence;
+import com.example.todo_list.TaskList;
+import com.example.todo_list.TaskRecord;
+import com.example.todo_list.exception.InvalidTaskInputException;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+// CSV task format (RFC 4180 quoting) with the columns
+// type,description,details,reminder_date,due_time,completed,recurrence.
+// Files written before tasks could repeat, without the recurrence column, are read as well.
+public class CsvTaskFormat implements TaskRecordFormat {
+    private static final String HEADER = "type,description,details,reminder_date,due_time,completed,recurrence";
+    private static final String HEADER_WITHOUT_RECURRENCE = "type,description,details,reminder_date,due_time,completed";
+    private static final int COLUMN_COUNT = 7;
+
+    @Override
+    public String getHeader() {
+        return HEADER;
+    }
+
+    @Override
+    public boolean isHeader(String line) {
+        return line.trim().equalsIgnoreCase(HEADER) || line.trim().equalsIgnoreCase(HEADER_WITHOUT_RECURRENCE);
+    }
+
+    @Override
+    public String format(TaskRecord record) {
+        StringBuilder sb = new StringBuilder(64);
+        appendField(sb, record.getType()).append(',');
+        appendField(sb, record.getDescription()).append(',');
+        appendField(sb, record.getDetails()).append(',');
+        appendField(sb, record.getReminderDate() != null ? record.getReminderDate().toString() : null).append(',');
+        appendField(sb, record.getDueTime() != null ? DateTimeUtil.formatTime(record.getDueTime()) : null).append(',');
+        sb.append(record.isCompleted()).append(',');
+        appendField(sb, record.getRecurrence() != null ? record.getRecurrence().toString() : null);
+        return sb.toString();
+    }
+
+    @Override
+    public boolean isRecordComplete(String text) {
+        // A record continues on the next line while a quoted field is open
+        int quotes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes % 2 == 0;
+    }
+
+    @Override
+    public TaskRecord parse(String text) throws InvalidTaskInputException {
+        List<String> fields = splitFields(text);
+        if (fields.size() != COLUMN_COUNT && fields.size() != COLUMN_COUNT - 1) {
+            throw new InvalidTaskInputException("Expected " + COLUMN_COUNT + " columns but found " + fields.size() + ".");
+        }
+        try {
+            LocalDate reminderDate = fields.get(3) != null ? LocalDate.parse(fields.get(3)) : null;
+            String rule = fields.size() == COLUMN_COUNT ? fields.get(6) : null;
+            return new TaskRecord(0,
+                    fields.get(0),
+                    fields.get(1),
+                    fields.get(2),
+                    reminderDate,
+                    fields.get(4) != null ? LocalTime.parse(fields.get(4)) : null,
+                    parseBoolean(fields.get(5)),
+                    TaskList.DEFAULT_LIST_ID,
+                    0,
+                    rule != null ? Recurrence.parse(rule, reminderDate != null ? reminderDate : LocalDate.now()) : null,
+                    null);
+        } catch (DateTimeParseException e) {
+            throw new InvalidTaskInputException("Invalid date or time: " + e.getParsedString(), e);
+        }
+    }
+
+    // Quotes a field if needed; null is written as an empty field.
+    private static StringBuilder appendField(StringBuilder sb, String value) {
+        if (value == null || value.isEmpty()) {
+            return sb;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0 ||
+                        value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            return sb.append(value);
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                sb.append('"');
+            }
+            sb.append(c);
+        }
+        return sb.append('"');
+    }
+
+    // Splits a record into fields; empty fields become null.
+    private static List<String> splitFields(String text) {
+        List<String> fields = new ArrayList<>(COLUMN_COUNT);
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (inQuotes) {
+                if (c == '"') {
+                    if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+            } else if (c == ',') {
+                fields.add(field.length() > 0 ? field.toString() : null);
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (inQuotes) {
+            throw new InvalidTaskInputException("Unterminated quoted field.");
+        }
+        fields.add(field.length() > 0 ? field.toString() : null);
+        return fields;
+    }
+
+    private static boolean parseBoolean(String value) {
+        if (value == null || value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        throw new InvalidTaskInputException("Invalid completed value: " + value);
+    }
+}
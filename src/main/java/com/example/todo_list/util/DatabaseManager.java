@@ -1,30 +1,51 @@
 package com.example.todo_list.util;
 
-import com.example.todo_list.DeadlineTask;
-import com.example.todo_list.DetailedTask;
-import com.example.todo_list.SimpleTask;
+import com.example.todo_list.CompletedOccurrences;
+import com.example.todo_list.Recurrence;
 import com.example.todo_list.Task;
+import com.example.todo_list.TaskList;
+import com.example.todo_list.TaskRecord;
 import com.example.todo_list.exception.DataPersistenceException;
+import com.example.todo_list.exception.InvalidTaskInputException;
 import org.h2.tools.Server;
 
 import java.io.File;
 import java.sql.*;
 import java.time.LocalDate;
-import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 
 // Manages database connections and operations for the to-do list application.
 // Uses H2 database for persistence.
 
 public class DatabaseManager {
-    private static final String DB_DIRECTORY = System.getProperty("user.home") + File.separator + ".todo_list";
-    private static final String DB_URL = "jdbc:h2:file:" + DB_DIRECTORY + File.separator + "todo_db;DB_CLOSE_DELAY=-1";
+    // The database location can be overridden with -Dtodo_list.db.dir=<directory>
+    private static final String DB_DIRECTORY = System.getProperty("todo_list.db.dir",
+            System.getProperty("user.home") + File.separator + ".todo_list");
+    // With -Dtodo_list.db.shared=true several processes (application windows, the CLI) can use the
+    // database at once: the first one serves it to the others over a local TCP connection (H2
+    // AUTO_SERVER), their changes are recorded in change_log for the others to pick up, and
+    // each process writes to its own journal
+    private static final boolean SHARED = Boolean.getBoolean("todo_list.db.shared");
+    private static final String DB_URL = "jdbc:h2:file:" + DB_DIRECTORY + File.separator + "todo_db;DB_CLOSE_DELAY=-1"
+            + (SHARED ? ";AUTO_SERVER=TRUE" : "");
+    // Identifies this process's entries in change_log
+    private static final String INSTANCE_ID = UUID.randomUUID().toString();
     private static final String DB_USER = "user";
     private static final String DB_PASSWORD = "password";
+    private static final int POOL_SIZE = 4;
+    private static final long POOL_ACQUIRE_TIMEOUT_MILLIS = 10_000;
+    private static final ConnectionPool connectionPool =
+            new ConnectionPool(DB_URL, DB_USER, DB_PASSWORD, POOL_SIZE, POOL_ACQUIRE_TIMEOUT_MILLIS);
     private static Server server;
     
     private static final String CREATE_TASKS_TABLE = 
@@ -35,19 +56,161 @@ public class DatabaseManager {
             "details VARCHAR(1000), " +
             "reminder_date DATE, " +
             "due_time TIME, " +
-            "completed BOOLEAN NOT NULL DEFAULT FALSE" +
+            "completed BOOLEAN NOT NULL DEFAULT FALSE, " +
+            "list_id INT NOT NULL DEFAULT " + TaskList.DEFAULT_LIST_ID + ", " +
+            "version INT NOT NULL DEFAULT 0, " +
+            "recurrence VARCHAR(200)" +
             ")";
     
-    static {
-        // Initialize database on class load
-        try {
-            initializeDatabase();
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.err.println("Failed to initialize the database: " + e.getMessage());
+    // Named task lists; every task belongs to one through tasks.list_id
+    private static final String CREATE_TASK_LISTS_TABLE =
+            "CREATE TABLE IF NOT EXISTS task_lists (" +
+            "id INT AUTO_INCREMENT PRIMARY KEY, " +
+            "name VARCHAR(" + TaskList.MAX_NAME_LENGTH + ") NOT NULL UNIQUE" +
+            ")";
+    // Databases created before task lists existed put all their tasks in the default list
+    private static final String ADD_TASKS_LIST_ID_COLUMN =
+            "ALTER TABLE tasks ADD COLUMN IF NOT EXISTS list_id INT NOT NULL DEFAULT " + TaskList.DEFAULT_LIST_ID;
+    // Incremented by every write of a row, for optimistic concurrency (see saveChanges)
+    private static final String ADD_TASKS_VERSION_COLUMN =
+            "ALTER TABLE tasks ADD COLUMN IF NOT EXISTS version INT NOT NULL DEFAULT 0";
+    // Text form of the rule a recurring task repeats by (see Recurrence), or null
+    private static final String ADD_TASKS_RECURRENCE_COLUMN =
+            "ALTER TABLE tasks ADD COLUMN IF NOT EXISTS recurrence VARCHAR(200)";
+    // Completed occurrences of recurring tasks. Occurrences themselves are never stored, and
+    // neither are those that were missed.
+    private static final String CREATE_TASK_OCCURRENCES_TABLE =
+            "CREATE TABLE IF NOT EXISTS task_occurrences (" +
+            "task_id INT NOT NULL, " +
+            "occurrence_date DATE NOT NULL, " +
+            "PRIMARY KEY (task_id, occurrence_date), " +
+            "FOREIGN KEY (task_id) REFERENCES tasks (id) ON DELETE CASCADE" +
+            ")";
+    // Ids of tasks written in shared mode, in order, so other processes can reload them
+    private static final String CREATE_CHANGE_LOG_TABLE =
+            "CREATE TABLE IF NOT EXISTS change_log (" +
+            "seq BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+            "task_id INT NOT NULL, " +
+            "origin VARCHAR(36) NOT NULL" +
+            ")";
+    // One row, locked by every transaction that adds to change_log (see lockChangeLog)
+    private static final String CREATE_CHANGE_LOG_LOCK_TABLE =
+            "CREATE TABLE IF NOT EXISTS change_log_lock (id INT PRIMARY KEY)";
+    private static final String INSERT_CHANGE_LOG_LOCK =
+            "MERGE INTO change_log_lock KEY (id) VALUES (1)";
+    // Lets a list's tasks be paged by id without reading the other lists
+    private static final String CREATE_TASKS_LIST_INDEX =
+            "CREATE INDEX IF NOT EXISTS idx_tasks_list_id ON tasks (list_id, id)";
+    // Let status and reminder queries (see TaskQuery) read a range instead of the whole table
+    private static final String CREATE_TASKS_DUE_INDEX =
+            "CREATE INDEX IF NOT EXISTS idx_tasks_due ON tasks (completed, reminder_date, due_time)";
+    private static final String CREATE_TASKS_TYPE_INDEX =
+            "CREATE INDEX IF NOT EXISTS idx_tasks_type ON tasks (type)";
+    // The first list created gets id 1, TaskList.DEFAULT_LIST_ID
+    private static final String INSERT_DEFAULT_TASK_LIST =
+            "INSERT INTO task_lists (name) SELECT '" + TaskList.DEFAULT_LIST_NAME + "' " +
+            "WHERE NOT EXISTS (SELECT 1 FROM task_lists)";
+    
+    // Reminder notifications already shown, see NotificationLedger
+    private static final String CREATE_NOTIFICATION_LEDGER_TABLE =
+            "CREATE TABLE IF NOT EXISTS notification_ledger (" +
+            "task_id INT NOT NULL, " +
+            "kind VARCHAR(20) NOT NULL, " +
+            "reminder_date DATE NOT NULL, " +
+            "PRIMARY KEY (task_id, kind, reminder_date)" +
+            ")";
+    
+    private static final String INSERT_TASK =
+            "INSERT INTO tasks (type, description, details, reminder_date, due_time, completed, recurrence, " +
+            "list_id, version, id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_TASK =
+            "UPDATE tasks SET type = ?, description = ?, details = ?, reminder_date = ?, due_time = ?, completed = ?, " +
+            "recurrence = ?, list_id = ?, version = version + 1 WHERE id = ? AND version = ?";
+    private static final String DELETE_TASK = "DELETE FROM tasks WHERE id = ? AND version = ?";
+    private static final String LOCK_TASK_VERSIONS = "SELECT id, version FROM tasks WHERE id = ANY(?) FOR UPDATE";
+    // Recurring tasks complete one occurrence at a time, through saveChanges
+    private static final String COMPLETE_TASK =
+            "UPDATE tasks SET completed = TRUE, version = version + 1 " +
+            "WHERE id = ? AND completed = FALSE AND recurrence IS NULL";
+    private static final String DELETE_OCCURRENCES_FROM =
+            "DELETE FROM task_occurrences WHERE task_id = ? AND occurrence_date >= ?";
+    private static final String INSERT_OCCURRENCE =
+            "INSERT INTO task_occurrences (task_id, occurrence_date) VALUES (?, ?)";
+    private static final String SELECT_OCCURRENCES =
+            "SELECT occurrence_date FROM task_occurrences WHERE task_id = ? " +
+            "AND occurrence_date >= ? AND occurrence_date <= ?";
+    private static final String DELETE_COMPLETED_TASKS = "DELETE FROM tasks WHERE completed = TRUE";
+    private static final String LOG_COMPLETED_TASKS =
+            "INSERT INTO change_log (task_id, origin) SELECT id, ? FROM tasks WHERE completed = TRUE";
+    private static final String SELECT_TASKS_BY_ID = "SELECT * FROM tasks WHERE id = ANY(?)";
+    private static final String INSERT_CHANGE_LOG = "INSERT INTO change_log (task_id, origin) VALUES (?, ?)";
+    private static final String SELECT_CHANGE_LOG =
+            "SELECT seq, task_id FROM change_log WHERE seq > ? AND origin <> ? ORDER BY seq LIMIT ?";
+    private static final String LOCK_CHANGE_LOG = "SELECT id FROM change_log_lock WHERE id = 1 FOR UPDATE";
+    private static final String MAX_CHANGE_SEQ = "SELECT COALESCE(MAX(seq), 0) FROM change_log";
+    private static final String DELETE_CHANGE_LOG_THROUGH = "DELETE FROM change_log WHERE seq <= ?";
+    private static final String SELECT_ALL_TASKS = "SELECT * FROM tasks";
+    private static final String SELECT_TASKS_PAGE = "SELECT * FROM tasks WHERE id > ? AND id <= ? ORDER BY id LIMIT ?";
+    private static final String SELECT_LIST_TASKS_PAGE =
+            "SELECT * FROM tasks WHERE list_id = ? AND id > ? AND id <= ? ORDER BY id LIMIT ?";
+    private static final String COUNT_TASKS = "SELECT COUNT(*) FROM tasks";
+    private static final String COUNT_LIST_TASKS = "SELECT COUNT(*) FROM tasks WHERE list_id = ?";
+    private static final String SELECT_TASK_LISTS = "SELECT id, name FROM task_lists ORDER BY id";
+    private static final String INSERT_TASK_LIST = "INSERT INTO task_lists (name) VALUES (?)";
+    private static final String MAX_TASK_ID = "SELECT COALESCE(MAX(id), 0) FROM tasks";
+    private static final String MERGE_NOTIFICATION =
+            "MERGE INTO notification_ledger (task_id, kind, reminder_date) KEY (task_id, kind, reminder_date) " +
+            "VALUES (?, ?, ?)";
+    private static final String SELECT_NOTIFICATIONS =
+            "SELECT task_id, kind, reminder_date FROM notification_ledger WHERE reminder_date >= ?";
+    private static final String DELETE_NOTIFICATIONS_BEFORE = "DELETE FROM notification_ledger WHERE reminder_date < ?";
+    private static final String NEXT_ID_BLOCK = "SELECT NEXT VALUE FOR task_id_seq";
+    private static final String CURRENT_ID_BLOCK =
+            "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'TASK_ID_SEQ'";
+    
+    // Task ids are assigned by the application, reserved from task_id_seq in blocks
+    public static final int ID_BLOCK_SIZE = 1000;
+    private static int nextIdInBlock;
+    private static int idBlockEnd;
+    
+    // Schema creation happens once, on first use or through initializeAsync()
+    private static volatile boolean initialized;
+    private static CompletableFuture<Void> initialization;
+    
+    // Creates the database and its schema if that has not happened yet.
+    // Called by every operation, so callers only need it to control when the work is done.
+    public static void initialize() throws DataPersistenceException {
+        if (initialized) {
+            return;
+        }
+        synchronized (DatabaseManager.class) {
+            if (!initialized) {
+                try {
+                    initializeDatabase();
+                } catch (SQLException e) {
+                    throw new DataPersistenceException("Failed to initialize the database: " + e.getMessage(), e);
+                }
+                initialized = true;
+                StartupTimings.mark("database ready");
+            }
         }
     }
     
+    // Starts initialize() on a background thread, so the database opens while the UI loads.
+    // Every call returns the same future.
+    public static synchronized CompletableFuture<Void> initializeAsync() {
+        if (initialization == null) {
+            initialization = CompletableFuture.runAsync(DatabaseManager::initialize, r -> {
+                Thread thread = new Thread(r, "database-init");
+                thread.setDaemon(true);
+                thread.start();
+            });
+        }
+        return initialization;
+    }
+    
+    // Starts the H2 web console on port 8082. The application only starts it when asked to
+    // (--h2-console or -Dtodo_list.h2Console=true), as it opens a network port.
     public static void startH2Console() {
         try {
             if (server == null) {
@@ -81,56 +244,118 @@ public class DatabaseManager {
         }
     }
     
-    // Establishes and returns a connection to the database.
+    // Borrows a connection from the pool, initializing the database first if needed.
+    // Closing it returns it to the pool.
+    
+    private static PooledConnection getConnection() throws SQLException {
+        initialize();
+        return connectionPool.getConnection();
+    }
     
-    private static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+    // Returns usage statistics of the connection pool (active, idle, wait time).
+    public static ConnectionPoolStatistics getPoolStatistics() {
+        return connectionPool.getStatistics();
     }
     
     
-    // Saves all tasks to the database.
-    // First clears all existing tasks and then inserts the current list.
+    // Writes a set of task changes to the database in a single transaction, with optimistic
+    // concurrency: a change only applies if the stored row still has the version the change was
+    // made against (TaskChange.getVersion()), and each write moves the row to the next version.
+    // The versions of all affected rows are read and locked first. An add inserts its row if it
+    // does not exist yet. Changes to rows that another process has changed or deleted since are
+    // skipped and their task ids returned; deleting a row that is already gone is not a conflict.
+    // Inserts, updates and deletes are each written as one batch, so the cost depends on the
+    // number of changes, not the list size. Applying the same changes twice has no further
+    // effect (the second time they conflict), which journal replay relies on.
+    // A record with completed occurrences replaces the stored completions of its task from their
+    // start date on (see CompletedOccurrences).
     
-    public static void saveTasks(List<Task> tasks) throws DataPersistenceException {
-        try (Connection conn = getConnection()) {
+    public static List<Integer> saveChanges(Collection<TaskChange> changes) throws DataPersistenceException {
+        List<Integer> conflicts = new ArrayList<>();
+        if (changes.isEmpty()) {
+            return conflicts;
+        }
+        
+        DatabaseOperationEvent event = DatabaseOperationEvent.start("saveChanges");
+        event.setRows(changes.size());
+        try (PooledConnection conn = getConnection()) {
             // Begin transaction
             conn.setAutoCommit(false);
             
-            try (Statement stmt = conn.createStatement();
-                 PreparedStatement pstmt = conn.prepareStatement(
-                     "INSERT INTO tasks (type, description, details, reminder_date, due_time, completed) " +
-                     "VALUES (?, ?, ?, ?, ?, ?)"
-                 )) {
-                
-                // Clear existing data
-                stmt.executeUpdate("DELETE FROM tasks");
+            try {
+                Map<Integer, Integer> storedVersions = lockVersions(conn, changes);
+                // Cached statements, owned by the pooled connection
+                PreparedStatement insertStmt = conn.prepare(INSERT_TASK);
+                PreparedStatement updateStmt = conn.prepare(UPDATE_TASK);
+                PreparedStatement deleteStmt = conn.prepare(DELETE_TASK);
+                PreparedStatement logStmt = SHARED ? conn.prepare(INSERT_CHANGE_LOG) : null;
+                boolean inserts = false;
+                boolean updates = false;
+                boolean deletes = false;
+                List<TaskRecord> occurrenceChanges = new ArrayList<>();
                 
-                // Insert new data
-                for (Task task : tasks) {
-                    pstmt.setString(1, task.getType());
-                    pstmt.setString(2, task.getDescription());
-                    
-                    if (task instanceof DetailedTask) {
-                        pstmt.setString(3, ((DetailedTask) task).getDetails());
+                for (TaskChange change : changes) {
+                    int id = change.getTaskId();
+                    Integer storedVersion = storedVersions.get(id);
+                    if (change.isDelete()) {
+                        if (storedVersion == null) {
+                            continue;
+                        }
+                        if (storedVersion != change.getVersion()) {
+                            conflicts.add(id);
+                            continue;
+                        }
+                        deleteStmt.setInt(1, id);
+                        deleteStmt.setInt(2, change.getVersion());
+                        deleteStmt.addBatch();
+                        deletes = true;
+                        storedVersions.remove(id);
+                    } else if (storedVersion == null && change.getOperation() == TaskChange.Operation.ADD) {
+                        TaskRecord record = change.getRecord();
+                        bindTaskColumns(insertStmt, record);
+                        insertStmt.setInt(8, record.getListId());
+                        insertStmt.setInt(9, change.getVersion() + 1);
+                        insertStmt.setInt(10, id);
+                        insertStmt.addBatch();
+                        inserts = true;
+                        storedVersions.put(id, change.getVersion() + 1);
+                    } else if (storedVersion == null || storedVersion != change.getVersion()) {
+                        conflicts.add(id);
+                        continue;
                     } else {
-                        pstmt.setNull(3, Types.VARCHAR);
+                        TaskRecord record = change.getRecord();
+                        bindTaskColumns(updateStmt, record);
+                        updateStmt.setInt(8, record.getListId());
+                        updateStmt.setInt(9, id);
+                        updateStmt.setInt(10, change.getVersion());
+                        updateStmt.addBatch();
+                        updates = true;
+                        storedVersions.put(id, change.getVersion() + 1);
                     }
-                    
-                    if (task.getReminderDate() != null) {
-                        pstmt.setDate(4, Date.valueOf(task.getReminderDate()));
-                    } else {
-                        pstmt.setNull(4, Types.DATE);
+                    if (!change.isDelete() && change.getRecord().getCompletedOccurrences() != null) {
+                        occurrenceChanges.add(change.getRecord());
                     }
-                    
-                    if (task instanceof DeadlineTask && ((DeadlineTask) task).getDueTime() != null) {
-                        pstmt.setTime(5, Time.valueOf(((DeadlineTask) task).getDueTime()));
-                    } else {
-                        pstmt.setNull(5, Types.TIME);
+                    if (logStmt != null) {
+                        logStmt.setInt(1, id);
+                        logStmt.setString(2, INSTANCE_ID);
+                        logStmt.addBatch();
                     }
-                    
-                    pstmt.setBoolean(6, task.isCompleted());
-                    
-                    pstmt.executeUpdate();
+                }
+                if (deletes) {
+                    deleteStmt.executeBatch();
+                }
+                if (inserts) {
+                    insertStmt.executeBatch();
+                }
+                if (updates) {
+                    updateStmt.executeBatch();
+                }
+                if (!occurrenceChanges.isEmpty()) {
+                    saveOccurrences(conn, occurrenceChanges);
+                }
+                if (logStmt != null && (deletes || inserts || updates)) {
+                    lockChangeLog(conn);
+                    logStmt.executeBatch();
                 }
                 
                 // Commit transaction
@@ -144,60 +369,665 @@ public class DatabaseManager {
             }
         } catch (SQLException e) {
             throw new DataPersistenceException("Failed to save tasks to database: " + e.getMessage(), e);
+        } finally {
+            event.finish();
+        }
+        if (!conflicts.isEmpty()) {
+            Metrics.count("db.saveChanges.conflicts", conflicts.size());
+        }
+        return conflicts;
+    }
+
+    // Checks if a failed write would fail again however often it is retried: a value that does not
+    // fit its column or breaks a constraint (SQL states 22 and 23), as opposed to e.g. a lock
+    // timeout or a full disk.
+    public static boolean isPermanentFailure(DataPersistenceException e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                String state = ((SQLException) cause).getSQLState();
+                return state != null && (state.startsWith("22") || state.startsWith("23"));
+            }
+        }
+        return false;
+    }
+    
+    // Replaces the stored completed occurrences of the records' tasks from the start date of the
+    // records' completions on, with one batch of deletes and one of inserts.
+    private static void saveOccurrences(PooledConnection conn, List<TaskRecord> records) throws SQLException {
+        PreparedStatement deleteStmt = conn.prepare(DELETE_OCCURRENCES_FROM);
+        PreparedStatement insertStmt = conn.prepare(INSERT_OCCURRENCE);
+        boolean inserts = false;
+        for (TaskRecord record : records) {
+            CompletedOccurrences completed = record.getCompletedOccurrences();
+            deleteStmt.setInt(1, record.getId());
+            deleteStmt.setDate(2, Date.valueOf(completed.getFrom()));
+            deleteStmt.addBatch();
+            for (LocalDate date : completed.getDates()) {
+                insertStmt.setInt(1, record.getId());
+                insertStmt.setDate(2, Date.valueOf(date));
+                insertStmt.addBatch();
+                inserts = true;
+            }
+        }
+        deleteStmt.executeBatch();
+        if (inserts) {
+            insertStmt.executeBatch();
+        }
+    }
+    
+    // Reads the stored versions of the rows the changes apply to and locks those rows until the
+    // transaction ends. Rows that do not exist are missing from the map.
+    private static Map<Integer, Integer> lockVersions(PooledConnection conn, Collection<TaskChange> changes)
+            throws SQLException {
+        Integer[] ids = new Integer[changes.size()];
+        int i = 0;
+        for (TaskChange change : changes) {
+            ids[i++] = change.getTaskId();
+        }
+        Map<Integer, Integer> versions = new HashMap<>();
+        PreparedStatement pstmt = conn.prepare(LOCK_TASK_VERSIONS);
+        pstmt.setObject(1, ids);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                versions.put(rs.getInt(1), rs.getInt(2));
+            }
+        }
+        return versions;
+    }
+    
+    // Marks the tasks with the given ids as complete in a single batch.
+    // Returns the number of tasks that were not complete before. Recurring tasks are left as they are.
+    public static int completeTasks(int[] ids) throws DataPersistenceException {
+        if (ids.length == 0) {
+            return 0;
+        }
+        DatabaseOperationEvent event = DatabaseOperationEvent.start("completeTasks");
+        int completed = 0;
+        try (PooledConnection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                PreparedStatement pstmt = conn.prepare(COMPLETE_TASK);
+                for (int id : ids) {
+                    pstmt.setInt(1, id);
+                    pstmt.addBatch();
+                }
+                int[] counts = pstmt.executeBatch();
+                PreparedStatement logStmt = SHARED ? conn.prepare(INSERT_CHANGE_LOG) : null;
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] > 0) {
+                        completed += counts[i];
+                        if (logStmt != null) {
+                            logStmt.setInt(1, ids[i]);
+                            logStmt.setString(2, INSTANCE_ID);
+                            logStmt.addBatch();
+                        }
+                    }
+                }
+                if (logStmt != null && completed > 0) {
+                    lockChangeLog(conn);
+                    logStmt.executeBatch();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to complete tasks: " + e.getMessage(), e);
+        } finally {
+            event.setRows(completed);
+            event.finish();
+        }
+        return completed;
+    }
+    
+    // Deletes all completed tasks. Returns the number of deleted tasks.
+    public static int deleteCompletedTasks() throws DataPersistenceException {
+        DatabaseOperationEvent event = DatabaseOperationEvent.start("deleteCompletedTasks");
+        int deleted = 0;
+        try (PooledConnection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                if (SHARED) {
+                    lockChangeLog(conn);
+                    PreparedStatement logStmt = conn.prepare(LOG_COMPLETED_TASKS);
+                    logStmt.setString(1, INSTANCE_ID);
+                    logStmt.executeUpdate();
+                }
+                deleted = conn.prepare(DELETE_COMPLETED_TASKS).executeUpdate();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to delete completed tasks: " + e.getMessage(), e);
+        } finally {
+            event.setRows(deleted);
+            event.finish();
+        }
+        return deleted;
+    }
+    
+    // Returns a new task id. Ids are reserved from the task_id_seq sequence in blocks,
+    // so only one call in ID_BLOCK_SIZE goes to the database.
+    public static synchronized int nextTaskId() throws DataPersistenceException {
+        if (nextIdInBlock >= idBlockEnd) {
+            int blockStart = reserveTaskIds();
+            nextIdInBlock = blockStart;
+            idBlockEnd = blockStart + ID_BLOCK_SIZE;
+        }
+        return nextIdInBlock++;
+    }
+    
+    // Reserves a block of ID_BLOCK_SIZE new task ids and returns the first, for callers that hand
+    // out ids from memory themselves.
+    public static int reserveTaskIds() throws DataPersistenceException {
+        return queryInt(NEXT_ID_BLOCK);
+    }
+    
+    // Makes sure ids handed out from now on are greater than the given id.
+    // Used after journal replay, whose ids may be ahead of the sequence after a crash.
+    public static synchronized void ensureTaskIdsAbove(int id) throws DataPersistenceException {
+        if (nextIdInBlock > id && nextIdInBlock < idBlockEnd) {
+            return;
+        }
+        try (PooledConnection conn = getConnection();
+             Statement stmt = conn.createStatement()) {
+            ensureSequenceAbove(stmt, id);
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to update the task id sequence: " + e.getMessage(), e);
+        }
+        // Drop the rest of the current block if it could overlap
+        if (nextIdInBlock <= id) {
+            idBlockEnd = nextIdInBlock;
+        }
+    }
+    
+    // Forces committed data to disk, so it survives a process or OS crash.
+    public static void checkpoint() throws DataPersistenceException {
+        try (PooledConnection conn = getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CHECKPOINT SYNC");
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to write database checkpoint: " + e.getMessage(), e);
+        }
+    }
+    
+    // Records shown reminder notifications. Recording one twice has no further effect.
+    public static void saveNotifications(Collection<NotificationLedger.Entry> entries) throws DataPersistenceException {
+        try (PooledConnection conn = getConnection()) {
+            PreparedStatement pstmt = conn.prepare(MERGE_NOTIFICATION);
+            for (NotificationLedger.Entry entry : entries) {
+                pstmt.setInt(1, entry.getTaskId());
+                pstmt.setString(2, entry.getKind().name());
+                pstmt.setDate(3, Date.valueOf(entry.getDate()));
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to save the notification ledger: " + e.getMessage(), e);
+        }
+    }
+    
+    // Loads the shown reminder notifications with a reminder date on or after the given date.
+    public static List<NotificationLedger.Entry> loadNotifications(LocalDate from) throws DataPersistenceException {
+        List<NotificationLedger.Entry> entries = new ArrayList<>();
+        try (PooledConnection conn = getConnection()) {
+            PreparedStatement pstmt = conn.prepare(SELECT_NOTIFICATIONS);
+            pstmt.setDate(1, Date.valueOf(from));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ReminderEvent.Kind kind;
+                    try {
+                        kind = ReminderEvent.Kind.valueOf(rs.getString("kind"));
+                    } catch (IllegalArgumentException e) {
+                        // Skip kinds this version does not know
+                        continue;
+                    }
+                    entries.add(new NotificationLedger.Entry(rs.getInt("task_id"), kind,
+                            rs.getDate("reminder_date").toLocalDate()));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to load the notification ledger: " + e.getMessage(), e);
+        }
+        return entries;
+    }
+    
+    // Deletes the shown reminder notifications with a reminder date before the given date.
+    public static void deleteNotificationsBefore(LocalDate date) throws DataPersistenceException {
+        try (PooledConnection conn = getConnection()) {
+            PreparedStatement pstmt = conn.prepare(DELETE_NOTIFICATIONS_BEFORE);
+            pstmt.setDate(1, Date.valueOf(date));
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to purge the notification ledger: " + e.getMessage(), e);
+        }
+    }
+    
+    // Checks if the database is opened in shared mode (-Dtodo_list.db.shared=true).
+    public static boolean isSharedMode() {
+        return SHARED;
+    }
+    
+    // Loads the stored tasks with the given ids. Ids without a row (deleted tasks) are missing
+    // from the returned map.
+    public static Map<Integer, TaskRecord> loadTasksById(Collection<Integer> ids) throws DataPersistenceException {
+        Map<Integer, TaskRecord> records = new HashMap<>();
+        if (ids.isEmpty()) {
+            return records;
+        }
+        DatabaseOperationEvent event = DatabaseOperationEvent.start("loadTasksById");
+        try (PooledConnection conn = getConnection()) {
+            PreparedStatement pstmt = conn.prepare(SELECT_TASKS_BY_ID);
+            pstmt.setObject(1, ids.toArray(new Integer[0]));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    TaskRecord record = readRecord(rs);
+                    records.put(record.getId(), record);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to load tasks from database: " + e.getMessage(), e);
+        } finally {
+            event.setRows(records.size());
+            event.finish();
+        }
+        return records;
+    }
+    
+    // Loads the stored completed occurrences of a task between from and to, inclusive.
+    public static Set<LocalDate> loadCompletedOccurrences(int taskId, LocalDate from, LocalDate to)
+            throws DataPersistenceException {
+        Set<LocalDate> dates = new HashSet<>();
+        try (PooledConnection conn = getConnection()) {
+            PreparedStatement pstmt = conn.prepare(SELECT_OCCURRENCES);
+            pstmt.setInt(1, taskId);
+            pstmt.setDate(2, Date.valueOf(from));
+            pstmt.setDate(3, Date.valueOf(to));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    dates.add(rs.getDate(1).toLocalDate());
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to load completed occurrences: " + e.getMessage(), e);
+        }
+        return dates;
+    }
+    
+    // Makes the transactions that add to change_log commit in the order of the seq values they get:
+    // seq is assigned on insert, so without this an entry could commit after a higher one has
+    // been read, and loadChangedTaskIds, which reads past the last position seen, would never
+    // return it. Called right before the insert; the lock is held until commit or rollback.
+    private static void lockChangeLog(PooledConnection conn) throws SQLException {
+        try (ResultSet rs = conn.prepare(LOCK_CHANGE_LOG).executeQuery()) {
+            rs.next();
+        }
+    }
+    
+    // Adds the ids of tasks written by other processes after the given change_log position to
+    // the set, reading at most limit entries. Returns the position of the last entry read, or
+    // afterSeq if there are none.
+    public static long loadChangedTaskIds(long afterSeq, int limit, Set<Integer> into) throws DataPersistenceException {
+        long lastSeq = afterSeq;
+        try (PooledConnection conn = getConnection()) {
+            PreparedStatement pstmt = conn.prepare(SELECT_CHANGE_LOG);
+            pstmt.setLong(1, afterSeq);
+            pstmt.setString(2, INSTANCE_ID);
+            pstmt.setInt(3, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    lastSeq = rs.getLong(1);
+                    into.add(rs.getInt(2));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to read the change log: " + e.getMessage(), e);
+        }
+        return lastSeq;
+    }
+    
+    // Returns the position of the newest change_log entry, or 0 if it is empty.
+    public static long getLatestChangeSeq() throws DataPersistenceException {
+        try (PooledConnection conn = getConnection();
+             ResultSet rs = conn.prepare(MAX_CHANGE_SEQ).executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to read the change log: " + e.getMessage(), e);
+        }
+    }
+    
+    // Deletes the change_log entries up to and including the given position.
+    public static void deleteChangesThrough(long seq) throws DataPersistenceException {
+        try (PooledConnection conn = getConnection()) {
+            PreparedStatement pstmt = conn.prepare(DELETE_CHANGE_LOG_THROUGH);
+            pstmt.setLong(1, seq);
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to purge the change log: " + e.getMessage(), e);
+        }
+    }
+    
+    // Loads all task lists, ordered by id, so the default list comes first.
+    public static List<TaskList> loadTaskLists() throws DataPersistenceException {
+        List<TaskList> lists = new ArrayList<>();
+        try (PooledConnection conn = getConnection();
+             ResultSet rs = conn.prepare(SELECT_TASK_LISTS).executeQuery()) {
+            while (rs.next()) {
+                lists.add(new TaskList(rs.getInt("id"), rs.getString("name")));
+            }
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to load task lists: " + e.getMessage(), e);
+        }
+        return lists;
+    }
+    
+    // Creates a new, empty task list. List names must be unique.
+    public static TaskList createTaskList(String name) throws DataPersistenceException {
+        try (PooledConnection conn = getConnection()) {
+            PreparedStatement pstmt = conn.prepare(INSERT_TASK_LIST, new String[] {"id"});
+            pstmt.setString(1, name);
+            pstmt.executeUpdate();
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                if (!keys.next()) {
+                    throw new SQLException("No id was generated");
+                }
+                return new TaskList(keys.getInt(1), name);
+            }
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to create task list: " + e.getMessage(), e);
+        }
+    }
+    
+    // Returns the directory holding the database and its journal.
+    public static File getDatabaseDirectory() {
+        return new File(DB_DIRECTORY);
+    }
+    
+    // Binds the type, description, details, reminder date, due time, completed and recurrence
+    // columns (parameters 1-7).
+    private static void bindTaskColumns(PreparedStatement pstmt, TaskRecord record) throws SQLException {
+        pstmt.setString(1, record.getType());
+        pstmt.setString(2, record.getDescription());
+        
+        if (record.getDetails() != null) {
+            pstmt.setString(3, record.getDetails());
+        } else {
+            pstmt.setNull(3, Types.VARCHAR);
+        }
+        
+        if (record.getReminderDate() != null) {
+            pstmt.setDate(4, Date.valueOf(record.getReminderDate()));
+        } else {
+            pstmt.setNull(4, Types.DATE);
+        }
+        
+        if (record.getDueTime() != null) {
+            pstmt.setTime(5, Time.valueOf(record.getDueTime()));
+        } else {
+            pstmt.setNull(5, Types.TIME);
+        }
+        
+        pstmt.setBoolean(6, record.isCompleted());
+        
+        if (record.getRecurrence() != null) {
+            pstmt.setString(7, record.getRecurrence().toString());
+        } else {
+            pstmt.setNull(7, Types.VARCHAR);
         }
     }
     
     
     // Loads all tasks from the database.
     
-    public static ObservableList<Task> loadTasks() throws DataPersistenceException {
-        ObservableList<Task> tasks = FXCollections.observableArrayList();
+    public static List<Task> loadTasks() throws DataPersistenceException {
+        List<Task> tasks = new ArrayList<>();
         
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT * FROM tasks")) {
+        DatabaseOperationEvent event = DatabaseOperationEvent.start("loadTasks");
+        try (PooledConnection conn = getConnection();
+             ResultSet rs = conn.prepare(SELECT_ALL_TASKS).executeQuery()) {
             
             while (rs.next()) {
-                String type = rs.getString("type");
-                String description = rs.getString("description");
-                String details = rs.getString("details");
-                Date reminderDate = rs.getDate("reminder_date");
-                Time dueTime = rs.getTime("due_time");
-                boolean completed = rs.getBoolean("completed");
-                
-                Task task;
-                switch (type) {
-                    case "Simple":
-                        task = new SimpleTask(description);
-                        break;
-                    case "Detailed":
-                        task = new DetailedTask(description, details);
-                        break;
-                    case "Deadline":
-                        LocalDate localReminderDate = reminderDate != null ? reminderDate.toLocalDate() : null;
-                        LocalTime localDueTime = dueTime != null ? dueTime.toLocalTime() : null;
-                        task = new DeadlineTask(description, localReminderDate, localDueTime);
-                        break;
-                    default:
-                        // Skip unknown task types
-                        continue;
-                }
-                
-                if (reminderDate != null && !(task instanceof DeadlineTask)) {
-                    task.setReminderDate(reminderDate.toLocalDate());
+                Task task = readTask(rs);
+                if (task != null) {
+                    tasks.add(task);
                 }
-                
-                task.setCompleted(completed);
-                tasks.add(task);
             }
             
         } catch (SQLException e) {
             throw new DataPersistenceException("Failed to load tasks from database: " + e.getMessage(), e);
+        } finally {
+            event.setRows(tasks.size());
+            event.finish();
         }
         
         return tasks;
     }
     
+    // Loads one page of tasks ordered by id into the given list, using keyset pagination.
+    // Reads up to limit rows with afterId < id <= maxId and returns the id of the last row read,
+    // or 0 if there are no more rows.
+    
+    public static int loadTasksPage(int afterId, int maxId, int limit, List<Task> into) throws DataPersistenceException {
+        return loadTasksPage(afterId, maxId, limit, TaskRecord::toTask, into);
+    }
+    
+    // Same as above, but builds the tasks with the given factory (e.g., ColumnarTaskStore::add).
+    // Rows the factory rejects with InvalidTaskInputException are skipped.
+    
+    public static int loadTasksPage(int afterId, int maxId, int limit, Function<TaskRecord, ? extends Task> taskFactory,
+                                    List<Task> into) throws DataPersistenceException {
+        int lastId = 0;
+        int rows = 0;
+        
+        DatabaseOperationEvent event = DatabaseOperationEvent.start("loadTasksPage");
+        try (PooledConnection conn = getConnection()) {
+            PreparedStatement pstmt = conn.prepare(SELECT_TASKS_PAGE);
+            pstmt.setInt(1, afterId);
+            pstmt.setInt(2, maxId);
+            pstmt.setInt(3, limit);
+            int sizeBefore = into.size();
+            lastId = readTasksPage(pstmt, taskFactory, into);
+            rows = into.size() - sizeBefore;
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to load tasks from database: " + e.getMessage(), e);
+        } finally {
+            event.setRows(rows);
+            event.finish();
+        }
+        
+        return lastId;
+    }
+    
+    // Same as above, but only reads the tasks of one list.
+    
+    public static int loadTasksPage(int listId, int afterId, int maxId, int limit,
+                                    Function<TaskRecord, ? extends Task> taskFactory,
+                                    List<Task> into) throws DataPersistenceException {
+        int lastId = 0;
+        int rows = 0;
+        
+        DatabaseOperationEvent event = DatabaseOperationEvent.start("loadTasksPage");
+        try (PooledConnection conn = getConnection()) {
+            PreparedStatement pstmt = conn.prepare(SELECT_LIST_TASKS_PAGE);
+            pstmt.setInt(1, listId);
+            pstmt.setInt(2, afterId);
+            pstmt.setInt(3, maxId);
+            pstmt.setInt(4, limit);
+            int sizeBefore = into.size();
+            lastId = readTasksPage(pstmt, taskFactory, into);
+            rows = into.size() - sizeBefore;
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to load tasks from database: " + e.getMessage(), e);
+        } finally {
+            event.setRows(rows);
+            event.finish();
+        }
+        
+        return lastId;
+    }
+    
+    // Runs a page query and adds the tasks built by the factory to the list. Returns the id of
+    // the last row read, or 0 if there was none. Rows the factory rejects are skipped.
+    private static int readTasksPage(PreparedStatement pstmt, Function<TaskRecord, ? extends Task> taskFactory,
+                                     List<Task> into) throws SQLException {
+        int lastId = 0;
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                lastId = rs.getInt("id");
+                try {
+                    into.add(taskFactory.apply(readRecord(rs)));
+                } catch (InvalidTaskInputException e) {
+                    // Skip unknown task types
+                }
+            }
+        }
+        return lastId;
+    }
+    
+    // Loads one page of the tasks matching a query, ordered by id, into the given list. Reads up
+    // to limit rows with id > afterId and returns the id of the last row read, or 0 if there are
+    // no more matching rows. The filters are evaluated by H2, so non-matching rows are not read.
+    
+    public static int queryTasks(TaskQuery query, int afterId, int limit, List<Task> into) throws DataPersistenceException {
+        int lastId = 0;
+        int rows = 0;
+        
+        DatabaseOperationEvent event = DatabaseOperationEvent.start("queryTasks");
+        try (PooledConnection conn = getConnection()) {
+            PreparedStatement pstmt = prepareQuery(conn, "SELECT * FROM tasks WHERE id > ?", afterId, query,
+                    " ORDER BY id LIMIT ?", limit);
+            int sizeBefore = into.size();
+            lastId = readTasksPage(pstmt, TaskRecord::toTask, into);
+            rows = into.size() - sizeBefore;
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to query tasks: " + e.getMessage(), e);
+        } finally {
+            event.setRows(rows);
+            event.finish();
+        }
+        
+        return lastId;
+    }
+    
+    // Returns the number of stored tasks matching a query, counted by H2.
+    public static int countTasks(TaskQuery query) throws DataPersistenceException {
+        DatabaseOperationEvent event = DatabaseOperationEvent.start("countTasks");
+        try (PooledConnection conn = getConnection()) {
+            PreparedStatement pstmt = prepareQuery(conn, "SELECT COUNT(*) FROM tasks WHERE TRUE", null, query, "", null);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to query tasks: " + e.getMessage(), e);
+        } finally {
+            event.finish();
+        }
+    }
+    
+    // Builds a statement from a prefix with an optional leading parameter, the conditions of the
+    // query and a suffix with an optional trailing parameter. Statements are cached per
+    // connection by their SQL, so each combination of filters is only prepared once.
+    private static PreparedStatement prepareQuery(PooledConnection conn, String prefix, Object first, TaskQuery query,
+                                                  String suffix, Object last) throws SQLException {
+        StringBuilder sql = new StringBuilder(prefix);
+        List<Object> parameters = new ArrayList<>();
+        if (first != null) {
+            parameters.add(first);
+        }
+        query.appendConditions(sql, parameters);
+        sql.append(suffix);
+        if (last != null) {
+            parameters.add(last);
+        }
+        PreparedStatement pstmt = conn.prepare(sql.toString());
+        for (int i = 0; i < parameters.size(); i++) {
+            pstmt.setObject(i + 1, parameters.get(i));
+        }
+        return pstmt;
+    }
+    
+    // Returns the number of stored tasks.
+    public static int countTasks() throws DataPersistenceException {
+        return queryInt(COUNT_TASKS);
+    }
+    
+    // Returns the number of stored tasks in one list.
+    public static int countTasks(int listId) throws DataPersistenceException {
+        try (PooledConnection conn = getConnection()) {
+            PreparedStatement pstmt = conn.prepare(COUNT_LIST_TASKS);
+            pstmt.setInt(1, listId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to query tasks: " + e.getMessage(), e);
+        }
+    }
+    
+    // Returns the highest stored task id, or 0 if there are no tasks.
+    public static int getMaxTaskId() throws DataPersistenceException {
+        return queryInt(MAX_TASK_ID);
+    }
+    
+    private static int queryInt(String sql) throws DataPersistenceException {
+        try (PooledConnection conn = getConnection();
+             ResultSet rs = conn.prepare(sql).executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            throw new DataPersistenceException("Failed to query tasks: " + e.getMessage(), e);
+        }
+    }
+    
+    // Creates a task from the current row, or returns null for unknown task types.
+    private static Task readTask(ResultSet rs) throws SQLException {
+        try {
+            return readRecord(rs).toTask();
+        } catch (InvalidTaskInputException e) {
+            // Skip unknown task types
+            return null;
+        }
+    }
+    
+    // Reads the current row into a TaskRecord.
+    private static TaskRecord readRecord(ResultSet rs) throws SQLException {
+        Date reminderDate = rs.getDate("reminder_date");
+        Time dueTime = rs.getTime("due_time");
+        return new TaskRecord(
+                rs.getInt("id"),
+                rs.getString("type"),
+                rs.getString("description"),
+                rs.getString("details"),
+                reminderDate != null ? reminderDate.toLocalDate() : null,
+                dueTime != null ? dueTime.toLocalTime() : null,
+                rs.getBoolean("completed"),
+                rs.getInt("list_id"),
+                rs.getInt("version"),
+                readRecurrence(rs),
+                null);
+    }
+    
+    // Reads the repeat rule of the current row. A rule that no longer parses is reported and the
+    // task loaded without it, rather than not at all.
+    private static Recurrence readRecurrence(ResultSet rs) throws SQLException {
+        String text = rs.getString("recurrence");
+        if (text == null) {
+            return null;
+        }
+        try {
+            return Recurrence.parse(text, null);
+        } catch (InvalidTaskInputException e) {
+            System.err.println("Ignoring invalid repeat rule of task " + rs.getInt("id") + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
     // Initializes the database and creates necessary tables.
     private static void initializeDatabase() throws SQLException {
         // Create database directory if it doesn't exist
@@ -208,9 +1038,42 @@ public class DatabaseManager {
             }
         }
 
-        try (Connection conn = getConnection();
+        try (PooledConnection conn = connectionPool.getConnection();
              Statement stmt = conn.createStatement()) {
             stmt.execute(CREATE_TASKS_TABLE);
+            stmt.execute(ADD_TASKS_LIST_ID_COLUMN);
+            stmt.execute(ADD_TASKS_VERSION_COLUMN);
+            stmt.execute(ADD_TASKS_RECURRENCE_COLUMN);
+            stmt.execute(CREATE_TASKS_LIST_INDEX);
+            stmt.execute(CREATE_TASKS_DUE_INDEX);
+            stmt.execute(CREATE_TASKS_TYPE_INDEX);
+            stmt.execute(CREATE_TASK_LISTS_TABLE);
+            stmt.execute(INSERT_DEFAULT_TASK_LIST);
+            stmt.execute(CREATE_NOTIFICATION_LEDGER_TABLE);
+            stmt.execute(CREATE_CHANGE_LOG_TABLE);
+            stmt.execute(CREATE_CHANGE_LOG_LOCK_TABLE);
+            stmt.execute(INSERT_CHANGE_LOG_LOCK);
+            stmt.execute(CREATE_TASK_OCCURRENCES_TABLE);
+            
+            // Start the id sequence after any existing rows
+            int maxId;
+            try (ResultSet rs = stmt.executeQuery(MAX_TASK_ID)) {
+                maxId = rs.next() ? rs.getInt(1) : 0;
+            }
+            stmt.execute("CREATE SEQUENCE IF NOT EXISTS task_id_seq START WITH " + (maxId + 1) +
+                    " INCREMENT BY " + ID_BLOCK_SIZE);
+            ensureSequenceAbove(stmt, maxId);
+        }
+    }
+    
+    // Restarts task_id_seq if its next value is not above the given id.
+    private static void ensureSequenceAbove(Statement stmt, int id) throws SQLException {
+        long nextValue;
+        try (ResultSet rs = stmt.executeQuery(CURRENT_ID_BLOCK)) {
+            nextValue = rs.next() ? rs.getLong(1) : 0;
+        }
+        if (nextValue <= id) {
+            stmt.execute("ALTER SEQUENCE task_id_seq RESTART WITH " + (id + 1));
         }
     }
 } 
\ No newline at end of file
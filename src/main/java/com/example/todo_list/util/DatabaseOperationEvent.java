@@ -0,0 +1,35 @@
+package com.example.todo_list.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// JFR event for a database read or write done by DatabaseManager.
+@Name("com.example.todo_list.DatabaseOperation")
+@Label("Database Operation")
+@Category({"Todo List", "Database"})
+@Description("A batch of task rows read from or written to the database")
+@StackTrace(false)
+public class DatabaseOperationEvent extends TimedEvent {
+    @Label("Operation")
+    String operation;
+
+    @Label("Rows")
+    int rows;
+
+    // Starts an event for the named operation (e.g., "saveChanges").
+    public static DatabaseOperationEvent start(String operation) {
+        DatabaseOperationEvent event = new DatabaseOperationEvent();
+        event.operation = operation;
+        event.startTiming("db." + operation);
+        return event;
+    }
+
+    // Sets the number of rows read or written and adds them to the db.<operation>.rows counter.
+    public void setRows(int rows) {
+        this.rows = rows;
+        Metrics.count("db." + operation + ".rows", rows);
+    }
+}
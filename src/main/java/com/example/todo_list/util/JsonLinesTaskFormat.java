@@ -0,0 +1,261 @@
+package com.example.todo_list.util;
+
+import com.example.todo_list.Recurrence;
+import com.example.todo_list.TaskList;
+import com.example.todo_list.TaskRecord;
+import com.example.todo_list.exception.InvalidTaskInputException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+// JSON Lines task format: one flat JSON object per line with the keys
+// type, description, details, reminderDate, dueTime, completed and recurrence.
+public class JsonLinesTaskFormat implements TaskRecordFormat {
+
+    @Override
+    public String getHeader() {
+        return null;
+    }
+
+    @Override
+    public String format(TaskRecord record) {
+        StringBuilder sb = new StringBuilder(96);
+        sb.append('{');
+        appendString(sb, "type", record.getType()).append(',');
+        appendString(sb, "description", record.getDescription()).append(',');
+        appendString(sb, "details", record.getDetails()).append(',');
+        appendString(sb, "reminderDate", record.getReminderDate() != null ? record.getReminderDate().toString() : null).append(',');
+        appendString(sb, "dueTime", record.getDueTime() != null ? DateTimeUtil.formatTime(record.getDueTime()) : null).append(',');
+        sb.append("\"completed\":").append(record.isCompleted()).append(',');
+        appendString(sb, "recurrence", record.getRecurrence() != null ? record.getRecurrence().toString() : null);
+        return sb.append('}').toString();
+    }
+
+    @Override
+    public boolean isRecordComplete(String text) {
+        // Line breaks inside strings are always escaped
+        return true;
+    }
+
+    @Override
+    public TaskRecord parse(String text) throws InvalidTaskInputException {
+        Map<String, Object> fields = new JsonObjectParser(text).parse();
+        try {
+            String reminderDate = stringField(fields, "reminderDate");
+            String dueTime = stringField(fields, "dueTime");
+            Object completed = fields.get("completed");
+            if (completed != null && !(completed instanceof Boolean)) {
+                throw new InvalidTaskInputException("Invalid completed value: " + completed);
+            }
+            LocalDate date = reminderDate != null ? LocalDate.parse(reminderDate) : null;
+            String rule = stringField(fields, "recurrence");
+            return new TaskRecord(0,
+                    stringField(fields, "type"),
+                    stringField(fields, "description"),
+                    stringField(fields, "details"),
+                    date,
+                    dueTime != null ? LocalTime.parse(dueTime) : null,
+                    Boolean.TRUE.equals(completed),
+                    TaskList.DEFAULT_LIST_ID,
+                    0,
+                    rule != null ? Recurrence.parse(rule, date != null ? date : LocalDate.now()) : null,
+                    null);
+        } catch (DateTimeParseException e) {
+            throw new InvalidTaskInputException("Invalid date or time: " + e.getParsedString(), e);
+        }
+    }
+
+    private static String stringField(Map<String, Object> fields, String name) {
+        Object value = fields.get(name);
+        if (value != null && !(value instanceof String)) {
+            throw new InvalidTaskInputException("Field \"" + name + "\" must be a string.");
+        }
+        return (String) value;
+    }
+
+    private static StringBuilder appendString(StringBuilder sb, String name, String value) {
+        sb.append('"').append(name).append("\":");
+        if (value == null) {
+            return sb.append("null");
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"');
+    }
+
+    // Parser for a single flat JSON object with string, number, boolean and null values.
+    private static final class JsonObjectParser {
+        private final String text;
+        private int pos;
+
+        private JsonObjectParser(String text) {
+            this.text = text;
+        }
+
+        private Map<String, Object> parse() {
+            Map<String, Object> fields = new HashMap<>();
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+            } else {
+                while (true) {
+                    skipWhitespace();
+                    String name = readString();
+                    skipWhitespace();
+                    expect(':');
+                    skipWhitespace();
+                    fields.put(name, readValue());
+                    skipWhitespace();
+                    char c = next();
+                    if (c == '}') {
+                        break;
+                    }
+                    if (c != ',') {
+                        throw error("Expected ',' or '}'");
+                    }
+                }
+            }
+            skipWhitespace();
+            if (pos < text.length()) {
+                throw error("Unexpected trailing characters");
+            }
+            return fields;
+        }
+
+        private Object readValue() {
+            char c = peek();
+            if (c == '"') {
+                return readString();
+            }
+            if (text.startsWith("null", pos)) {
+                pos += 4;
+                return null;
+            }
+            if (text.startsWith("true", pos)) {
+                pos += 4;
+                return Boolean.TRUE;
+            }
+            if (text.startsWith("false", pos)) {
+                pos += 5;
+                return Boolean.FALSE;
+            }
+            if (c == '-' || Character.isDigit(c)) {
+                int start = pos;
+                while (pos < text.length() && "+-.eE0123456789".indexOf(text.charAt(pos)) >= 0) {
+                    pos++;
+                }
+                try {
+                    return new BigDecimal(text.substring(start, pos));
+                } catch (NumberFormatException e) {
+                    throw error("Invalid number");
+                }
+            }
+            throw error("Unsupported value");
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                char escaped = next();
+                switch (escaped) {
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'u':
+                        if (pos + 4 > text.length()) {
+                            throw error("Invalid unicode escape");
+                        }
+                        try {
+                            sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("Invalid unicode escape");
+                        }
+                        pos += 4;
+                        break;
+                    default:
+                        sb.append(escaped);
+                }
+            }
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private char peek() {
+            if (pos >= text.length()) {
+                throw error("Unexpected end of line");
+            }
+            return text.charAt(pos);
+        }
+
+        private char next() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        private void expect(char expected) {
+            if (next() != expected) {
+                throw error("Expected '" + expected + "'");
+            }
+        }
+
+        private InvalidTaskInputException error(String message) {
+            return new InvalidTaskInputException("Malformed JSON at column " + (pos + 1) + ": " + message + ".");
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.todo_list.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// A latency histogram with power-of-two buckets: bucket i counts durations in [2^i, 2^(i+1)) ns.
+// Recording is lock-free and allocation-free, so it can be used on hot paths and the FX thread.
+// Percentiles are approximate, reported as the upper bound of the bucket they fall in.
+public class LatencyHistogram {
+    private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    // Records one duration in nanoseconds.
+    public void record(long nanos) {
+        long value = Math.max(nanos, 1);
+        buckets.incrementAndGet(63 - Long.numberOfLeadingZeros(value));
+        count.increment();
+        totalNanos.add(value);
+        maxNanos.accumulateAndGet(value, Math::max);
+    }
+
+    // Returns the number of recorded durations.
+    public long getCount() {
+        return count.sum();
+    }
+
+    // Returns the mean duration in nanoseconds, or 0 if nothing was recorded.
+    public long getMeanNanos() {
+        long n = count.sum();
+        return n == 0 ? 0 : totalNanos.sum() / n;
+    }
+
+    // Returns the longest recorded duration in nanoseconds.
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    // Returns the duration below which the given fraction (0-1) of the recorded durations fall,
+    // rounded up to a bucket bound and capped at the maximum.
+    public long getPercentileNanos(double fraction) {
+        long n = count.sum();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(fraction * n);
+        long seen = 0;
+        for (int i = 0; i < Long.SIZE; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return i >= 62 ? getMaxNanos() : Math.min((1L << (i + 1)) - 1, getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.todo_list.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// A map of limited size that drops its least recently used entry when a new entry would exceed
+// the capacity. Reading an entry with get() counts as a use. Not thread-safe.
+public class LruCache<K, V> {
+    private final LinkedHashMap<K, V> entries;
+
+    // Creates a cache holding at most capacity entries; a capacity of 0 caches nothing.
+    public LruCache(int capacity) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    // Returns the cached value for the key, or null, and marks it as most recently used.
+    public V get(K key) {
+        return entries.get(key);
+    }
+
+    // Caches a value, dropping the least recently used entry if the cache is full.
+    public void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    // Removes the cached value for the key, if any.
+    public V remove(K key) {
+        return entries.remove(key);
+    }
+
+    // Removes all cached values.
+    public void clear() {
+        entries.clear();
+    }
+
+    // Returns the number of cached entries.
+    public int size() {
+        return entries.size();
+    }
+}
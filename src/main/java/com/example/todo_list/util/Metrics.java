@@ -0,0 +1,64 @@
+package com.example.todo_list.util;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// In-process registry of named counters and latency histograms.
+// Metrics are created on first use and live for the whole process. The same hot paths also emit
+// JFR events (see TimedEvent), so a recording shows single slow operations and the registry
+// shows the totals. Set -Dtodo_list.logMetrics=true to print all metrics when the application exits.
+public final class Metrics {
+    private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    // Private constructor to prevent instantiation.
+    private Metrics() {}
+
+    // Returns the counter with the given name.
+    public static LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    // Returns the latency histogram with the given name.
+    public static LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    // Adds amount to the counter with the given name.
+    public static void count(String name, long amount) {
+        counter(name).add(amount);
+    }
+
+    // Returns the current value of every counter, by name.
+    public static Map<String, Long> getCounters() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        return values;
+    }
+
+    // Returns every histogram, by name.
+    public static Map<String, LatencyHistogram> getHistograms() {
+        return new TreeMap<>(histograms);
+    }
+
+    // Formats all metrics as a table, one line per metric.
+    public static String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-28s %10s %10s %10s %10s %10s%n", "Latency (us)", "count", "mean", "p50", "p99", "max"));
+        getHistograms().forEach((name, h) -> sb.append(String.format("%-28s %10d %10d %10d %10d %10d%n", name,
+                h.getCount(), h.getMeanNanos() / 1000, h.getPercentileNanos(0.5) / 1000,
+                h.getPercentileNanos(0.99) / 1000, h.getMaxNanos() / 1000)));
+        sb.append(String.format("%-28s %10s%n", "Counter", "value"));
+        getCounters().forEach((name, value) -> sb.append(String.format("%-28s %10d%n", name, value)));
+        return sb.toString();
+    }
+
+    // Prints all metrics if -Dtodo_list.logMetrics=true.
+    public static void logIfEnabled() {
+        if (Boolean.getBoolean("todo_list.logMetrics")) {
+            System.out.print(format());
+        }
+    }
+}
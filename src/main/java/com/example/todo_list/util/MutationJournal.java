@@ -0,0 +1,517 @@
+package com.example.todo_list.util;
+
+import com.example.todo_list.CompletedOccurrences;
+import com.example.todo_list.Recurrence;
+import com.example.todo_list.TaskList;
+import com.example.todo_list.TaskRecord;
+import com.example.todo_list.exception.DataPersistenceException;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32;
+
+// Append-only journal of task mutations, written through a FileChannel.
+// A single writer thread takes everything queued since its last write, appends it and calls
+// force() once for the whole group before acknowledging the appends. The journal is split into
+// numbered segment files; rotate() seals the current segment so it can be deleted once its
+// changes have been compacted into the tasks table.
+//
+// Record layout: int payload length, int CRC32 of the payload, payload. A torn or corrupt
+// record ends the replay of its segment, so after a failed write the segment is cut back to its
+// last durable record, or abandoned for a new one, before anything else is appended.
+//
+// A journal holds a file lock on its directory while open, so processes sharing a database never
+// write to the same journal; see openFirstFree().
+public class MutationJournal {
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String LOCK_FILE = "journal.lock";
+    private static final int MAX_RECORD_LENGTH = 1 << 20;
+    private static final int MAX_SLOTS = 32;
+
+    private final Path directory;
+    // Lock file channel; closing it releases the lock on the directory
+    private final FileChannel lockChannel;
+    private final BlockingQueue<Request> requests = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    // Current segment, or null until the next write opens it after a rotation or failure
+    private FileChannel channel;
+    private long currentSegment;
+    // Size of the current segment up to its last forced record
+    private long durableSize;
+    private volatile boolean closed;
+
+    // Opens a journal in the directory. New records go to a fresh segment after any existing ones,
+    // so existing segments can be replayed with readSegments(). Fails if another process has the
+    // directory open.
+    public MutationJournal(Path directory) throws DataPersistenceException {
+        this(directory, requireLock(directory));
+    }
+
+    // Opens the journal in the first of directory, directory-2, directory-3, ... that no other
+    // process has open. A single process always gets the directory itself; the segments a
+    // crashed process left in a directory are replayed by the next process that opens it.
+    public static MutationJournal openFirstFree(Path directory) throws DataPersistenceException {
+        for (int slot = 1; slot <= MAX_SLOTS; slot++) {
+            Path slotDirectory = slot == 1 ? directory : directory.resolveSibling(directory.getFileName() + "-" + slot);
+            FileChannel lockChannel = lockDirectory(slotDirectory);
+            if (lockChannel != null) {
+                return new MutationJournal(slotDirectory, lockChannel);
+            }
+        }
+        throw new DataPersistenceException("All " + MAX_SLOTS + " mutation journals next to " + directory + " are in use.");
+    }
+
+    private MutationJournal(Path directory, FileChannel lockChannel) throws DataPersistenceException {
+        this.directory = directory;
+        this.lockChannel = lockChannel;
+        try {
+            List<Long> existing = listSegments();
+            currentSegment = existing.isEmpty() ? 1 : existing.get(existing.size() - 1) + 1;
+            channel = openSegment(currentSegment);
+        } catch (IOException e) {
+            closeQuietly(lockChannel);
+            throw new DataPersistenceException("Failed to open mutation journal in " + directory + ": " + e.getMessage(), e);
+        }
+        writer = new Thread(this::writeLoop, "mutation-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // Appends a change. The returned future completes once the change is on disk.
+    public CompletableFuture<Void> append(TaskChange change) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        if (closed) {
+            done.completeExceptionally(new DataPersistenceException("Mutation journal is closed."));
+            return done;
+        }
+        requests.add(new Request(encode(change), done, null));
+        return done;
+    }
+
+    // Seals the current segment after all changes appended so far and starts a new one.
+    // The returned future completes with the number of the sealed segment.
+    public CompletableFuture<Long> rotate() {
+        CompletableFuture<Long> sealed = new CompletableFuture<>();
+        if (closed) {
+            sealed.completeExceptionally(new DataPersistenceException("Mutation journal is closed."));
+            return sealed;
+        }
+        requests.add(new Request(null, null, sealed));
+        return sealed;
+    }
+
+    // Deletes all sealed segments up to and including the given segment number.
+    public void deleteSegmentsThrough(long segment) throws DataPersistenceException {
+        try {
+            for (long number : listSegments()) {
+                if (number <= segment && number != currentSegment) {
+                    Files.deleteIfExists(segmentPath(number));
+                }
+            }
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to delete journal segments: " + e.getMessage(), e);
+        }
+    }
+
+    // Reads the changes of all segments written before this journal was opened, in order.
+    // Returns the segment number of the last one read (0 if there were none) through lastSegment[0].
+    public List<TaskChange> readSegments(long[] lastSegment) throws DataPersistenceException {
+        List<TaskChange> changes = new ArrayList<>();
+        lastSegment[0] = 0;
+        try {
+            for (long number : listSegments()) {
+                if (number >= currentSegment) {
+                    break;
+                }
+                readSegment(segmentPath(number), changes);
+                lastSegment[0] = number;
+            }
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to read mutation journal: " + e.getMessage(), e);
+        }
+        return changes;
+    }
+
+    // Returns the directory the journal writes to.
+    public Path getDirectory() {
+        return directory;
+    }
+
+    // Writes everything still queued and closes the current segment, deleting it if it is empty.
+    // Then releases the directory to other processes.
+    public void close() {
+        closed = true;
+        requests.add(new Request(null, null, null));
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeQuietly(lockChannel);
+    }
+
+    private static FileChannel requireLock(Path directory) throws DataPersistenceException {
+        FileChannel lockChannel = lockDirectory(directory);
+        if (lockChannel == null) {
+            throw new DataPersistenceException("Mutation journal in " + directory + " is in use by another process.");
+        }
+        return lockChannel;
+    }
+
+    // Creates the directory and takes its lock file. Returns the locked file's channel, or null
+    // if another process holds the lock.
+    private static FileChannel lockDirectory(Path directory) throws DataPersistenceException {
+        FileChannel channel = null;
+        try {
+            Files.createDirectories(directory);
+            channel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock lock = channel.tryLock();
+            if (lock == null) {
+                channel.close();
+                return null;
+            }
+            return channel;
+        } catch (OverlappingFileLockException e) {
+            // Held by this process, e.g. by the command-line interface running in the same JVM
+            closeQuietly(channel);
+            return null;
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new DataPersistenceException("Failed to open mutation journal in " + directory + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            // Also releases the lock
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Failed to release mutation journal lock: " + e.getMessage());
+        }
+    }
+
+    private void writeLoop() {
+        List<Request> group = new ArrayList<>();
+        while (true) {
+            try {
+                group.add(requests.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            requests.drainTo(group);
+            if (!writeGroup(group)) {
+                return;
+            }
+            group.clear();
+        }
+    }
+
+    // Writes one group of requests with a single force(). Returns false after the close request.
+    private boolean writeGroup(List<Request> group) {
+        List<CompletableFuture<Void>> pendingAcks = new ArrayList<>();
+        boolean keepRunning = true;
+        try {
+            for (Request request : group) {
+                if (request.payload != null) {
+                    writeRecord(request.payload);
+                    pendingAcks.add(request.done);
+                } else {
+                    // Rotation and close both need the records before them to be durable
+                    forceAndAcknowledge(pendingAcks);
+                    if (request.sealed != null) {
+                        long sealedSegment = currentSegment;
+                        closeSegment();
+                        // The next write opens the new segment
+                        currentSegment++;
+                        request.sealed.complete(sealedSegment);
+                    } else {
+                        boolean empty = channel != null && channel.size() == 0;
+                        closeSegment();
+                        if (empty) {
+                            Files.deleteIfExists(segmentPath(currentSegment));
+                        }
+                        keepRunning = false;
+                        break;
+                    }
+                }
+            }
+            if (keepRunning) {
+                forceAndAcknowledge(pendingAcks);
+            }
+        } catch (IOException e) {
+            discardUnacknowledged();
+            DataPersistenceException failure =
+                    new DataPersistenceException("Failed to write mutation journal: " + e.getMessage(), e);
+            for (Request request : group) {
+                if (request.done != null) {
+                    request.done.completeExceptionally(failure);
+                }
+                if (request.sealed != null) {
+                    request.sealed.completeExceptionally(failure);
+                }
+                if (request.payload == null && request.sealed == null) {
+                    // Closing anyway; close() is waiting for this thread
+                    keepRunning = false;
+                }
+            }
+            if (!keepRunning && channel != null) {
+                try {
+                    closeSegment();
+                } catch (IOException closeFailure) {
+                    System.err.println("Failed to close journal segment: " + closeFailure.getMessage());
+                }
+            }
+        }
+        return keepRunning;
+    }
+
+    private void writeRecord(byte[] payload) throws IOException {
+        if (channel == null) {
+            channel = openSegment(currentSegment);
+            durableSize = channel.size();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer buffer = ByteBuffer.allocate(8 + payload.length);
+        buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void forceAndAcknowledge(List<CompletableFuture<Void>> acks) throws IOException {
+        if (acks.isEmpty()) {
+            return;
+        }
+        channel.force(false);
+        durableSize = channel.size();
+        for (CompletableFuture<Void> ack : acks) {
+            ack.complete(null);
+        }
+        acks.clear();
+    }
+
+    private void closeSegment() throws IOException {
+        if (channel != null) {
+            FileChannel closing = channel;
+            channel = null;
+            closing.close();
+        }
+    }
+
+    // Cuts the current segment back to its last durable record after a failed write, so later
+    // records do not land behind a torn one that would end its replay. If the segment cannot be
+    // cut, it is abandoned and the next write starts a new one.
+    private void discardUnacknowledged() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.truncate(durableSize);
+            channel.force(false);
+        } catch (IOException e) {
+            System.err.println("Failed to truncate journal segment " + currentSegment + ", starting a new one: " + e.getMessage());
+            try {
+                channel.close();
+            } catch (IOException closeFailure) {
+                // Abandoned either way
+            }
+            channel = null;
+            currentSegment++;
+        }
+    }
+
+    private static void readSegment(Path segment, List<TaskChange> into) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment)))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                if (length <= 0 || length > MAX_RECORD_LENGTH) {
+                    return;
+                }
+                int checksum;
+                byte[] payload = new byte[length];
+                try {
+                    checksum = in.readInt();
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    // Torn write at the end of the segment
+                    return;
+                }
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    return;
+                }
+                try {
+                    into.add(decode(payload));
+                } catch (IOException | RuntimeException e) {
+                    // Intact but not understood, e.g. a repeat rule that no longer parses; the rest still replays
+                    System.err.println("Skipped unreadable journal record in " + segment.getFileName() + ": " + e);
+                }
+            }
+        }
+    }
+
+    private static byte[] encode(TaskChange change) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(change.getOperation().ordinal());
+            out.writeInt(change.getTaskId());
+            TaskRecord record = change.getRecord();
+            if (record == null) {
+                out.writeInt(change.getVersion());
+            }
+            if (record != null) {
+                out.writeUTF(record.getType());
+                out.writeUTF(record.getDescription());
+                writeNullableString(out, record.getDetails());
+                out.writeLong(record.getReminderDate() != null ? record.getReminderDate().toEpochDay() : Long.MIN_VALUE);
+                out.writeInt(record.getDueTime() != null ? record.getDueTime().toSecondOfDay() : -1);
+                out.writeBoolean(record.isCompleted());
+                out.writeInt(record.getListId());
+                out.writeInt(record.getVersion());
+                Recurrence recurrence = record.getRecurrence();
+                writeNullableString(out, recurrence != null ? recurrence.toString() : null);
+                CompletedOccurrences completedOccurrences = record.getCompletedOccurrences();
+                out.writeLong(completedOccurrences != null ? completedOccurrences.getFrom().toEpochDay() : Long.MIN_VALUE);
+                if (completedOccurrences != null) {
+                    out.writeInt(completedOccurrences.size());
+                    for (LocalDate date : completedOccurrences.getDates()) {
+                        out.writeInt(Math.toIntExact(date.toEpochDay()));
+                    }
+                }
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            // Cannot happen for an in-memory stream
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static TaskChange decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        TaskChange.Operation operation = TaskChange.Operation.values()[in.readByte()];
+        int taskId = in.readInt();
+        if (operation == TaskChange.Operation.DELETE) {
+            // Records written before row versions existed end after the id
+            return TaskChange.delete(taskId, in.available() >= Integer.BYTES ? in.readInt() : 0);
+        }
+        String type = in.readUTF();
+        String description = in.readUTF();
+        String details = readNullableString(in);
+        long epochDay = in.readLong();
+        int secondOfDay = in.readInt();
+        boolean completed = in.readBoolean();
+        // Records written before task lists existed end here
+        int listId = in.available() >= Integer.BYTES ? in.readInt() : TaskList.DEFAULT_LIST_ID;
+        int version = in.available() >= Integer.BYTES ? in.readInt() : 0;
+        // Records written before recurring tasks existed end here
+        Recurrence recurrence = null;
+        CompletedOccurrences completedOccurrences = null;
+        if (in.available() > 0) {
+            String rule = readNullableString(in);
+            recurrence = rule != null ? Recurrence.parse(rule, null) : null;
+            long from = in.readLong();
+            if (from != Long.MIN_VALUE) {
+                List<LocalDate> dates = new ArrayList<>();
+                for (int i = in.readInt(); i > 0; i--) {
+                    dates.add(LocalDate.ofEpochDay(in.readInt()));
+                }
+                completedOccurrences = CompletedOccurrences.of(LocalDate.ofEpochDay(from), dates);
+            }
+        }
+        TaskRecord record = new TaskRecord(taskId, type, description, details,
+                epochDay != Long.MIN_VALUE ? LocalDate.ofEpochDay(epochDay) : null,
+                secondOfDay >= 0 ? LocalTime.ofSecondOfDay(secondOfDay) : null,
+                completed, listId, version, recurrence, completedOccurrences);
+        switch (operation) {
+            case ADD:
+                return TaskChange.add(record);
+            case COMPLETE:
+                return TaskChange.complete(record);
+            default:
+                return TaskChange.update(record);
+        }
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private List<Long> listSegments() throws IOException {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                try {
+                    segments.put(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())), path);
+                } catch (NumberFormatException e) {
+                    // Not a segment file
+                }
+            }
+        }
+        return new ArrayList<>(segments.keySet());
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    // Opens a segment for appending. Package-private so tests can make writes fail.
+    FileChannel openSegment(long number) throws IOException {
+        return FileChannel.open(segmentPath(number), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    // A queued append (payload set), rotation (sealed set) or close (neither set).
+    private static final class Request {
+        private final byte[] payload;
+        private final CompletableFuture<Void> done;
+        private final CompletableFuture<Long> sealed;
+
+        private Request(byte[] payload, CompletableFuture<Void> done, CompletableFuture<Long> sealed) {
+            this.payload = payload;
+            this.done = done;
+            this.sealed = sealed;
+        }
+    }
+}
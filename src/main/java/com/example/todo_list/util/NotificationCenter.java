@@ -0,0 +1,241 @@
+package com.example.todo_list.util;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.layout.VBox;
+import javafx.stage.Popup;
+import javafx.stage.Window;
+import javafx.util.Duration;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Shows task notifications as non-modal toasts in the bottom-right corner of the window.
+// Notifications are queued and shown a moment later, so a burst can be looked at as a whole:
+// notifications of the same kind that are queued together become one digest toast
+// (e.g., "14 tasks overdue"). A token bucket limits how many toasts appear per second, and
+// notifications that have to wait for a token keep merging into their digest. The queue is
+// bounded; when it is full the oldest notification is dropped but still counted in its digest.
+// Nothing here ever waits for the user, so the FX thread is never blocked.
+public class NotificationCenter {
+    // How long notifications are collected before the first toast of a burst is shown
+    private static final long COALESCE_MILLIS = 400;
+    // Toasts per second, and how many can be shown at once after a quiet period
+    private static final double TOASTS_PER_SECOND = 1.0;
+    private static final double MAX_BURST = 3;
+    private static final int QUEUE_CAPACITY = 100;
+    private static final int MAX_VISIBLE_TOASTS = 3;
+    private static final long TOAST_MILLIS = 6000;
+    private static final double TOAST_MARGIN = 12;
+    private static final String STYLE_CLASS_TOAST = "toast";
+    private static final String STYLE_CLASS_TOAST_TITLE = "toast-title";
+
+    private final Node anchor;
+    private final ArrayDeque<Notification> queue = new ArrayDeque<>();
+    // Notifications dropped from the full queue, by digest group
+    private final Map<String, Integer> dropped = new LinkedHashMap<>();
+    private final List<Popup> visibleToasts = new ArrayList<>();
+    private final PauseTransition drainTimer = new PauseTransition();
+    private boolean drainScheduled;
+    private double tokens = MAX_BURST;
+    private long tokensUpdatedAtMillis = System.currentTimeMillis();
+    private boolean stopped;
+
+    // Creates a notification center that shows its toasts over the window containing anchor.
+    public NotificationCenter(Node anchor) {
+        this.anchor = anchor;
+        drainTimer.setOnFinished(e -> {
+            drainScheduled = false;
+            drain();
+        });
+    }
+
+    // Queues a notification. A burst of notifications with the same title and digest label is
+    // shown as one toast with the message "<count> tasks <digestLabel>". May be called from any thread.
+    public void post(String title, String message, String digestLabel) {
+        if (!Platform.isFxApplicationThread()) {
+            Platform.runLater(() -> post(title, message, digestLabel));
+            return;
+        }
+        if (stopped) {
+            return;
+        }
+        Metrics.count("notifications.posted", 1);
+        if (queue.size() >= QUEUE_CAPACITY) {
+            Notification oldest = queue.poll();
+            dropped.merge(oldest.groupKey(), 1, Integer::sum);
+            Metrics.count("notifications.dropped", 1);
+        }
+        queue.add(new Notification(title, message, digestLabel));
+        scheduleDrain(COALESCE_MILLIS);
+    }
+
+    // Returns the number of notifications waiting to be shown.
+    public int getQueuedCount() {
+        int count = queue.size();
+        for (int droppedCount : dropped.values()) {
+            count += droppedCount;
+        }
+        return count;
+    }
+
+    // Hides all toasts and drops pending notifications.
+    public void stop() {
+        stopped = true;
+        drainTimer.stop();
+        queue.clear();
+        dropped.clear();
+        for (Popup toast : new ArrayList<>(visibleToasts)) {
+            toast.hide();
+        }
+        visibleToasts.clear();
+    }
+
+    private void scheduleDrain(long delayMillis) {
+        if (drainScheduled) {
+            return;
+        }
+        drainScheduled = true;
+        drainTimer.setDuration(Duration.millis(delayMillis));
+        drainTimer.playFromStart();
+    }
+
+    // Shows queued notifications, one toast per digest group, as long as tokens are available.
+    private void drain() {
+        if (queue.isEmpty() && dropped.isEmpty()) {
+            return;
+        }
+        Window window = anchor.getScene() != null ? anchor.getScene().getWindow() : null;
+        if (window == null || !window.isShowing()) {
+            // Nothing to show the toasts on yet
+            scheduleDrain(500);
+            return;
+        }
+
+        Map<String, List<Notification>> groups = new LinkedHashMap<>();
+        for (Notification notification : queue) {
+            groups.computeIfAbsent(notification.groupKey(), k -> new ArrayList<>()).add(notification);
+        }
+        for (String key : dropped.keySet()) {
+            groups.computeIfAbsent(key, k -> new ArrayList<>());
+        }
+
+        refillTokens();
+        for (Map.Entry<String, List<Notification>> group : groups.entrySet()) {
+            if (tokens < 1) {
+                break;
+            }
+            tokens -= 1;
+            List<Notification> notifications = group.getValue();
+            int count = notifications.size() + dropped.getOrDefault(group.getKey(), 0);
+            Notification first = notifications.isEmpty() ? null : notifications.get(0);
+            if (count == 1 && first != null) {
+                showToast(window, first.title, first.message);
+            } else {
+                String[] key = group.getKey().split("\u0000", 2);
+                showToast(window, key[0], count + " tasks " + key[1]);
+            }
+            removeGroup(group.getKey());
+        }
+
+        if (!queue.isEmpty() || !dropped.isEmpty()) {
+            // Wait for the next token; later notifications of the same kind join the digest
+            long untilToken = (long) Math.ceil((1 - tokens) / TOASTS_PER_SECOND * 1000);
+            scheduleDrain(Math.max(untilToken, COALESCE_MILLIS));
+        }
+    }
+
+    private void removeGroup(String key) {
+        dropped.remove(key);
+        Iterator<Notification> it = queue.iterator();
+        while (it.hasNext()) {
+            if (it.next().groupKey().equals(key)) {
+                it.remove();
+            }
+        }
+    }
+
+    private void refillTokens() {
+        long now = System.currentTimeMillis();
+        tokens = Math.min(MAX_BURST, tokens + (now - tokensUpdatedAtMillis) / 1000.0 * TOASTS_PER_SECOND);
+        tokensUpdatedAtMillis = now;
+    }
+
+    private void showToast(Window window, String title, String message) {
+        Metrics.count("notifications.toasts", 1);
+        Label titleLabel = new Label(title);
+        titleLabel.getStyleClass().add(STYLE_CLASS_TOAST_TITLE);
+        Label messageLabel = new Label(message);
+        messageLabel.setWrapText(true);
+        messageLabel.setMaxWidth(280);
+        VBox content = new VBox(4, titleLabel, messageLabel);
+        content.getStyleClass().add(STYLE_CLASS_TOAST);
+        content.getStylesheets().addAll(anchor.getScene().getStylesheets());
+
+        Popup toast = new Popup();
+        toast.getContent().add(content);
+        toast.setAutoFix(true);
+        // Size the toast now, so it can be placed before it is first drawn
+        content.applyCss();
+        content.autosize();
+        content.setOnMouseClicked(e -> hideToast(toast));
+
+        if (visibleToasts.size() >= MAX_VISIBLE_TOASTS) {
+            hideToast(visibleToasts.get(0));
+        }
+        visibleToasts.add(toast);
+        toast.show(window);
+        layoutToasts(window);
+
+        PauseTransition expiry = new PauseTransition(Duration.millis(TOAST_MILLIS));
+        expiry.setOnFinished(e -> hideToast(toast));
+        expiry.play();
+    }
+
+    private void hideToast(Popup toast) {
+        if (visibleToasts.remove(toast)) {
+            toast.hide();
+            Window window = toast.getOwnerWindow();
+            if (window != null) {
+                layoutToasts(window);
+            }
+        }
+    }
+
+    // Stacks the visible toasts upwards from the bottom-right corner, newest at the bottom.
+    private void layoutToasts(Window window) {
+        double bottom = window.getY() + window.getHeight() - TOAST_MARGIN;
+        for (int i = visibleToasts.size() - 1; i >= 0; i--) {
+            Popup toast = visibleToasts.get(i);
+            Bounds bounds = toast.getContent().get(0).getLayoutBounds();
+            toast.setX(window.getX() + window.getWidth() - bounds.getWidth() - TOAST_MARGIN);
+            toast.setY(bottom - bounds.getHeight());
+            bottom -= bounds.getHeight() + TOAST_MARGIN / 2;
+        }
+    }
+
+    // A queued notification.
+    private static final class Notification {
+        private final String title;
+        private final String message;
+        private final String digestLabel;
+
+        private Notification(String title, String message, String digestLabel) {
+            this.title = title;
+            this.message = message;
+            this.digestLabel = digestLabel;
+        }
+
+        // Notifications with the same key are merged into one digest
+        private String groupKey() {
+            return title + "\u0000" + digestLabel;
+        }
+    }
+}
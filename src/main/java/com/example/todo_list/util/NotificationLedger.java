@@ -0,0 +1,194 @@
+package com.example.todo_list.util;
+
+import com.example.todo_list.exception.DataPersistenceException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Remembers which reminder notifications have been shown, so each one is shown once per task,
+// kind and reminder date, also across restarts.
+// Entries are kept in one bucket per date; when the day changes the buckets of past dates are
+// dropped as a whole, without looking at their entries. Entries are also written to the
+// notification_ledger table on a background thread and today's entries are read back on startup.
+// Must be used on the thread given as deliveryExecutor (the FX thread).
+public class NotificationLedger {
+    private static final long CLOSE_TIMEOUT_MILLIS = 2000;
+
+    private final Executor deliveryExecutor;
+    private final ExecutorService executor;
+    private final CompletableFuture<Void> loaded;
+    // Reminder date to the keys (see key()) of the notifications shown for it
+    private final Map<LocalDate, Set<Long>> buckets = new HashMap<>();
+    private LocalDate today;
+    // Entries not yet written, guarded by this
+    private List<Entry> unsaved = new ArrayList<>();
+
+    // Creates a ledger that loads its entries once databaseReady completes. Notifications asked for
+    // before that are decided once loading is done, on deliveryExecutor (e.g., Platform::runLater).
+    public NotificationLedger(CompletableFuture<?> databaseReady, Executor deliveryExecutor) {
+        this.deliveryExecutor = deliveryExecutor;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "notification-ledger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.loaded = CompletableFuture.supplyAsync(() -> load(databaseReady), executor)
+                .thenAcceptAsync(this::addLoaded, deliveryExecutor);
+    }
+
+    // Runs show unless the notification for this task, kind and reminder date has been shown
+    // before, and records it as shown.
+    public void showOnce(int taskId, ReminderEvent.Kind kind, LocalDate date, Runnable show) {
+        if (!loaded.isDone()) {
+            loaded.thenRunAsync(() -> showOnce(taskId, kind, date, show), deliveryExecutor);
+            return;
+        }
+        expireBefore(LocalDate.now());
+        if (taskId == 0 || date.isBefore(today)) {
+            // Not yet saved, or older than what the ledger keeps
+            show.run();
+            return;
+        }
+        if (buckets.computeIfAbsent(date, d -> new HashSet<>()).add(key(taskId, kind))) {
+            show.run();
+            save(new Entry(taskId, kind, date));
+        }
+    }
+
+    // Returns the number of notifications remembered.
+    public int size() {
+        int size = 0;
+        for (Set<Long> bucket : buckets.values()) {
+            size += bucket.size();
+        }
+        return size;
+    }
+
+    // Writes the remaining entries and stops the background thread.
+    public void close() {
+        executor.execute(this::writeUnsaved);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Drops the buckets of dates before the given day, here and in the database.
+    private void expireBefore(LocalDate day) {
+        if (day.equals(today)) {
+            return;
+        }
+        today = day;
+        Iterator<LocalDate> it = buckets.keySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().isBefore(day)) {
+                it.remove();
+            }
+        }
+        executor.execute(() -> {
+            try {
+                DatabaseManager.deleteNotificationsBefore(day);
+            } catch (DataPersistenceException e) {
+                System.err.println("Failed to purge the notification ledger: " + e.getMessage());
+            }
+        });
+    }
+
+    // Reads the entries from today on, after removing older ones. Runs on the background thread;
+    // on failure the ledger starts empty, so notifications are shown rather than lost.
+    private List<Entry> load(CompletableFuture<?> databaseReady) {
+        LocalDate day = LocalDate.now();
+        try {
+            databaseReady.join();
+            DatabaseManager.deleteNotificationsBefore(day);
+            return DatabaseManager.loadNotifications(day);
+        } catch (RuntimeException e) {
+            System.err.println("Failed to load the notification ledger: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    private void addLoaded(List<Entry> entries) {
+        today = LocalDate.now();
+        for (Entry entry : entries) {
+            if (!entry.date.isBefore(today)) {
+                buckets.computeIfAbsent(entry.date, d -> new HashSet<>()).add(key(entry.taskId, entry.kind));
+            }
+        }
+    }
+
+    // Queues an entry for writing; entries recorded in a burst are written in one batch.
+    private void save(Entry entry) {
+        boolean first;
+        synchronized (this) {
+            first = unsaved.isEmpty();
+            unsaved.add(entry);
+        }
+        if (first && !executor.isShutdown()) {
+            executor.execute(this::writeUnsaved);
+        }
+    }
+
+    private void writeUnsaved() {
+        List<Entry> entries;
+        synchronized (this) {
+            entries = unsaved;
+            unsaved = new ArrayList<>();
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            DatabaseManager.saveNotifications(entries);
+        } catch (DataPersistenceException e) {
+            // The notifications were shown; at worst they are shown again after a restart
+            System.err.println("Failed to save the notification ledger: " + e.getMessage());
+        }
+    }
+
+    private static long key(int taskId, ReminderEvent.Kind kind) {
+        return ((long) taskId << 8) | kind.ordinal();
+    }
+
+    // A notification shown for a task, kind and reminder date.
+    public static final class Entry {
+        private final int taskId;
+        private final ReminderEvent.Kind kind;
+        private final LocalDate date;
+
+        // Constructs an Entry for a task id, reminder kind and reminder date.
+        public Entry(int taskId, ReminderEvent.Kind kind, LocalDate date) {
+            this.taskId = taskId;
+            this.kind = kind;
+            this.date = date;
+        }
+
+        // Gets the id of the task the notification was shown for.
+        public int getTaskId() {
+            return taskId;
+        }
+
+        // Gets the kind of reminder.
+        public ReminderEvent.Kind getKind() {
+            return kind;
+        }
+
+        // Gets the reminder date.
+        public LocalDate getDate() {
+            return date;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.todo_list.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+// A connection borrowed from a ConnectionPool.
+// Prepared statements are cached per connection and must not be closed by callers.
+public class PooledConnection implements AutoCloseable {
+    private final ConnectionPool pool;
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statementCache = new HashMap<>();
+    private long lastReturnedMillis;
+    private boolean borrowed;
+
+    PooledConnection(ConnectionPool pool, Connection connection) {
+        this.pool = pool;
+        this.connection = connection;
+        this.lastReturnedMillis = System.currentTimeMillis();
+    }
+
+    // Returns a cached prepared statement for the query, preparing it on first use.
+    public PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement stmt = statementCache.get(sql);
+        if (stmt == null) {
+            stmt = connection.prepareStatement(sql);
+            statementCache.put(sql, stmt);
+        } else {
+            stmt.clearParameters();
+        }
+        return stmt;
+    }
+
+    // Returns a cached prepared statement that reports the given generated key columns.
+    public PreparedStatement prepare(String sql, String[] generatedKeyColumns) throws SQLException {
+        String cacheKey = sql + "#keys=" + String.join(",", generatedKeyColumns);
+        PreparedStatement stmt = statementCache.get(cacheKey);
+        if (stmt == null) {
+            stmt = connection.prepareStatement(sql, generatedKeyColumns);
+            statementCache.put(cacheKey, stmt);
+        } else {
+            stmt.clearParameters();
+        }
+        return stmt;
+    }
+
+    // Creates an uncached statement for ad hoc queries. The caller must close it.
+    public Statement createStatement() throws SQLException {
+        return connection.createStatement();
+    }
+
+    // Sets the auto-commit mode of the underlying connection.
+    public void setAutoCommit(boolean autoCommit) throws SQLException {
+        connection.setAutoCommit(autoCommit);
+    }
+
+    // Commits the current transaction.
+    public void commit() throws SQLException {
+        connection.commit();
+    }
+
+    // Rolls back the current transaction.
+    public void rollback() throws SQLException {
+        connection.rollback();
+    }
+
+    // Gets the underlying JDBC connection. It must not be closed directly.
+    public Connection getConnection() {
+        return connection;
+    }
+
+    // Returns the connection to its pool.
+    @Override
+    public void close() {
+        if (borrowed) {
+            borrowed = false;
+            pool.release(this);
+        }
+    }
+
+    void markBorrowed() {
+        borrowed = true;
+    }
+
+    long getLastReturnedMillis() {
+        return lastReturnedMillis;
+    }
+
+    // Restores a clean state before the connection goes back to the idle queue.
+    // Returns false if the connection is no longer usable.
+    boolean resetForReuse() {
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            for (PreparedStatement stmt : statementCache.values()) {
+                stmt.clearBatch();
+            }
+            lastReturnedMillis = System.currentTimeMillis();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    void closePhysically() {
+        statementCache.clear();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("Failed to close database connection: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.todo_list.util;
+
+import com.example.todo_list.Task;
+
+import java.time.LocalDate;
+
+// A reminder that has become due for a task.
+public final class ReminderEvent {
+
+    // The kinds of reminders a task can produce.
+    public enum Kind {
+        // The reminder date of a task without a due time has been reached
+        DUE_TODAY,
+        // The due time of a deadline task has been reached
+        DUE_NOW,
+        // The due time of a deadline task passed more than a minute ago
+        OVERDUE
+    }
+
+    private final Task task;
+    private final Kind kind;
+    private final LocalDate date;
+
+    // Constructs a ReminderEvent for a task, kind and reminder date.
+    public ReminderEvent(Task task, Kind kind, LocalDate date) {
+        this.task = task;
+        this.kind = kind;
+        this.date = date;
+    }
+
+    // Gets the task the reminder belongs to.
+    public Task getTask() {
+        return task;
+    }
+
+    // Gets the kind of reminder.
+    public Kind getKind() {
+        return kind;
+    }
+
+    // Gets the reminder date the event was scheduled for.
+    public LocalDate getDate() {
+        return date;
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.todo_list.util;
+
+import com.example.todo_list.HasDueTime;
+import com.example.todo_list.Task;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Fires task reminders at their due instants.
+// Pending reminders are kept in a min-heap ordered by due time and a single timer sleeps until
+// the earliest one. Rescheduling a task bumps its generation, which turns its old heap entries
+// into stale entries that are skipped when popped.
+// A recurring task only has entries for one occurrence at a time: the last entry of an occurrence
+// carries the task's occurrence iterator, and when it is popped the entries of the next
+// occurrence are queued, so a schedule without end costs no more than a single reminder.
+public class ReminderScheduler {
+    // How long after its due time a deadline task is reported as overdue
+    private static final long OVERDUE_AFTER_MILLIS = 60_000;
+    // Upper bound for a single sleep, so wall-clock changes are picked up eventually
+    private static final long MAX_SLEEP_MILLIS = 3_600_000;
+
+    private final Executor deliveryExecutor;
+    private final Consumer<ReminderEvent> listener;
+    private final ScheduledExecutorService timer;
+
+    // Guarded by this
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>();
+    private final Map<Task, Integer> generations = new IdentityHashMap<>();
+    private int nextGeneration;
+    private ScheduledFuture<?> wakeUp;
+    private long wakeUpAtMillis = Long.MAX_VALUE;
+
+    // Creates a scheduler that passes due reminders to listener through deliveryExecutor
+    // (e.g., Platform::runLater).
+    public ReminderScheduler(Executor deliveryExecutor, Consumer<ReminderEvent> listener) {
+        this.deliveryExecutor = deliveryExecutor;
+        this.listener = listener;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "reminder-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Schedules the reminders of a task, replacing any reminders scheduled for it before.
+    // Must be called on the thread that owns the task (the FX thread).
+    public void schedule(Task task) {
+        List<Entry> entries = entriesFor(task, System.currentTimeMillis());
+        synchronized (this) {
+            put(task, entries);
+            compactIfNeeded();
+            rearm();
+        }
+    }
+
+    // Schedules the reminders of several tasks at once.
+    public void scheduleAll(Collection<? extends Task> tasks) {
+        long now = System.currentTimeMillis();
+        Map<Task, List<Entry>> entriesByTask = new IdentityHashMap<>();
+        for (Task task : tasks) {
+            entriesByTask.put(task, entriesFor(task, now));
+        }
+        synchronized (this) {
+            entriesByTask.forEach(this::put);
+            compactIfNeeded();
+            rearm();
+        }
+    }
+
+    // Cancels all pending reminders of a task.
+    public synchronized void cancel(Task task) {
+        generations.remove(task);
+    }
+
+    // Returns the number of tasks with pending reminders.
+    public synchronized int getScheduledTaskCount() {
+        return generations.size();
+    }
+
+    // Stops the timer. Pending reminders are dropped.
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    // Computes the heap entries for a task from its current state. Must be called on the thread
+    // that owns the task; everything later occurrences need is captured here.
+    private List<Entry> entriesFor(Task task, long now) {
+        LocalDate date = task.getReminderDate();
+        if (task.isCompleted() || date == null) {
+            return new ArrayList<>(2);
+        }
+        boolean deadline = task instanceof HasDueTime;
+        LocalTime dueTime = deadline ? ((HasDueTime) task).getDueTime() : null;
+        Series series = null;
+        if (task.getRecurrence() != null && (!deadline || dueTime != null)) {
+            series = new Series(task.getRecurrence().occurrences(date.plusDays(1)), deadline, dueTime);
+        }
+        return entriesOn(task, date, deadline, dueTime, series, now);
+    }
+
+    // Computes the heap entries for the occurrence of a task on the date, or for the first later
+    // occurrence in the series whose day has not ended yet.
+    private static List<Entry> entriesOn(Task task, LocalDate date, boolean deadline, LocalTime dueTime,
+                                         Series series, long now) {
+        List<Entry> entries = new ArrayList<>(2);
+        ZoneId zone = ZoneId.systemDefault();
+        long endOfDay = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        while (now >= endOfDay) {
+            // Reminders are only given on the reminder date itself
+            if (series == null || !series.later.hasNext()) {
+                return entries;
+            }
+            date = series.later.next();
+            endOfDay = date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+
+        if (deadline) {
+            if (dueTime == null) {
+                return entries;
+            }
+            long dueAt = date.atTime(dueTime).atZone(zone).toInstant().toEpochMilli();
+            long overdueAt = dueAt + OVERDUE_AFTER_MILLIS;
+            if (now <= overdueAt) {
+                entries.add(new Entry(task, ReminderEvent.Kind.DUE_NOW, date, Math.max(dueAt, now), endOfDay));
+            }
+            entries.add(new Entry(task, ReminderEvent.Kind.OVERDUE, date, Math.max(overdueAt, now), endOfDay));
+        } else {
+            long startOfDay = date.atStartOfDay(zone).toInstant().toEpochMilli();
+            entries.add(new Entry(task, ReminderEvent.Kind.DUE_TODAY, date, Math.max(startOfDay, now), endOfDay));
+        }
+        if (series != null && series.later.hasNext()) {
+            entries.get(entries.size() - 1).series = series;
+        }
+        return entries;
+    }
+
+    private void put(Task task, List<Entry> entries) {
+        if (entries.isEmpty()) {
+            generations.remove(task);
+            return;
+        }
+        int generation = ++nextGeneration;
+        generations.put(task, generation);
+        for (Entry entry : entries) {
+            entry.generation = generation;
+            queue.add(entry);
+        }
+    }
+
+    private boolean isLive(Entry entry) {
+        Integer generation = generations.get(entry.task);
+        return generation != null && generation == entry.generation;
+    }
+
+    // Drops stale entries once they outnumber the live ones.
+    private void compactIfNeeded() {
+        if (queue.size() > 2 * generations.size() + 64) {
+            queue.removeIf(entry -> !isLive(entry));
+        }
+    }
+
+    // Makes sure the timer wakes up for the earliest live entry.
+    private void rearm() {
+        while (!queue.isEmpty() && !isLive(queue.peek())) {
+            queue.poll();
+        }
+        if (queue.isEmpty()) {
+            return;
+        }
+        long nextAt = queue.peek().dueAtMillis;
+        if (wakeUp != null && wakeUpAtMillis <= nextAt) {
+            return;
+        }
+        if (wakeUp != null) {
+            wakeUp.cancel(false);
+        }
+        long delay = Math.min(Math.max(0, nextAt - System.currentTimeMillis()), MAX_SLEEP_MILLIS);
+        wakeUpAtMillis = System.currentTimeMillis() + delay;
+        if (!timer.isShutdown()) {
+            wakeUp = timer.schedule(this::fireDue, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Runs on the timer thread and delivers every live entry that is due.
+    private void fireDue() {
+        List<ReminderEvent> events = new ArrayList<>();
+        synchronized (this) {
+            wakeUp = null;
+            wakeUpAtMillis = Long.MAX_VALUE;
+            long now = System.currentTimeMillis();
+            while (!queue.isEmpty() && queue.peek().dueAtMillis <= now) {
+                Entry entry = queue.poll();
+                if (!isLive(entry)) {
+                    continue;
+                }
+                if (now < entry.expiresAtMillis) {
+                    events.add(new ReminderEvent(entry.task, entry.kind, entry.date));
+                }
+                if (entry.series != null) {
+                    Series series = entry.series;
+                    List<Entry> next = entriesOn(entry.task, series.later.next(), series.deadline,
+                            series.dueTime, series, now);
+                    for (Entry nextEntry : next) {
+                        nextEntry.generation = entry.generation;
+                        queue.add(nextEntry);
+                    }
+                }
+            }
+            rearm();
+        }
+        for (ReminderEvent event : events) {
+            deliveryExecutor.execute(() -> listener.accept(event));
+        }
+    }
+
+    // A pending reminder in the heap.
+    private static final class Entry implements Comparable<Entry> {
+        private final Task task;
+        private final ReminderEvent.Kind kind;
+        private final LocalDate date;
+        private final long dueAtMillis;
+        private final long expiresAtMillis;
+        private int generation;
+        // Set on the last entry of an occurrence of a recurring task
+        private Series series;
+
+        private Entry(Task task, ReminderEvent.Kind kind, LocalDate date, long dueAtMillis, long expiresAtMillis) {
+            this.task = task;
+            this.kind = kind;
+            this.date = date;
+            this.dueAtMillis = dueAtMillis;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            return Long.compare(dueAtMillis, other.dueAtMillis);
+        }
+    }
+
+    // The occurrences of a recurring task after the one that is queued, and how to remind of them.
+    private static final class Series {
+        private final Iterator<LocalDate> later;
+        private final boolean deadline;
+        private final LocalTime dueTime;
+
+        private Series(Iterator<LocalDate> later, boolean deadline, LocalTime dueTime) {
+            this.later = later;
+            this.deadline = deadline;
+            this.dueTime = dueTime;
+        }
+    }
+}
@@ -0,0 +1,489 @@
+package com.example.todo_list.util;
+
+import com.example.todo_list.HasDetails;
+import com.example.todo_list.Task;
+import com.example.todo_list.TaskService;
+import com.example.todo_list.TaskStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+// A search as typed into the search box, compiled once per edit into clauses that must all match.
+// Syntax (case-insensitive, clauses separated by spaces):
+//   word, "quoted phrase"   the description or details contain the text
+//   type:simple|detailed|deadline
+//   is:open|completed|done|pending|due|overdue
+//   due:2026-11-01, due:<2026-11-01 (also <=, >, >=), due:none   the reminder date;
+//                           today, tomorrow and yesterday can be used instead of a date
+//   -clause                 the clause must not match
+// Clauses that do not parse are left out and reported by getErrors(), so a half-typed clause
+// does not empty the list.
+//
+// Clauses are evaluated cheapest and most selective first. Text clauses can be answered by a
+// TaskSearchIndex, and type, status and reminder date clauses can be pushed down to H2 as a
+// TaskQuery (see pushDown). Status and relative dates are evaluated as of the time of parsing.
+public final class SearchQuery {
+    // Clauses in evaluation order
+    private final List<Clause> clauses;
+    private final List<String> errors;
+    private final LocalDate today;
+    private final LocalTime now;
+
+    private SearchQuery(List<Clause> clauses, List<String> errors, LocalDate today, LocalTime now) {
+        this.clauses = clauses;
+        this.errors = errors;
+        this.today = today;
+        this.now = now;
+    }
+
+    // Parses a search, evaluating status and relative dates as of now.
+    public static SearchQuery parse(String text) {
+        return parse(text, LocalDate.now(), LocalTime.now());
+    }
+
+    // Parses a search, evaluating status and relative dates as of the given date and time.
+    public static SearchQuery parse(String text, LocalDate today, LocalTime now) {
+        List<Clause> clauses = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            boolean negated = false;
+            if (text.charAt(i) == '-' && i + 1 < text.length() && !Character.isWhitespace(text.charAt(i + 1))) {
+                negated = true;
+                i++;
+            }
+            String token;
+            boolean quoted = text.charAt(i) == '"';
+            if (quoted) {
+                int end = text.indexOf('"', i + 1);
+                token = text.substring(i + 1, end >= 0 ? end : text.length());
+                i = end >= 0 ? end + 1 : text.length();
+            } else {
+                int start = i;
+                while (i < text.length() && !Character.isWhitespace(text.charAt(i))) {
+                    i++;
+                }
+                token = text.substring(start, i);
+            }
+            if (token.isEmpty()) {
+                continue;
+            }
+            try {
+                clauses.add(quoted ? new TextClause(negated, token) : parseClause(negated, token, today, now));
+            } catch (IllegalArgumentException e) {
+                errors.add(e.getMessage());
+            }
+        }
+        clauses.sort(Comparator.comparingDouble(Clause::rank));
+        return new SearchQuery(List.copyOf(clauses), List.copyOf(errors), today, now);
+    }
+
+    private static Clause parseClause(boolean negated, String token, LocalDate today, LocalTime now) {
+        int colon = token.indexOf(':');
+        String field = colon > 0 ? token.substring(0, colon).toLowerCase(Locale.ROOT) : "";
+        String value = colon > 0 ? token.substring(colon + 1) : token;
+        switch (field) {
+            case "type":
+                for (String type : TaskService.TASK_TYPES) {
+                    if (type.equalsIgnoreCase(value)) {
+                        return new TypeClause(negated, type);
+                    }
+                }
+                throw new IllegalArgumentException("Unknown type: " + value);
+            case "is":
+                return new StatusClause(negated, parseStatus(value), today, now);
+            case "due":
+                return parseDueClause(negated, value.toLowerCase(Locale.ROOT), today);
+            default:
+                // Not a known field (e.g., "10:30" or a URL), so plain text
+                return new TextClause(negated, token);
+        }
+    }
+
+    private static StatusClause.Kind parseStatus(String value) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "open":
+                return StatusClause.Kind.OPEN;
+            case "completed":
+            case "done":
+                return StatusClause.Kind.COMPLETED;
+            case "pending":
+                return StatusClause.Kind.PENDING;
+            case "due":
+                return StatusClause.Kind.DUE;
+            case "overdue":
+                return StatusClause.Kind.OVERDUE;
+            default:
+                throw new IllegalArgumentException("Unknown status: " + value);
+        }
+    }
+
+    private static DueClause parseDueClause(boolean negated, String value, LocalDate today) {
+        if (value.equals("none")) {
+            return new DueClause(negated, true, null, null);
+        }
+        String operator = value.startsWith("<=") || value.startsWith(">=") ? value.substring(0, 2)
+                : value.startsWith("<") || value.startsWith(">") ? value.substring(0, 1) : "";
+        LocalDate date = parseDate(value.substring(operator.length()), today);
+        switch (operator) {
+            case "<":
+                return new DueClause(negated, false, null, date.minusDays(1));
+            case "<=":
+                return new DueClause(negated, false, null, date);
+            case ">":
+                return new DueClause(negated, false, date.plusDays(1), null);
+            case ">=":
+                return new DueClause(negated, false, date, null);
+            default:
+                return new DueClause(negated, false, date, date);
+        }
+    }
+
+    private static LocalDate parseDate(String value, LocalDate today) {
+        switch (value) {
+            case "today":
+                return today;
+            case "tomorrow":
+                return today.plusDays(1);
+            case "yesterday":
+                return today.minusDays(1);
+            default:
+                try {
+                    return LocalDate.parse(value);
+                } catch (DateTimeParseException e) {
+                    throw new IllegalArgumentException("Invalid date: " + value + " (use yyyy-MM-dd)");
+                }
+        }
+    }
+
+    // Checks if the search has no valid clauses, so it matches every task.
+    public boolean isEmpty() {
+        return clauses.isEmpty();
+    }
+
+    // Gets the messages for the clauses that could not be parsed.
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    // Checks if a task matches all clauses. Text is matched against the index's copy of the
+    // task's text when an index is given, otherwise against the task itself.
+    public boolean matches(Task task, TaskSearchIndex index) {
+        for (Clause clause : clauses) {
+            if (!clause.matches(task, index)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Returns the tasks matching the search. When it has text clauses, the one with the fewest
+    // candidates in the index supplies the candidates and only those are checked; otherwise
+    // every task is checked.
+    public Set<Task> search(Collection<? extends Task> tasks, TaskSearchIndex index) {
+        Collection<? extends Task> candidates = tasks;
+        for (Clause clause : clauses) {
+            if (clause instanceof TextClause && !clause.negated) {
+                Set<Task> found = index.search(((TextClause) clause).text);
+                if (found.size() < candidates.size()) {
+                    candidates = found;
+                }
+                if (found.isEmpty()) {
+                    break;
+                }
+            }
+        }
+        return refine(candidates, index);
+    }
+
+    // Returns the tasks of a previous result that match this search.
+    public Set<Task> refine(Collection<? extends Task> previousResult, TaskSearchIndex index) {
+        Set<Task> result = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Task task : previousResult) {
+            if (matches(task, index)) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    // Checks if every task matching this search also matches the previous one, so refine() on
+    // the previous result gives the same answer as search(). True when each previous clause is
+    // repeated here, or is a text clause contained in a text clause here (the search box is
+    // typed into one character at a time).
+    public boolean narrows(SearchQuery previous) {
+        if (!today.equals(previous.today)) {
+            return false;
+        }
+        for (Clause old : previous.clauses) {
+            boolean implied = false;
+            for (Clause clause : clauses) {
+                if (clause.implies(old)) {
+                    implied = true;
+                    break;
+                }
+            }
+            if (!implied) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Adds the type, status and reminder date clauses of this search to a database query, so H2
+    // reads fewer rows. Filters the query already has are kept. The rows read still have to be
+    // checked with matches(), as text and negated clauses are not pushed down.
+    public TaskQuery pushDown(TaskQuery query) {
+        LocalDate from = null;
+        LocalDate to = null;
+        boolean hasRange = false;
+        for (Clause clause : clauses) {
+            if (clause.negated) {
+                continue;
+            }
+            if (clause instanceof TypeClause && !query.hasType()) {
+                query = query.ofType(((TypeClause) clause).type);
+            } else if (clause instanceof StatusClause) {
+                query = ((StatusClause) clause).pushDown(query);
+            } else if (clause instanceof DueClause && !((DueClause) clause).none) {
+                DueClause due = (DueClause) clause;
+                from = due.from == null || from != null && from.isAfter(due.from) ? from : due.from;
+                to = due.to == null || to != null && to.isBefore(due.to) ? to : due.to;
+                hasRange = true;
+            }
+        }
+        if (hasRange && !query.hasReminderRange()) {
+            query = query.withReminderBetween(from, to);
+        }
+        return query;
+    }
+
+    // A condition on a task, possibly negated.
+    private abstract static class Clause {
+        final boolean negated;
+
+        Clause(boolean negated) {
+            this.negated = negated;
+        }
+
+        boolean matches(Task task, TaskSearchIndex index) {
+            return test(task, index) != negated;
+        }
+
+        abstract boolean test(Task task, TaskSearchIndex index);
+
+        // Relative cost of one test
+        abstract double cost();
+
+        // Estimated fraction of tasks for which test() is true
+        abstract double selectivity();
+
+        // Evaluation order: a clause that is cheap and rejects many tasks goes first
+        double rank() {
+            double passing = negated ? 1 - selectivity() : selectivity();
+            return cost() / Math.max(0.01, 1 - passing);
+        }
+
+        // Checks if every task this clause matches also matches the other clause.
+        boolean implies(Clause other) {
+            return getClass() == other.getClass() && negated == other.negated && sameCondition(other);
+        }
+
+        abstract boolean sameCondition(Clause other);
+    }
+
+    private static final class TextClause extends Clause {
+        private final String text;
+
+        TextClause(boolean negated, String text) {
+            super(negated);
+            this.text = text.toLowerCase(Locale.ROOT);
+        }
+
+        @Override
+        boolean test(Task task, TaskSearchIndex index) {
+            if (index != null) {
+                return index.matches(task, text);
+            }
+            if (task.getDescription() != null && task.getDescription().toLowerCase(Locale.ROOT).contains(text)) {
+                return true;
+            }
+            String details = task instanceof HasDetails ? ((HasDetails) task).getDetails() : null;
+            return details != null && details.toLowerCase(Locale.ROOT).contains(text);
+        }
+
+        @Override
+        double cost() {
+            return 4;
+        }
+
+        @Override
+        double selectivity() {
+            // Longer text matches fewer tasks
+            return Math.min(0.5, 1.0 / text.length());
+        }
+
+        @Override
+        boolean implies(Clause other) {
+            if (!(other instanceof TextClause) || negated != other.negated) {
+                return false;
+            }
+            String otherText = ((TextClause) other).text;
+            // Containing a longer text implies containing its parts; not containing a shorter one
+            // implies not containing anything that includes it
+            return negated ? otherText.contains(text) : text.contains(otherText);
+        }
+
+        @Override
+        boolean sameCondition(Clause other) {
+            return text.equals(((TextClause) other).text);
+        }
+    }
+
+    private static final class TypeClause extends Clause {
+        private final String type;
+
+        TypeClause(boolean negated, String type) {
+            super(negated);
+            this.type = type;
+        }
+
+        @Override
+        boolean test(Task task, TaskSearchIndex index) {
+            return type.equals(task.getType());
+        }
+
+        @Override
+        double cost() {
+            return 1;
+        }
+
+        @Override
+        double selectivity() {
+            return 1.0 / TaskService.TASK_TYPES.size();
+        }
+
+        @Override
+        boolean sameCondition(Clause other) {
+            return type.equals(((TypeClause) other).type);
+        }
+    }
+
+    private static final class StatusClause extends Clause {
+        enum Kind { OPEN, COMPLETED, PENDING, DUE, OVERDUE }
+
+        private final Kind kind;
+        private final LocalDate today;
+        private final LocalTime now;
+
+        StatusClause(boolean negated, Kind kind, LocalDate today, LocalTime now) {
+            super(negated);
+            this.kind = kind;
+            this.today = today;
+            this.now = now;
+        }
+
+        @Override
+        boolean test(Task task, TaskSearchIndex index) {
+            switch (kind) {
+                case OPEN:
+                    return !task.isCompleted();
+                case COMPLETED:
+                    return task.isCompleted();
+                default:
+                    return TaskStatus.of(task, today, now) == TaskStatus.valueOf(kind.name());
+            }
+        }
+
+        // Adds this status to the query, unless it already filters on the same column.
+        TaskQuery pushDown(TaskQuery query) {
+            switch (kind) {
+                case OPEN:
+                case COMPLETED:
+                    return query.hasCompleted() ? query : query.withCompleted(kind == Kind.COMPLETED);
+                default:
+                    return query.hasStatus() ? query : query.withStatus(TaskStatus.valueOf(kind.name()), today, now);
+            }
+        }
+
+        @Override
+        double cost() {
+            return kind == Kind.OPEN || kind == Kind.COMPLETED ? 1 : 2;
+        }
+
+        @Override
+        double selectivity() {
+            switch (kind) {
+                case OPEN:
+                    return 0.7;
+                case COMPLETED:
+                    return 0.3;
+                case OVERDUE:
+                    return 0.05;
+                default:
+                    return 0.3;
+            }
+        }
+
+        @Override
+        boolean sameCondition(Clause other) {
+            return kind == ((StatusClause) other).kind;
+        }
+    }
+
+    // Reminder date between from and to, inclusive (either may be open), or no reminder date.
+    private static final class DueClause extends Clause {
+        private final boolean none;
+        private final LocalDate from;
+        private final LocalDate to;
+
+        DueClause(boolean negated, boolean none, LocalDate from, LocalDate to) {
+            super(negated);
+            this.none = none;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        boolean test(Task task, TaskSearchIndex index) {
+            LocalDate date = task.getReminderDate();
+            if (none || date == null) {
+                return none && date == null;
+            }
+            return (from == null || !date.isBefore(from)) && (to == null || !date.isAfter(to));
+        }
+
+        @Override
+        double cost() {
+            return 1;
+        }
+
+        @Override
+        double selectivity() {
+            if (none) {
+                return 0.3;
+            }
+            return from != null && to != null ? 0.1 : 0.5;
+        }
+
+        @Override
+        boolean sameCondition(Clause other) {
+            DueClause due = (DueClause) other;
+            return none == due.none && Objects.equals(from, due.from) && Objects.equals(to, due.to);
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package com.example.todo_list.util;
+
+import com.example.todo_list.HasDueTime;
+import com.example.todo_list.Task;
+import com.example.todo_list.TaskSection;
+import com.example.todo_list.TaskService;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.TransformationList;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+// A sorted, optionally grouped view of a task list, kept in order incrementally.
+// Each task's sort key (group, then a number or collation key for the sort order, then the order
+// in which the view first saw the task) is computed once when the task is added or changed, so
+// comparisons during a binary search are cheap. An added, removed or changed task is placed by a
+// binary search: O(log n) comparisons plus one array shift, instead of the full sort a
+// SortedList does on every update. Large batches (e.g. a page of loaded tasks) are sorted on
+// their own and merged in one pass.
+//
+// Changed tasks are picked up through the source list's update events (see TaskRenderCache),
+// and a task that moves is reported as a permutation, so it stays selected. Group and order
+// keys that depend on the clock are refreshed by refresh(Task) and refreshAll().
+// Must be used on the JavaFX Application Thread.
+public class SortedTaskView extends TransformationList<Task, Task> {
+    // Batches at least this large are merged instead of inserted one by one
+    private static final int MERGE_THRESHOLD = 16;
+
+    // Orders in which the tasks can be shown.
+    public enum Order {
+        ADDED("Added"),
+        DUE("Due"),
+        TYPE("Type"),
+        COMPLETION("Completion"),
+        DESCRIPTION("Description");
+
+        private final String label;
+
+        Order(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    // Ways of grouping the tasks into sections.
+    public enum Grouping {
+        NONE("None"),
+        SCHEDULE("Schedule"),
+        TYPE("Type");
+
+        private final String label;
+
+        Grouping(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    private static final Comparator<Entry> ENTRY_ORDER = SortedTaskView::compare;
+
+    private List<Entry> entries = new ArrayList<>();
+    private final Map<Task, Entry> entriesByTask = new IdentityHashMap<>();
+    // Sequence numbers of tasks seen so far, kept while a search filters them out so they come
+    // back in their old place (tasks use identity equality)
+    private final Map<Task, Long> sequences = new WeakHashMap<>();
+    private final Collator collator = Collator.getInstance();
+    private Order order = Order.ADDED;
+    private Grouping grouping = Grouping.NONE;
+    private long nextSequence;
+
+    // Creates a view of the source list in the order the tasks were added, without groups.
+    public SortedTaskView(ObservableList<Task> source) {
+        super(source);
+        collator.setStrength(Collator.SECONDARY);
+        LocalDateTime now = LocalDateTime.now();
+        for (Task task : source) {
+            Entry entry = new Entry(task, sequenceOf(task));
+            computeKey(entry, now);
+            entries.add(entry);
+            entriesByTask.put(task, entry);
+        }
+    }
+
+    // Gets the sort order.
+    public Order getOrder() {
+        return order;
+    }
+
+    // Sorts the tasks in another order.
+    public void setOrder(Order order) {
+        if (order != this.order) {
+            this.order = order;
+            refreshAll();
+        }
+    }
+
+    // Gets the grouping.
+    public Grouping getGrouping() {
+        return grouping;
+    }
+
+    // Groups the tasks in another way.
+    public void setGrouping(Grouping grouping) {
+        if (grouping != this.grouping) {
+            this.grouping = grouping;
+            refreshAll();
+        }
+    }
+
+    // Returns the heading of the section the task at the given index belongs to, or null when the
+    // tasks are not grouped.
+    public String getSection(int index) {
+        Entry entry = entries.get(index);
+        switch (grouping) {
+            case SCHEDULE:
+                return TaskSection.values()[entry.group].toString();
+            case TYPE:
+                return entry.group < TaskService.TASK_TYPES.size() ? TaskService.TASK_TYPES.get(entry.group) : "Other";
+            default:
+                return null;
+        }
+    }
+
+    // Checks if the task at the given index is the first of its section, so a heading goes above it.
+    public boolean startsSection(int index) {
+        return grouping != Grouping.NONE && (index == 0 || entries.get(index - 1).group != entries.get(index).group);
+    }
+
+    // Recomputes the key of one task, e.g. when its section changed with the time of day, and
+    // moves it if needed.
+    public void refresh(Task task) {
+        Entry entry = entriesByTask.get(task);
+        if (entry != null) {
+            reposition(entry, LocalDateTime.now());
+        }
+    }
+
+    // Recomputes the keys of all tasks and sorts them again, e.g. after midnight or when the order
+    // changes. The change is reported as one permutation.
+    public void refreshAll() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Entry entry : entries) {
+            computeKey(entry, now);
+        }
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(ENTRY_ORDER);
+        Map<Entry, Integer> newIndexes = new IdentityHashMap<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            newIndexes.put(sorted.get(i), i);
+        }
+        int[] permutation = new int[entries.size()];
+        for (int i = 0; i < permutation.length; i++) {
+            permutation[i] = newIndexes.get(entries.get(i));
+        }
+        entries = sorted;
+        if (!sorted.isEmpty()) {
+            beginChange();
+            nextPermutation(0, permutation.length, permutation);
+            endChange();
+        }
+    }
+
+    @Override
+    protected void sourceChanged(ListChangeListener.Change<? extends Task> c) {
+        LocalDateTime now = LocalDateTime.now();
+        while (c.next()) {
+            if (c.wasPermutated()) {
+                // The order of the source does not matter here
+                continue;
+            }
+            if (c.wasUpdated()) {
+                for (int i = c.getFrom(); i < c.getTo(); i++) {
+                    Entry entry = entriesByTask.get(c.getList().get(i));
+                    if (entry != null) {
+                        reposition(entry, now);
+                    }
+                }
+                continue;
+            }
+            beginChange();
+            if (c.wasRemoved()) {
+                removeAll(c.getRemoved());
+            }
+            if (c.wasAdded()) {
+                addAll(c.getAddedSubList(), now);
+            }
+            endChange();
+        }
+    }
+
+    private void removeAll(List<? extends Task> removed) {
+        if (removed.size() < MERGE_THRESHOLD) {
+            for (Task task : removed) {
+                Entry entry = entriesByTask.remove(task);
+                if (entry != null) {
+                    int index = indexOf(entry);
+                    entries.remove(index);
+                    nextRemove(index, task);
+                }
+            }
+            return;
+        }
+        for (Task task : removed) {
+            Entry entry = entriesByTask.remove(task);
+            if (entry != null) {
+                entry.removed = true;
+            }
+        }
+        // One pass over the list; indexes are reported as they are after the earlier removals
+        List<Entry> kept = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            if (entry.removed) {
+                nextRemove(kept.size(), entry.task);
+            } else {
+                kept.add(entry);
+            }
+        }
+        entries = kept;
+    }
+
+    private void addAll(List<? extends Task> added, LocalDateTime now) {
+        List<Entry> newEntries = new ArrayList<>(added.size());
+        for (Task task : added) {
+            Entry entry = new Entry(task, sequenceOf(task));
+            computeKey(entry, now);
+            entriesByTask.put(task, entry);
+            newEntries.add(entry);
+        }
+        if (newEntries.size() < MERGE_THRESHOLD) {
+            for (Entry entry : newEntries) {
+                int index = -Collections.binarySearch(entries, entry, ENTRY_ORDER) - 1;
+                entries.add(index, entry);
+                nextAdd(index, index + 1);
+            }
+            return;
+        }
+        newEntries.sort(ENTRY_ORDER);
+        List<Entry> merged = new ArrayList<>(entries.size() + newEntries.size());
+        int i = 0;
+        for (Entry entry : newEntries) {
+            while (i < entries.size() && compare(entries.get(i), entry) < 0) {
+                merged.add(entries.get(i++));
+            }
+            nextAdd(merged.size(), merged.size() + 1);
+            merged.add(entry);
+        }
+        merged.addAll(entries.subList(i, entries.size()));
+        entries = merged;
+    }
+
+    // Recomputes the key of a task and, if its place changed, moves it there as a permutation of
+    // the range between its old and new index. Either way its index is reported as updated.
+    private void reposition(Entry entry, LocalDateTime now) {
+        int oldIndex = indexOf(entry);
+        computeKey(entry, now);
+        int newIndex = oldIndex;
+        // Most edits do not change the order, so check the neighbours before moving anything
+        boolean inPlace = (oldIndex == 0 || compare(entries.get(oldIndex - 1), entry) < 0)
+                && (oldIndex == entries.size() - 1 || compare(entry, entries.get(oldIndex + 1)) < 0);
+        if (!inPlace) {
+            entries.remove(oldIndex);
+            newIndex = -Collections.binarySearch(entries, entry, ENTRY_ORDER) - 1;
+            entries.add(newIndex, entry);
+        }
+        beginChange();
+        if (newIndex != oldIndex) {
+            int from = Math.min(oldIndex, newIndex);
+            int to = Math.max(oldIndex, newIndex) + 1;
+            int[] permutation = new int[to - from];
+            for (int i = from; i < to; i++) {
+                if (i == oldIndex) {
+                    permutation[i - from] = newIndex;
+                } else {
+                    permutation[i - from] = oldIndex < newIndex ? i - 1 : i + 1;
+                }
+            }
+            nextPermutation(from, to, permutation);
+        }
+        endChange();
+        beginChange();
+        nextUpdate(newIndex);
+        endChange();
+    }
+
+    private long sequenceOf(Task task) {
+        return sequences.computeIfAbsent(task, t -> nextSequence++);
+    }
+
+    // Finds the current index of an entry by its key; keys are unique through the sequence number.
+    private int indexOf(Entry entry) {
+        return Collections.binarySearch(entries, entry, ENTRY_ORDER);
+    }
+
+    private void computeKey(Entry entry, LocalDateTime now) {
+        Task task = entry.task;
+        switch (grouping) {
+            case SCHEDULE:
+                entry.group = TaskSection.of(task, now.toLocalDate(), now.toLocalTime()).ordinal();
+                break;
+            case TYPE:
+                entry.group = typeIndex(task);
+                break;
+            default:
+                entry.group = 0;
+                break;
+        }
+        entry.text = null;
+        switch (order) {
+            case DUE:
+                entry.number = dueKey(task);
+                break;
+            case TYPE:
+                entry.number = typeIndex(task);
+                break;
+            case COMPLETION:
+                entry.number = task.isCompleted() ? 1 : 0;
+                break;
+            case DESCRIPTION:
+                entry.number = 0;
+                entry.text = collator.getCollationKey(task.getDescription());
+                break;
+            default:
+                entry.number = 0;
+                break;
+        }
+    }
+
+    // Seconds since the epoch day 0 at which the task is due: its due time, or the end of its
+    // reminder date. Tasks without a reminder date come last.
+    private static long dueKey(Task task) {
+        LocalDate reminderDate = task.getReminderDate();
+        if (reminderDate == null) {
+            return Long.MAX_VALUE;
+        }
+        LocalTime dueTime = task instanceof HasDueTime ? ((HasDueTime) task).getDueTime() : null;
+        return reminderDate.toEpochDay() * 86_400 + (dueTime != null ? dueTime.toSecondOfDay() : 86_399);
+    }
+
+    // Position of the task's type in TaskService.TASK_TYPES; unknown types come last.
+    private static int typeIndex(Task task) {
+        int index = TaskService.TASK_TYPES.indexOf(task.getType());
+        return index >= 0 ? index : TaskService.TASK_TYPES.size();
+    }
+
+    private static int compare(Entry a, Entry b) {
+        if (a.group != b.group) {
+            return Integer.compare(a.group, b.group);
+        }
+        if (a.number != b.number) {
+            return Long.compare(a.number, b.number);
+        }
+        if (a.text != null && b.text != null) {
+            int byText = a.text.compareTo(b.text);
+            if (byText != 0) {
+                return byText;
+            }
+        }
+        return Long.compare(a.sequence, b.sequence);
+    }
+
+    @Override
+    public Task get(int index) {
+        return entries.get(index).task;
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    // Linear in the size of the source; ListView does not call it.
+    @Override
+    public int getSourceIndex(int index) {
+        Task task = get(index);
+        List<? extends Task> source = getSource();
+        for (int i = 0; i < source.size(); i++) {
+            if (source.get(i) == task) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int getViewIndex(int index) {
+        Entry entry = entriesByTask.get(getSource().get(index));
+        return entry != null ? indexOf(entry) : -1;
+    }
+
+    // A task with its precomputed sort key.
+    private static final class Entry {
+        private final Task task;
+        // Order in which the view first saw the task; breaks ties
+        private final long sequence;
+        private int group;
+        private long number;
+        private CollationKey text;
+        private boolean removed;
+
+        private Entry(Task task, long sequence) {
+            this.task = task;
+            this.sequence = sequence;
+        }
+    }
+}
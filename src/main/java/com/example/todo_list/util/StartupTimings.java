@@ -0,0 +1,49 @@
+package com.example.todo_list.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Records how long the startup phases take, measured from the start of the JVM process.
+// Each phase is logged once when it is first marked, so time-to-first-frame can be tracked.
+// Logging can be turned off with -Dtodo_list.logStartup=false.
+public final class StartupTimings {
+    private static final boolean LOG = Boolean.parseBoolean(System.getProperty("todo_list.logStartup", "true"));
+    private static final Instant PROCESS_START = ProcessHandle.current().info().startInstant()
+            .orElseGet(Instant::now);
+
+    // Phase name to milliseconds since process start, in the order the phases were reached
+    private static final Map<String, Long> timings = new LinkedHashMap<>();
+    private static long lastMillis;
+
+    // Private constructor to prevent instantiation.
+    private StartupTimings() {}
+
+    // Records that a startup phase has been reached. Later marks of the same phase are ignored.
+    // May be called from any thread.
+    public static void mark(String phase) {
+        long millis = Duration.between(PROCESS_START, Instant.now()).toMillis();
+        long sincePrevious;
+        synchronized (timings) {
+            if (timings.containsKey(phase)) {
+                return;
+            }
+            timings.put(phase, millis);
+            sincePrevious = millis - lastMillis;
+            lastMillis = Math.max(lastMillis, millis);
+        }
+        if (LOG) {
+            System.out.printf("Startup: %-22s %6d ms (+%d ms) [%s]%n",
+                    phase, millis, sincePrevious, Thread.currentThread().getName());
+        }
+    }
+
+    // Returns the phases reached so far with their time since process start in milliseconds.
+    public static Map<String, Long> getTimings() {
+        synchronized (timings) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(timings));
+        }
+    }
+}
@@ -0,0 +1,607 @@
+package com.example.todo_list.util;
+
+import com.example.todo_list.Task;
+import com.example.todo_list.TaskRecord;
+import com.example.todo_list.TaskService;
+import com.example.todo_list.TaskStatus;
+import com.example.todo_list.exception.InvalidTaskInputException;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Local JSON HTTP API over the tasks shown in the application, on the JDK's built-in HTTP server.
+// Only listens on the loopback interface.
+//
+// Every request needs the header "Authorization: Bearer <token>", with a token made up for each
+// run and written to api-token-<port> in the database directory, readable by the user only. Web
+// pages cannot read that file, and requests whose Host is not a loopback name (DNS rebinding) or
+// that carry another Origin are refused as well. POST and PUT need Content-Type application/json,
+// which browsers never send cross-origin without a preflight this server does not answer.
+//
+//   GET    /api/tasks[?status=pending|due|overdue|completed][&search=text]   all matching tasks
+//   GET    /api/tasks/{id}
+//   POST   /api/tasks                 body: {"type":..,"description":..,"details":..,"reminderDate":..,"dueTime":..,
+//                                            "recurrence":..}
+//   PUT    /api/tasks/{id}            same body; a missing type or recurrence keeps the current one
+//   POST   /api/tasks/{id}/complete   completes the current occurrence of a recurring task
+//   DELETE /api/tasks/{id}
+//
+// Reads are served from an immutable snapshot of the task list, taken on the FX thread only after
+// the list has changed (see tasksChanged), so frequent polling neither touches the database nor
+// the FX thread. Responses carry an ETag of the snapshot version, prefixed with a random epoch so
+// tags from an earlier run never match, and If-None-Match is answered with 304. Lists are written
+// to the response as they are formatted, in chunks. Mutations run on the FX thread through
+// TaskService, with the same validation as the UI. POST /api/tasks is answered with 503 while task
+// ids are still being reserved (e.g., during startup), as the response carries the new id.
+// Requests are handled on virtual threads when the JDK has them (21+), otherwise on a small pool.
+public class TaskApiServer {
+    private static final String BASE_PATH = "/api/tasks";
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final int FALLBACK_THREADS = 8;
+    private static final long FX_TIMEOUT_MILLIS = 10_000;
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final String[] LOOPBACK_HOSTS = {"localhost", "127.0.0.1", "[::1]"};
+
+    // The task list behind the API. Called on the FX thread only.
+    public interface TaskStore {
+        // Returns the live task list.
+        List<Task> getTasks();
+
+        // Returns the task with the given id, or null.
+        Task find(int id);
+
+        // Checks if a task added now is given its id at once.
+        boolean canAssignId();
+
+        // Adds a new task to the list.
+        void add(Task task);
+
+        // Replaces a task with a task of another type.
+        void replace(Task oldTask, Task newTask);
+
+        // Saves a task that was changed in place.
+        void changed(Task task);
+
+        // Saves a task that was just marked as complete.
+        void completed(Task task);
+
+        // Removes a task from the list.
+        void remove(Task task);
+    }
+
+    private final HttpServer server;
+    private final ExecutorService requestExecutor;
+    private final TaskService taskService;
+    private final Executor fxExecutor;
+    private final TaskStore store;
+    private final JsonLinesTaskFormat json = new JsonLinesTaskFormat();
+    private final byte[] token;
+    private final Path tokenFile;
+    // Incremented on every change of the task list; the version of a snapshot is its ETag
+    private final AtomicLong version = new AtomicLong();
+    // Differs between runs, whose versions all start at 0
+    private final String epoch;
+    private volatile Snapshot snapshot;
+    // Guarded by this; shared by requests that arrive while a snapshot is being taken
+    private CompletableFuture<Snapshot> pendingSnapshot;
+
+    // Creates a server for the given loopback port (0 picks a free port). fxExecutor runs work on
+    // the thread that owns the tasks (e.g., Platform::runLater).
+    public TaskApiServer(int port, TaskService taskService, Executor fxExecutor, TaskStore store) throws IOException {
+        this.taskService = taskService;
+        this.fxExecutor = fxExecutor;
+        this.store = store;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        SecureRandom random = new SecureRandom();
+        byte[] secret = new byte[32];
+        random.nextBytes(secret);
+        this.token = Base64.getUrlEncoder().withoutPadding().encode(secret);
+        this.epoch = Long.toHexString(random.nextLong());
+        this.tokenFile = DatabaseManager.getDatabaseDirectory().toPath().resolve("api-token-" + getPort());
+        this.requestExecutor = newRequestExecutor();
+        server.setExecutor(requestExecutor);
+        server.createContext(BASE_PATH, this::handle);
+    }
+
+    // Writes the token file and starts accepting requests.
+    public void start() throws IOException {
+        Files.createDirectories(tokenFile.getParent());
+        Files.deleteIfExists(tokenFile);
+        try {
+            Files.createFile(tokenFile, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } catch (UnsupportedOperationException e) {
+            // Not a POSIX file system; the file gets the permissions of the user's directory
+            Files.createFile(tokenFile);
+        }
+        Files.write(tokenFile, token);
+        server.start();
+        System.out.println("Task API: http://" + server.getAddress().getHostString() + ":" + getPort() + BASE_PATH
+                + " (token in " + tokenFile + ")");
+    }
+
+    // Returns the token requests must carry.
+    public String getToken() {
+        return new String(token, StandardCharsets.US_ASCII);
+    }
+
+    // Returns the port the server listens on.
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // Tells the server that tasks were added, removed or changed. May be called from any thread.
+    public void tasksChanged() {
+        version.incrementAndGet();
+    }
+
+    // Stops the server, waiting up to a second for running requests.
+    public void stop() {
+        server.stop(1);
+        requestExecutor.shutdownNow();
+        try {
+            Files.deleteIfExists(tokenFile);
+        } catch (IOException e) {
+            System.err.println("Failed to delete " + tokenFile + ": " + e.getMessage());
+        }
+    }
+
+    // One executor thread per request on JDK 21+; looked up reflectively, as the code targets 17.
+    private static ExecutorService newRequestExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(FALLBACK_THREADS, r -> {
+                Thread thread = new Thread(r, "task-api");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!isAllowed(exchange)) {
+                return;
+            }
+            String path = exchange.getRequestURI().getPath().substring(BASE_PATH.length());
+            if (!path.isEmpty() && !path.startsWith("/")) {
+                sendError(exchange, 404, "Not found.");
+                return;
+            }
+            String[] parts = path.split("/");
+            // parts[0] is empty; parts[1] is the id and parts[2] an action, if present
+            String method = exchange.getRequestMethod();
+            if (parts.length <= 1) {
+                if (method.equals("GET")) {
+                    listTasks(exchange);
+                } else if (method.equals("POST")) {
+                    createTask(exchange);
+                } else {
+                    sendError(exchange, 405, "Method not allowed.");
+                }
+                return;
+            }
+            int id;
+            try {
+                id = Integer.parseInt(parts[1]);
+            } catch (NumberFormatException e) {
+                sendError(exchange, 404, "Not found.");
+                return;
+            }
+            if (parts.length == 2 && method.equals("GET")) {
+                getTask(exchange, id);
+            } else if (parts.length == 2 && method.equals("PUT")) {
+                updateTask(exchange, id);
+            } else if (parts.length == 2 && method.equals("DELETE")) {
+                deleteTask(exchange, id);
+            } else if (parts.length == 3 && parts[2].equals("complete") && method.equals("POST")) {
+                completeTask(exchange, id);
+            } else if (parts.length == 2 || (parts.length == 3 && parts[2].equals("complete"))) {
+                sendError(exchange, 405, "Method not allowed.");
+            } else {
+                sendError(exchange, 404, "Not found.");
+            }
+        } catch (InvalidTaskInputException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (TimeoutException e) {
+            sendError(exchange, 503, "The application is busy.");
+        } catch (RuntimeException e) {
+            System.err.println("Task API request failed: " + e);
+            sendError(exchange, 500, "Internal error.");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // Answers requests that may come from a web page or lack the token, and returns false for them.
+    private boolean isAllowed(HttpExchange exchange) throws IOException {
+        Headers headers = exchange.getRequestHeaders();
+        String host = headers.getFirst("Host");
+        String origin = headers.getFirst("Origin");
+        if (host == null || !isLoopbackAuthority(host)
+                || (origin != null && !(origin.startsWith("http://") && isLoopbackAuthority(origin.substring(7))))) {
+            sendError(exchange, 403, "Forbidden.");
+            return false;
+        }
+        String authorization = headers.getFirst("Authorization");
+        if (authorization == null || !authorization.startsWith("Bearer ") || !MessageDigest.isEqual(token,
+                authorization.substring(7).trim().getBytes(StandardCharsets.US_ASCII))) {
+            exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+            sendError(exchange, 401, "Missing or wrong API token.");
+            return false;
+        }
+        String method = exchange.getRequestMethod();
+        if (method.equals("POST") || method.equals("PUT")) {
+            String contentType = headers.getFirst("Content-Type");
+            String mediaType = contentType != null ? contentType.split(";", 2)[0].trim() : "";
+            if (!mediaType.equalsIgnoreCase("application/json")) {
+                sendError(exchange, 415, "Content-Type must be application/json.");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Checks that a Host header, or the host and port of an Origin, name this server by a loopback name.
+    private boolean isLoopbackAuthority(String authority) {
+        String normalized = authority.toLowerCase(Locale.ROOT);
+        for (String host : LOOPBACK_HOSTS) {
+            if (normalized.equals(host + ":" + getPort()) || (getPort() == 80 && normalized.equals(host))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Streams the matching tasks of the current snapshot as a JSON array.
+    private void listTasks(HttpExchange exchange) throws IOException, TimeoutException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI());
+        TaskStatus status = null;
+        if (query.containsKey("status")) {
+            try {
+                status = TaskStatus.valueOf(query.get("status").toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidTaskInputException("Unknown status: " + query.get("status"));
+            }
+        }
+        String search = query.containsKey("search") ? query.get("search").toLowerCase(Locale.ROOT) : null;
+
+        Snapshot current = currentSnapshot();
+        LocalDateTime now = LocalDateTime.now();
+        // Statuses change at most once a minute (due times are HH:mm, dates change at midnight),
+        // so a status filter makes the result depend on the minute as well
+        String etag = status == null
+                ? "\"" + epoch + "-" + current.version + "\""
+                : "\"" + epoch + "-" + current.version + "-" + now.truncatedTo(ChronoUnit.MINUTES).toString() + "\"";
+        if (notModified(exchange, etag)) {
+            return;
+        }
+
+        LocalDate today = now.toLocalDate();
+        LocalTime time = now.toLocalTime();
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", "application/json; charset=utf-8");
+        headers.set("ETag", etag);
+        exchange.sendResponseHeaders(200, 0);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8),
+                BUFFER_SIZE)) {
+            out.write('[');
+            boolean first = true;
+            for (TaskRecord record : current.records) {
+                if (status != null && TaskStatus.of(record, today, time) != status) {
+                    continue;
+                }
+                if (search != null && !matches(record, search)) {
+                    continue;
+                }
+                if (!first) {
+                    out.write(",\n");
+                }
+                first = false;
+                out.write(toJson(record));
+            }
+            out.write("]\n");
+        }
+    }
+
+    private void getTask(HttpExchange exchange, int id) throws IOException, TimeoutException {
+        Snapshot current = currentSnapshot();
+        TaskRecord record = current.find(id);
+        if (record == null) {
+            sendError(exchange, 404, "Task " + id + " not found.");
+            return;
+        }
+        String etag = "\"" + epoch + "-" + current.version + "\"";
+        if (!notModified(exchange, etag)) {
+            exchange.getResponseHeaders().set("ETag", etag);
+            sendJson(exchange, 200, toJson(record));
+        }
+    }
+
+    private void createTask(HttpExchange exchange) throws IOException, TimeoutException {
+        TaskRecord input = readBody(exchange);
+        TaskRecord created = onFxThread(() -> {
+            if (!store.canAssignId()) {
+                return null;
+            }
+            Task task = taskService.createTask(input.getType(), input.getDescription(), input.getDetails(),
+                    input.getReminderDate(), DateTimeUtil.formatTime(input.getDueTime()), repeatText(input));
+            store.add(task);
+            return TaskRecord.of(task);
+        });
+        if (created == null) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            sendError(exchange, 503, "Task ids are not available yet. Try again shortly.");
+            return;
+        }
+        exchange.getResponseHeaders().set("Location", BASE_PATH + "/" + created.getId());
+        sendJson(exchange, 201, toJson(created));
+    }
+
+    private void updateTask(HttpExchange exchange, int id) throws IOException, TimeoutException {
+        TaskRecord input = readBody(exchange);
+        TaskRecord updated = onFxThread(() -> {
+            Task task = store.find(id);
+            if (task == null) {
+                return null;
+            }
+            String type = input.getType() != null ? input.getType() : task.getType();
+            Task result = taskService.updateTask(task, type, input.getDescription(), input.getDetails(),
+                    input.getReminderDate(), DateTimeUtil.formatTime(input.getDueTime()), repeatText(input));
+            if (result != task) {
+                store.replace(task, result);
+            } else {
+                store.changed(task);
+            }
+            return TaskRecord.of(result);
+        });
+        if (updated == null) {
+            sendError(exchange, 404, "Task " + id + " not found.");
+        } else {
+            sendJson(exchange, 200, toJson(updated));
+        }
+    }
+
+    private void completeTask(HttpExchange exchange, int id) throws IOException, TimeoutException {
+        TaskRecord completed = onFxThread(() -> {
+            Task task = store.find(id);
+            if (task == null) {
+                return null;
+            }
+            if (taskService.completeTask(task)) {
+                if (task.isCompleted()) {
+                    store.completed(task);
+                } else {
+                    // Only the current occurrence of a recurring task
+                    store.changed(task);
+                }
+            }
+            return TaskRecord.of(task);
+        });
+        if (completed == null) {
+            sendError(exchange, 404, "Task " + id + " not found.");
+        } else {
+            sendJson(exchange, 200, toJson(completed));
+        }
+    }
+
+    // The repeat rule of a request body as TaskService takes it; null leaves the rule of a task as it is.
+    private static String repeatText(TaskRecord input) {
+        return input.getRecurrence() != null ? input.getRecurrence().toString() : null;
+    }
+
+    private void deleteTask(HttpExchange exchange, int id) throws IOException, TimeoutException {
+        boolean deleted = onFxThread(() -> {
+            Task task = store.find(id);
+            if (task == null) {
+                return false;
+            }
+            store.remove(task);
+            return true;
+        });
+        if (deleted) {
+            exchange.sendResponseHeaders(204, -1);
+        } else {
+            sendError(exchange, 404, "Task " + id + " not found.");
+        }
+    }
+
+    // Returns a snapshot of the current version, taking a new one on the FX thread if the list changed.
+    private Snapshot currentSnapshot() throws TimeoutException {
+        Snapshot current = snapshot;
+        if (current != null && current.version == version.get()) {
+            return current;
+        }
+        CompletableFuture<Snapshot> future;
+        boolean started = false;
+        synchronized (this) {
+            if (pendingSnapshot == null) {
+                pendingSnapshot = new CompletableFuture<>();
+                started = true;
+            }
+            future = pendingSnapshot;
+        }
+        if (started) {
+            CompletableFuture<Snapshot> taking = future;
+            CompletableFuture.supplyAsync(this::takeSnapshot, fxExecutor).whenComplete((taken, error) -> {
+                if (taken != null) {
+                    snapshot = taken;
+                }
+                synchronized (this) {
+                    pendingSnapshot = null;
+                }
+                if (error != null) {
+                    taking.completeExceptionally(error);
+                } else {
+                    taking.complete(taken);
+                }
+            });
+        }
+        return await(future);
+    }
+
+    // Runs on the FX thread, where the list and its version cannot change meanwhile.
+    private Snapshot takeSnapshot() {
+        List<Task> tasks = store.getTasks();
+        List<TaskRecord> records = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            records.add(TaskRecord.of(task));
+        }
+        return new Snapshot(version.get(), records);
+    }
+
+    private <T> T onFxThread(Supplier<T> work) throws TimeoutException {
+        return await(CompletableFuture.supplyAsync(work, fxExecutor));
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws TimeoutException {
+        try {
+            return future.get(FX_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private TaskRecord readBody(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                body.write(buffer, 0, read);
+                if (body.size() > MAX_BODY_BYTES) {
+                    throw new InvalidTaskInputException("Request body is too large.");
+                }
+            }
+        }
+        return json.parse(body.toString(StandardCharsets.UTF_8));
+    }
+
+    private static boolean notModified(HttpExchange exchange, String etag) throws IOException {
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch == null || !(ifNoneMatch.equals(etag) || ifNoneMatch.equals("W/" + etag))) {
+            return false;
+        }
+        exchange.getResponseHeaders().set("ETag", etag);
+        exchange.sendResponseHeaders(304, -1);
+        return true;
+    }
+
+    private static boolean matches(TaskRecord record, String search) {
+        return record.getDescription().toLowerCase(Locale.ROOT).contains(search)
+                || (record.getDetails() != null && record.getDetails().toLowerCase(Locale.ROOT).contains(search));
+    }
+
+    // The JSON Lines object of the record with its id in front.
+    private String toJson(TaskRecord record) {
+        return "{\"id\":" + record.getId() + "," + json.format(record).substring(1);
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = (body + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringBuilder sb = new StringBuilder("{\"error\":\"");
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c >= ' ') {
+                sb.append(c);
+            }
+        }
+        sendJson(exchange, status, sb.append("\"}").toString());
+    }
+
+    private static Map<String, String> parseQuery(URI uri) {
+        String rawQuery = uri.getRawQuery();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> params = new HashMap<>();
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq >= 0 ? pair.substring(0, eq) : pair;
+            String value = eq >= 0 ? pair.substring(eq + 1) : "";
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    // The task list at one version, shared by all requests until the list changes.
+    private static final class Snapshot {
+        private final long version;
+        private final List<TaskRecord> records;
+        // Record index by id, built when a single task is first asked for
+        private volatile Map<Integer, TaskRecord> byId;
+
+        private Snapshot(long version, List<TaskRecord> records) {
+            this.version = version;
+            this.records = records;
+        }
+
+        private TaskRecord find(int id) {
+            Map<Integer, TaskRecord> index = byId;
+            if (index == null) {
+                index = new HashMap<>(records.size() * 2);
+                for (TaskRecord record : records) {
+                    index.put(record.getId(), record);
+                }
+                byId = index;
+            }
+            return index.get(id);
+        }
+    }
+}
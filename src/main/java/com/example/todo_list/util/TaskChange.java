@@ -0,0 +1,99 @@
+package com.example.todo_list.util;
+
+import com.example.todo_list.CompletedOccurrences;
+import com.example.todo_list.TaskRecord;
+
+// A mutation of a single task: an add, update or completion with the snapshot to write, or a delete.
+public final class TaskChange {
+
+    // The kinds of task mutations.
+    public enum Operation {
+        ADD,
+        UPDATE,
+        COMPLETE,
+        DELETE
+    }
+
+    private final Operation operation;
+    private final int taskId;
+    private final int version;
+    private final TaskRecord record;
+
+    private TaskChange(Operation operation, int taskId, int version, TaskRecord record) {
+        this.operation = operation;
+        this.taskId = taskId;
+        this.version = version;
+        this.record = record;
+    }
+
+    // Creates a change that adds a new task. The record must carry the task's id.
+    public static TaskChange add(TaskRecord record) {
+        return new TaskChange(Operation.ADD, record.getId(), record.getVersion(), record);
+    }
+
+    // Creates a change that updates a stored task.
+    public static TaskChange update(TaskRecord record) {
+        return new TaskChange(Operation.UPDATE, record.getId(), record.getVersion(), record);
+    }
+
+    // Creates a change that marks a stored task as completed.
+    public static TaskChange complete(TaskRecord record) {
+        return new TaskChange(Operation.COMPLETE, record.getId(), record.getVersion(), record);
+    }
+
+    // Creates a change that deletes the task with the given id, last read at the given row version.
+    public static TaskChange delete(int taskId, int version) {
+        return new TaskChange(Operation.DELETE, taskId, version, null);
+    }
+
+    // Returns the one change that has the effect of this change followed by a later change to the
+    // same task. An add followed by an update is still an add, as the row may not exist yet.
+    // Completed occurrences of a recurring task are merged, since each change only carries those
+    // from its own start date on.
+    public TaskChange then(TaskChange later) {
+        if (later.isDelete() || record == null) {
+            return later;
+        }
+        TaskRecord merged = later.record;
+        CompletedOccurrences completed = CompletedOccurrences.merge(
+                record.getCompletedOccurrences(), merged.getCompletedOccurrences());
+        if (completed != merged.getCompletedOccurrences()) {
+            merged = merged.withCompletedOccurrences(completed);
+        }
+        if (operation == Operation.ADD) {
+            return add(merged);
+        }
+        return new TaskChange(later.operation, later.taskId, later.version, merged);
+    }
+
+    // Gets the kind of mutation.
+    public Operation getOperation() {
+        return operation;
+    }
+
+    // Gets the id of the task this change applies to.
+    public int getTaskId() {
+        return taskId;
+    }
+
+    // Gets the row version the change was made against: the version of the stored row the
+    // task was last read from, which must still be stored for the change to apply.
+    public int getVersion() {
+        return version;
+    }
+
+    // Returns the same change made against another row version.
+    public TaskChange withVersion(int version) {
+        return new TaskChange(operation, taskId, version, record != null ? record.withVersion(version) : null);
+    }
+
+    // Gets the snapshot to write, or null for a delete.
+    public TaskRecord getRecord() {
+        return record;
+    }
+
+    // Checks if this change deletes the task.
+    public boolean isDelete() {
+        return operation == Operation.DELETE;
+    }
+}
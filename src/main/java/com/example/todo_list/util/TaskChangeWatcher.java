@@ -0,0 +1,100 @@
+package com.example.todo_list.util;
+
+import com.example.todo_list.TaskRecord;
+import com.example.todo_list.exception.DataPersistenceException;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Picks up tasks written by other processes sharing the database (see DatabaseManager.isSharedMode()).
+// Polls the change_log table on a background thread, reads the current rows of the tasks
+// changed since the last poll and hands them to a consumer on the delivery executor. A task id
+// mapped to null has been deleted. Also keeps change_log small by deleting old entries.
+public class TaskChangeWatcher {
+    private static final int PAGE_SIZE = 1000;
+    // Entries kept for processes that poll less often than this one
+    private static final long KEPT_ENTRIES = 10_000;
+
+    private final long pollMillis;
+    private final Executor deliveryExecutor;
+    private final Consumer<Map<Integer, TaskRecord>> consumer;
+    private final ScheduledExecutorService executor;
+    // Position of the last change_log entry seen; only used on the background thread. Entries
+    // commit in seq order (see DatabaseManager.lockChangeLog), so none can appear below it later.
+    private long lastSeq = -1;
+    private long prunedThrough;
+    private boolean failureReported;
+
+    // Creates a watcher that polls every pollMillis and calls consumer on deliveryExecutor
+    // (e.g., Platform::runLater).
+    public TaskChangeWatcher(long pollMillis, Executor deliveryExecutor, Consumer<Map<Integer, TaskRecord>> consumer) {
+        this.pollMillis = pollMillis;
+        this.deliveryExecutor = deliveryExecutor;
+        this.consumer = consumer;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "task-change-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Starts watching once databaseReady completes. Only changes made after that are reported.
+    public void start(CompletableFuture<?> databaseReady) {
+        executor.execute(() -> {
+            try {
+                databaseReady.join();
+                lastSeq = DatabaseManager.getLatestChangeSeq();
+                prunedThrough = lastSeq;
+            } catch (CompletionException | DataPersistenceException e) {
+                System.err.println("Not watching for changes by other processes: " + e.getMessage());
+                return;
+            }
+            executor.scheduleWithFixedDelay(this::poll, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    // Stops polling.
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private void poll() {
+        try {
+            Set<Integer> ids = new LinkedHashSet<>();
+            long seq;
+            do {
+                seq = DatabaseManager.loadChangedTaskIds(lastSeq, PAGE_SIZE, ids);
+                lastSeq = seq;
+            } while (ids.size() % PAGE_SIZE == 0 && !ids.isEmpty() && ids.size() < 10 * PAGE_SIZE);
+            if (!ids.isEmpty()) {
+                Map<Integer, TaskRecord> stored = DatabaseManager.loadTasksById(ids);
+                Map<Integer, TaskRecord> changes = new HashMap<>();
+                for (Integer id : ids) {
+                    changes.put(id, stored.get(id));
+                }
+                Metrics.count("changeLog.tasksReloaded", changes.size());
+                deliveryExecutor.execute(() -> consumer.accept(changes));
+            }
+            if (seq - prunedThrough > 2 * KEPT_ENTRIES) {
+                prunedThrough = seq - KEPT_ENTRIES;
+                DatabaseManager.deleteChangesThrough(prunedThrough);
+            }
+            failureReported = false;
+        } catch (DataPersistenceException e) {
+            // Retried on the next poll; only the first failure in a row is logged
+            if (!failureReported) {
+                System.err.println("Failed to check for changes by other processes: " + e.getMessage());
+                failureReported = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.todo_list.util;
+
+import com.example.todo_list.TaskStatus;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+// Filters on stored tasks that DatabaseManager.queryTasks() and countTasks(TaskQuery) hand to H2
+// as a parameterized WHERE clause, so only matching rows are read. Status and reminder filters
+// are ranges on the (completed, reminder_date, due_time) index, the type filter uses the type index.
+// Immutable: each method returns a copy with one more filter.
+public final class TaskQuery {
+    private static final TaskQuery ALL = new TaskQuery(0, null, null, null, null, null, null, null);
+
+    private final int listId;
+    private final String type;
+    private final Boolean completed;
+    private final TaskStatus status;
+    private final LocalDate today;
+    private final LocalTime now;
+    private final LocalDate reminderFrom;
+    private final LocalDate reminderTo;
+
+    private TaskQuery(int listId, String type, Boolean completed, TaskStatus status, LocalDate today, LocalTime now,
+                      LocalDate reminderFrom, LocalDate reminderTo) {
+        this.listId = listId;
+        this.type = type;
+        this.completed = completed;
+        this.status = status;
+        this.today = today;
+        this.now = now;
+        this.reminderFrom = reminderFrom;
+        this.reminderTo = reminderTo;
+    }
+
+    // A query matching every stored task.
+    public static TaskQuery all() {
+        return ALL;
+    }
+
+    // Only tasks of the given list.
+    public TaskQuery inList(int listId) {
+        return new TaskQuery(listId, type, completed, status, today, now, reminderFrom, reminderTo);
+    }
+
+    // Only tasks of the given type (e.g., "Deadline").
+    public TaskQuery ofType(String type) {
+        return new TaskQuery(listId, type, completed, status, today, now, reminderFrom, reminderTo);
+    }
+
+    // Only completed or only incomplete tasks.
+    public TaskQuery withCompleted(boolean completed) {
+        return new TaskQuery(listId, type, completed, status, today, now, reminderFrom, reminderTo);
+    }
+
+    // Only tasks that TaskStatus.of() classifies as the given status at today and now.
+    public TaskQuery withStatus(TaskStatus status, LocalDate today, LocalTime now) {
+        return new TaskQuery(listId, type, completed, status, today, now, reminderFrom, reminderTo);
+    }
+
+    // Only tasks with a reminder date between from and to, inclusive. Either end may be null
+    // for an open range.
+    public TaskQuery withReminderBetween(LocalDate from, LocalDate to) {
+        return new TaskQuery(listId, type, completed, status, today, now, from, to);
+    }
+
+    // Checks which filters are set, so SearchQuery.pushDown() does not replace them.
+    boolean hasType() {
+        return type != null;
+    }
+
+    boolean hasCompleted() {
+        return completed != null;
+    }
+
+    boolean hasStatus() {
+        return status != null;
+    }
+
+    boolean hasReminderRange() {
+        return reminderFrom != null || reminderTo != null;
+    }
+
+    // Appends the conditions of this query to a WHERE clause that already has at least one
+    // condition, adding the values of its parameters in order.
+    void appendConditions(StringBuilder sql, List<Object> parameters) {
+        if (listId != 0) {
+            sql.append(" AND list_id = ?");
+            parameters.add(listId);
+        }
+        if (type != null) {
+            sql.append(" AND type = ?");
+            parameters.add(type);
+        }
+        if (completed != null) {
+            sql.append(" AND completed = ?");
+            parameters.add(completed);
+        }
+        if (status != null) {
+            // Same rules as TaskStatus.of()
+            switch (status) {
+                case COMPLETED:
+                    sql.append(" AND completed = TRUE");
+                    break;
+                case PENDING:
+                    sql.append(" AND completed = FALSE AND (reminder_date IS NULL OR reminder_date > ?)");
+                    parameters.add(today);
+                    break;
+                case OVERDUE:
+                    sql.append(" AND completed = FALSE AND reminder_date = ? AND due_time < ?");
+                    parameters.add(today);
+                    parameters.add(now);
+                    break;
+                case DUE:
+                    sql.append(" AND completed = FALSE AND reminder_date <= ?"
+                            + " AND (reminder_date < ? OR due_time IS NULL OR due_time >= ?)");
+                    parameters.add(today);
+                    parameters.add(today);
+                    parameters.add(now);
+                    break;
+            }
+        }
+        if (reminderFrom != null) {
+            sql.append(" AND reminder_date >= ?");
+            parameters.add(reminderFrom);
+        }
+        if (reminderTo != null) {
+            sql.append(" AND reminder_date <= ?");
+            parameters.add(reminderTo);
+        }
+    }
+}
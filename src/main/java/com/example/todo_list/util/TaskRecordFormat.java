@@ -0,0 +1,40 @@
+package com.example.todo_list.util;
+
+import com.example.todo_list.TaskRecord;
+import com.example.todo_list.exception.InvalidTaskInputException;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+// A line-oriented text format for task records, used for bulk import and export.
+public interface TaskRecordFormat {
+
+    // Returns the header line written before the first record, or null if the format has none.
+    String getHeader();
+
+    // Checks if the first line of a file is a header line rather than a record.
+    default boolean isHeader(String line) {
+        return getHeader() != null && line.trim().equalsIgnoreCase(getHeader());
+    }
+
+    // Formats a record as a single line (without line terminator).
+    String format(TaskRecord record);
+
+    // Checks if the text read so far forms a complete record, or continues on the next line.
+    boolean isRecordComplete(String text);
+
+    // Parses one record. Throws InvalidTaskInputException for malformed input.
+    TaskRecord parse(String text) throws InvalidTaskInputException;
+
+    // Picks the format from the file extension (.csv or .jsonl).
+    static TaskRecordFormat forFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return new CsvTaskFormat();
+        }
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            return new JsonLinesTaskFormat();
+        }
+        throw new InvalidTaskInputException("Unsupported file type: " + file.getFileName() + " (use .csv or .jsonl)");
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.todo_list.util;
+
+import com.example.todo_list.Task;
+import com.example.todo_list.TaskStatus;
+import javafx.animation.PauseTransition;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.util.Duration;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Caches what a task cell shows: the display text and the TaskStatus.
+// Both are computed the first time a cell asks for them and kept until the task is invalidated or,
+// for the status, until the next instant at which it can change (see TaskStatus.nextChange).
+// A timer wakes up at the earliest such instant and re-checks only the tasks whose status expired.
+//
+// Each cached task is an Observable for the task list's extractor, so invalidating a task sends an
+// update event for its index and only the cell showing it is redrawn.
+// Must be used on the JavaFX Application Thread.
+public class TaskRenderCache {
+    private final Map<Task, Entry> entries = new IdentityHashMap<>();
+    // Status expiry times of cached entries; stale when the entry was recomputed or removed since
+    private final PriorityQueue<Expiry> expiries = new PriorityQueue<>();
+    private final PauseTransition timer = new PauseTransition();
+    private long timerAtMillis = Long.MAX_VALUE;
+
+    // Creates an empty cache.
+    public TaskRenderCache() {
+        timer.setOnFinished(e -> {
+            timerAtMillis = Long.MAX_VALUE;
+            expireStatuses();
+        });
+    }
+
+    // Returns the observable that is invalidated whenever the rendering of the task changes.
+    // Meant as the extractor of the task list: FXCollections.observableArrayList(cache::observe).
+    public Observable[] observe(Task task) {
+        return new Observable[] {entryOf(task)};
+    }
+
+    // Gets the display text of the task.
+    public String getText(Task task) {
+        Entry entry = entryOf(task);
+        if (entry.text == null) {
+            entry.text = task.toString();
+        }
+        return entry.text;
+    }
+
+    // Gets the current status of the task.
+    public TaskStatus getStatus(Task task) {
+        Entry entry = entryOf(task);
+        if (entry.status == null) {
+            computeStatus(entry, LocalDateTime.now());
+        }
+        return entry.status;
+    }
+
+    // Drops the cached text and status of a changed task and redraws its cell.
+    public void invalidate(Task task) {
+        Entry entry = entries.get(task);
+        if (entry != null) {
+            entry.text = null;
+            entry.status = null;
+            entry.statusExpiresAtMillis = Long.MAX_VALUE;
+            entry.fireInvalidated();
+        }
+    }
+
+    // Re-checks the status of every cached task, e.g. after the clock jumped.
+    public void invalidateStatuses() {
+        List<Entry> all = new ArrayList<>(entries.values());
+        for (Entry entry : all) {
+            if (entry.status != null) {
+                entry.status = null;
+                entry.statusExpiresAtMillis = Long.MAX_VALUE;
+                entry.fireInvalidated();
+            }
+        }
+    }
+
+    // Forgets a task that left the list.
+    public void remove(Task task) {
+        entries.remove(task);
+    }
+
+    // Returns the number of cached tasks.
+    public int size() {
+        return entries.size();
+    }
+
+    // Stops the status timer.
+    public void stop() {
+        timer.stop();
+    }
+
+    private Entry entryOf(Task task) {
+        return entries.computeIfAbsent(task, Entry::new);
+    }
+
+    private void computeStatus(Entry entry, LocalDateTime now) {
+        entry.status = TaskStatus.of(entry.task, now.toLocalDate(), now.toLocalTime());
+        LocalDateTime nextChange = TaskStatus.nextChange(entry.task, now);
+        if (nextChange == null) {
+            entry.statusExpiresAtMillis = Long.MAX_VALUE;
+            return;
+        }
+        entry.statusExpiresAtMillis = nextChange.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        expiries.add(new Expiry(entry, entry.statusExpiresAtMillis));
+        armTimer();
+    }
+
+    // Recomputes the statuses that have expired and redraws the cells whose status changed.
+    private void expireStatuses() {
+        long nowMillis = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        while (!expiries.isEmpty() && expiries.peek().atMillis <= nowMillis) {
+            Expiry expiry = expiries.poll();
+            Entry entry = expiry.entry;
+            if (entry.statusExpiresAtMillis != expiry.atMillis || entries.get(entry.task) != entry) {
+                continue;
+            }
+            TaskStatus previous = entry.status;
+            computeStatus(entry, now);
+            if (entry.status != previous) {
+                entry.fireInvalidated();
+            }
+        }
+        armTimer();
+    }
+
+    private void armTimer() {
+        while (!expiries.isEmpty() && isStale(expiries.peek())) {
+            expiries.poll();
+        }
+        if (expiries.isEmpty()) {
+            return;
+        }
+        long nextAt = expiries.peek().atMillis;
+        if (nextAt >= timerAtMillis) {
+            return;
+        }
+        timerAtMillis = nextAt;
+        timer.stop();
+        // Wake up a little late rather than early, so the status has changed by then
+        timer.setDuration(Duration.millis(Math.max(0, nextAt - System.currentTimeMillis()) + 5));
+        timer.playFromStart();
+    }
+
+    private boolean isStale(Expiry expiry) {
+        return expiry.entry.statusExpiresAtMillis != expiry.atMillis || entries.get(expiry.entry.task) != expiry.entry;
+    }
+
+    // Cached rendering of one task. Also the Observable the task list listens to.
+    private static final class Entry implements Observable {
+        private final Task task;
+        private String text;
+        private TaskStatus status;
+        private long statusExpiresAtMillis = Long.MAX_VALUE;
+        // The list's extractor adds one listener per list the task is in; usually one
+        private Object listeners;
+
+        private Entry(Task task) {
+            this.task = task;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void addListener(InvalidationListener listener) {
+            if (listeners == null) {
+                listeners = listener;
+            } else if (listeners instanceof List) {
+                ((List<InvalidationListener>) listeners).add(listener);
+            } else {
+                List<InvalidationListener> list = new ArrayList<>(2);
+                list.add((InvalidationListener) listeners);
+                list.add(listener);
+                listeners = list;
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void removeListener(InvalidationListener listener) {
+            if (listeners == listener) {
+                listeners = null;
+            } else if (listeners instanceof List) {
+                ((List<InvalidationListener>) listeners).remove(listener);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void fireInvalidated() {
+            if (listeners instanceof InvalidationListener) {
+                ((InvalidationListener) listeners).invalidated(this);
+            } else if (listeners instanceof List) {
+                for (InvalidationListener listener : new ArrayList<>((List<InvalidationListener>) listeners)) {
+                    listener.invalidated(this);
+                }
+            }
+        }
+    }
+
+    // A status expiry in the timer queue.
+    private static final class Expiry implements Comparable<Expiry> {
+        private final Entry entry;
+        private final long atMillis;
+
+        private Expiry(Entry entry, long atMillis) {
+            this.entry = entry;
+            this.atMillis = atMillis;
+        }
+
+        @Override
+        public int compareTo(Expiry other) {
+            return Long.compare(atMillis, other.atMillis);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.todo_list.util;
+
+import com.example.todo_list.HasDetails;
+import com.example.todo_list.Task;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// In-memory trigram index over task descriptions and details for substring search.
+// Each task's lower-case text is kept once, and every trigram of it maps to the tasks that contain it.
+// A query of three or more characters only looks at the tasks of its rarest trigram.
+public class TaskSearchIndex {
+    private static final int GRAM_LENGTH = 3;
+    // Separates description and details so a query never matches across the two
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private final Map<Long, Set<Task>> postings = new HashMap<>();
+    private final Map<Task, String> indexedText = new IdentityHashMap<>();
+
+    // Adds a task to the index.
+    public void add(Task task) {
+        String text = textOf(task);
+        indexedText.put(task, text);
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            postings.computeIfAbsent(gramAt(text, i), k -> newTaskSet()).add(task);
+        }
+    }
+
+    // Removes a task from the index.
+    public void remove(Task task) {
+        String text = indexedText.remove(task);
+        if (text == null) {
+            return;
+        }
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            long gram = gramAt(text, i);
+            Set<Task> tasks = postings.get(gram);
+            if (tasks != null) {
+                tasks.remove(task);
+                if (tasks.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    // Re-indexes a task after its description or details changed.
+    public void update(Task task) {
+        String text = textOf(task);
+        if (!text.equals(indexedText.get(task))) {
+            remove(task);
+            add(task);
+        }
+    }
+
+    // Removes all tasks from the index.
+    public void clear() {
+        postings.clear();
+        indexedText.clear();
+    }
+
+    // Returns the number of indexed tasks.
+    public int size() {
+        return indexedText.size();
+    }
+
+    // Returns the indexed tasks whose description or details contain the query, ignoring case.
+    // The query must already be in lower case.
+    public Set<Task> search(String lowerCaseQuery) {
+        Set<Task> result = newTaskSet();
+        if (lowerCaseQuery.length() < GRAM_LENGTH) {
+            // Too short for trigrams; scan the cached lower-case texts
+            for (Map.Entry<Task, String> entry : indexedText.entrySet()) {
+                if (entry.getValue().contains(lowerCaseQuery)) {
+                    result.add(entry.getKey());
+                }
+            }
+            return result;
+        }
+
+        Set<Task> smallest = null;
+        for (int i = 0; i + GRAM_LENGTH <= lowerCaseQuery.length(); i++) {
+            Set<Task> tasks = postings.get(gramAt(lowerCaseQuery, i));
+            if (tasks == null) {
+                return result;
+            }
+            if (smallest == null || tasks.size() < smallest.size()) {
+                smallest = tasks;
+            }
+        }
+        // Trigrams may occur at different positions, so confirm each candidate
+        for (Task task : smallest) {
+            if (indexedText.get(task).contains(lowerCaseQuery)) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    // Narrows a previous search result to the tasks that also contain a longer query.
+    public Set<Task> refine(Set<Task> previousResult, String lowerCaseQuery) {
+        Set<Task> result = newTaskSet();
+        for (Task task : previousResult) {
+            if (matches(task, lowerCaseQuery)) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    // Checks if an indexed task contains the lower-case query.
+    public boolean matches(Task task, String lowerCaseQuery) {
+        String text = indexedText.get(task);
+        return text != null && text.contains(lowerCaseQuery);
+    }
+
+    private static String textOf(Task task) {
+        String description = task.getDescription() != null ? task.getDescription() : "";
+        if (task instanceof HasDetails && ((HasDetails) task).getDetails() != null) {
+            return (description + FIELD_SEPARATOR + ((HasDetails) task).getDetails()).toLowerCase(Locale.ROOT);
+        }
+        return description.toLowerCase(Locale.ROOT);
+    }
+
+    // Packs three UTF-16 chars into one key.
+    private static long gramAt(String text, int index) {
+        return ((long) text.charAt(index) << 32) | ((long) text.charAt(index + 1) << 16) | text.charAt(index + 2);
+    }
+
+    private static Set<Task> newTaskSet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.todo_list.util;
+
+import com.example.todo_list.Task;
+import com.example.todo_list.TaskStatus;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.NumberBinding;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+// Running task counters, updated per added, removed or changed task instead of by scanning the list.
+// Counts are exposed as JavaFX properties so labels can bind to them. Must be used on the FX thread.
+public class TaskStatistics {
+    private final Map<Task, TaskStatus> statusByTask = new IdentityHashMap<>();
+    private final Map<TaskStatus, ReadOnlyIntegerWrapper> statusCounts = new EnumMap<>(TaskStatus.class);
+    private final Map<String, ReadOnlyIntegerWrapper> typeCounts = new HashMap<>();
+    private final ReadOnlyIntegerWrapper total = new ReadOnlyIntegerWrapper(0);
+    private final NumberBinding pending;
+
+    // Constructs empty statistics.
+    public TaskStatistics() {
+        for (TaskStatus status : TaskStatus.values()) {
+            statusCounts.put(status, new ReadOnlyIntegerWrapper(0));
+        }
+        pending = Bindings.subtract(total, statusCounts.get(TaskStatus.COMPLETED));
+    }
+
+    // Counts a newly added task.
+    public void add(Task task) {
+        TaskStatus status = TaskStatus.of(task, LocalDate.now(), LocalTime.now());
+        if (statusByTask.put(task, status) != null) {
+            return;
+        }
+        increment(statusCounts.get(status), 1);
+        increment(typeCount(task.getType()), 1);
+        increment(total, 1);
+    }
+
+    // Stops counting a removed task.
+    public void remove(Task task) {
+        TaskStatus status = statusByTask.remove(task);
+        if (status == null) {
+            return;
+        }
+        increment(statusCounts.get(status), -1);
+        increment(typeCount(task.getType()), -1);
+        increment(total, -1);
+    }
+
+    // Re-classifies a task after it changed or one of its status boundaries (e.g., the due time) passed.
+    public void refresh(Task task) {
+        refresh(task, LocalDate.now(), LocalTime.now());
+    }
+
+    // Re-classifies all tasks. Used when the date changes.
+    public void refreshAll() {
+        LocalDate today = LocalDate.now();
+        LocalTime now = LocalTime.now();
+        for (Task task : statusByTask.keySet()) {
+            refresh(task, today, now);
+        }
+    }
+
+    // Total number of tasks.
+    public ReadOnlyIntegerProperty totalProperty() {
+        return total.getReadOnlyProperty();
+    }
+
+    // Number of completed tasks.
+    public ReadOnlyIntegerProperty completedProperty() {
+        return statusCounts.get(TaskStatus.COMPLETED).getReadOnlyProperty();
+    }
+
+    // Number of tasks that are not completed.
+    public NumberBinding pendingProperty() {
+        return pending;
+    }
+
+    // Number of tasks with the given status.
+    public ReadOnlyIntegerProperty statusCountProperty(TaskStatus status) {
+        return statusCounts.get(status).getReadOnlyProperty();
+    }
+
+    // Number of tasks of the given type (e.g., "Simple").
+    public ReadOnlyIntegerProperty typeCountProperty(String type) {
+        return typeCount(type).getReadOnlyProperty();
+    }
+
+    private void refresh(Task task, LocalDate today, LocalTime now) {
+        TaskStatus oldStatus = statusByTask.get(task);
+        if (oldStatus == null) {
+            return;
+        }
+        TaskStatus newStatus = TaskStatus.of(task, today, now);
+        if (newStatus != oldStatus) {
+            statusByTask.put(task, newStatus);
+            increment(statusCounts.get(oldStatus), -1);
+            increment(statusCounts.get(newStatus), 1);
+        }
+    }
+
+    private ReadOnlyIntegerWrapper typeCount(String type) {
+        return typeCounts.computeIfAbsent(type, t -> new ReadOnlyIntegerWrapper(0));
+    }
+
+    private static void increment(ReadOnlyIntegerWrapper counter, int delta) {
+        counter.set(counter.get() + delta);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.todo_list.util;
+
+import com.example.todo_list.Task;
+import com.example.todo_list.TaskRecord;
+import com.example.todo_list.exception.DataPersistenceException;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Loads the tasks table, or the tasks of one list, in id-ordered pages on a background thread.
+// Pages are handed to the JavaFX Application Thread as they arrive; pages that arrive while the
+// FX thread is busy are merged into a single Platform.runLater call.
+public class TaskStreamLoader {
+    private final int firstPageSize;
+    private final int pageSize;
+    private final CompletableFuture<?> databaseReady;
+    private final Consumer<List<Task>> chunkConsumer;
+    private final Consumer<DataPersistenceException> errorHandler;
+    private Function<TaskRecord, ? extends Task> taskFactory = TaskRecord::toTask;
+    // The list to load, or 0 for all lists
+    private int listId;
+
+    private final ConcurrentLinkedQueue<List<Task>> readyChunks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final ReadOnlyDoubleWrapper progress = new ReadOnlyDoubleWrapper(0);
+    private final ReadOnlyBooleanWrapper running = new ReadOnlyBooleanWrapper(false);
+    private volatile boolean cancelled;
+    private volatile boolean finished;
+    private volatile boolean failed;
+    private int totalTasks;
+    private int deliveredTasks;
+
+    // Creates a loader that starts reading once databaseReady completes (e.g., after journal replay).
+    // The first page is kept small so the first screen appears quickly;
+    // chunkConsumer and errorHandler are called on the FX thread.
+    public TaskStreamLoader(int firstPageSize, int pageSize, CompletableFuture<?> databaseReady,
+                            Consumer<List<Task>> chunkConsumer, Consumer<DataPersistenceException> errorHandler) {
+        this.firstPageSize = firstPageSize;
+        this.pageSize = pageSize;
+        this.databaseReady = databaseReady;
+        this.chunkConsumer = chunkConsumer;
+        this.errorHandler = errorHandler;
+    }
+
+    // Sets how loaded rows are turned into tasks (e.g., ColumnarTaskStore::add). Called on the
+    // loader thread; must be set before start().
+    public void setTaskFactory(Function<TaskRecord, ? extends Task> taskFactory) {
+        this.taskFactory = taskFactory;
+    }
+
+    // Restricts loading to the tasks of one list. Must be set before start().
+    public void setListId(int listId) {
+        this.listId = listId;
+    }
+
+    // Starts loading on a new background thread. Must be called on the FX thread.
+    public void start() {
+        running.set(true);
+        Thread thread = new Thread(this::load, "task-stream-loader");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Stops loading after the current page. Tasks already delivered stay in place.
+    // Must be called on the FX thread.
+    public void cancel() {
+        cancelled = true;
+        readyChunks.clear();
+        running.set(false);
+    }
+
+    // Checks if cancel() has been called.
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // Checks if loading has finished and every task was delivered, i.e. it was neither cancelled
+    // nor stopped by an error.
+    public boolean isComplete() {
+        return finished && !cancelled && !failed && readyChunks.isEmpty();
+    }
+
+    // Fraction of tasks delivered so far, from 0 to 1.
+    public ReadOnlyDoubleProperty progressProperty() {
+        return progress.getReadOnlyProperty();
+    }
+
+    // True while the loader has tasks left to deliver.
+    public ReadOnlyBooleanProperty runningProperty() {
+        return running.getReadOnlyProperty();
+    }
+
+    private void load() {
+        try {
+            databaseReady.join();
+        } catch (CompletionException e) {
+            // Load whatever the table holds; the failure is reported by whoever owns the future
+        }
+        try {
+            // Rows inserted after this point are already in memory, so stop at the current max id
+            int maxId = DatabaseManager.getMaxTaskId();
+            totalTasks = listId != 0 ? DatabaseManager.countTasks(listId) : DatabaseManager.countTasks();
+            int afterId = 0;
+            int limit = firstPageSize;
+            while (!cancelled) {
+                List<Task> page = new ArrayList<>(limit);
+                int lastId = listId != 0
+                        ? DatabaseManager.loadTasksPage(listId, afterId, maxId, limit, taskFactory, page)
+                        : DatabaseManager.loadTasksPage(afterId, maxId, limit, taskFactory, page);
+                if (lastId == 0) {
+                    break;
+                }
+                if (!page.isEmpty()) {
+                    readyChunks.add(page);
+                    scheduleDrain();
+                }
+                afterId = lastId;
+                limit = pageSize;
+            }
+        } catch (DataPersistenceException e) {
+            failed = true;
+            Platform.runLater(() -> errorHandler.accept(e));
+        } finally {
+            finished = true;
+            scheduleDrain();
+        }
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::drain);
+        }
+    }
+
+    // Runs on the FX thread and delivers everything that has arrived since the last drain.
+    private void drain() {
+        drainScheduled.set(false);
+        boolean done = finished;
+        List<Task> batch = null;
+        List<Task> chunk;
+        while ((chunk = readyChunks.poll()) != null) {
+            if (batch == null) {
+                batch = chunk;
+            } else {
+                batch.addAll(chunk);
+            }
+        }
+        if (batch != null && !cancelled) {
+            deliveredTasks += batch.size();
+            chunkConsumer.accept(batch);
+            progress.set(totalTasks == 0 ? 1 : Math.min(1, (double) deliveredTasks / totalTasks));
+        }
+        if (done || cancelled) {
+            progress.set(1);
+            running.set(false);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.todo_list.util;
+
+import com.example.todo_list.Task;
+import com.example.todo_list.TaskRecord;
+import com.example.todo_list.TaskService;
+import com.example.todo_list.exception.DataPersistenceException;
+import com.example.todo_list.exception.InvalidTaskInputException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Streaming bulk import and export of tasks in CSV or JSON Lines format.
+// Rows are read and written through buffered file channels and committed in fixed-size
+// batches, so memory use does not depend on the file or table size.
+public final class TaskTransfer {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int IMPORT_BATCH_SIZE = 1000;
+    private static final int EXPORT_PAGE_SIZE = 5000;
+    private static final int MAX_REPORTED_ERRORS = 20;
+    // Longest record read before its closing quote is taken to be missing: both text columns at
+    // their limit with every character a doubled quote, plus the other columns
+    private static final int MAX_RECORD_LENGTH =
+            2 * (TaskService.MAX_DESCRIPTION_LENGTH + TaskService.MAX_DETAILS_LENGTH) + 1024;
+
+    // Private constructor to prevent instantiation of utility class.
+    private TaskTransfer() {}
+
+    // Writes all stored tasks to the file, in the format given by its extension.
+    public static TransferResult exportTasks(Path file) throws DataPersistenceException {
+        TaskRecordFormat format = TaskRecordFormat.forFile(file);
+        long start = System.nanoTime();
+        long rows = 0;
+        try (Writer writer = openWriter(file)) {
+            if (format.getHeader() != null) {
+                writer.write(format.getHeader());
+                writer.write('\n');
+            }
+            int maxId = DatabaseManager.getMaxTaskId();
+            int afterId = 0;
+            List<Task> page = new ArrayList<>(EXPORT_PAGE_SIZE);
+            while (true) {
+                page.clear();
+                int lastId = DatabaseManager.loadTasksPage(afterId, maxId, EXPORT_PAGE_SIZE, page);
+                if (lastId == 0) {
+                    break;
+                }
+                for (Task task : page) {
+                    writer.write(format.format(TaskRecord.of(task)));
+                    writer.write('\n');
+                }
+                rows += page.size();
+                afterId = lastId;
+            }
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to export tasks to " + file + ": " + e.getMessage(), e);
+        }
+        return new TransferResult(rows, 0, System.nanoTime() - start, List.of(), null);
+    }
+
+    // Imports the tasks in the file, in the format given by its extension.
+    // Invalid rows are skipped and copied to a quarantine file next to the input
+    // (e.g., tasks.rejected.csv), so they can be fixed and imported again.
+    public static TransferResult importTasks(Path file) throws DataPersistenceException {
+        TaskRecordFormat format = TaskRecordFormat.forFile(file);
+        Path quarantineFile = quarantineFileFor(file);
+        long start = System.nanoTime();
+        long imported = 0;
+        long rejected = 0;
+        List<String> errors = new ArrayList<>();
+        List<TaskChange> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+        Writer quarantine = null;
+
+        try (BufferedReader reader = openReader(file)) {
+            StringBuilder record = new StringBuilder();
+            long lineNumber = 0;
+            long recordLine = 0;
+            boolean firstRecord = true;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (record.length() == 0) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    recordLine = lineNumber;
+                } else {
+                    record.append('\n');
+                }
+                record.append(line);
+                String text = record.toString();
+                boolean complete = format.isRecordComplete(text);
+                if (!complete && text.length() <= MAX_RECORD_LENGTH) {
+                    continue;
+                }
+                record.setLength(0);
+
+                if (firstRecord) {
+                    firstRecord = false;
+                    if (complete && format.isHeader(text)) {
+                        continue;
+                    }
+                }
+
+                try {
+                    if (!complete) {
+                        // A stray quote would otherwise make the rest of the file one record
+                        throw new InvalidTaskInputException("Record is not terminated within "
+                                + MAX_RECORD_LENGTH + " characters.");
+                    }
+                    Task task = toValidTask(format.parse(text));
+                    task.setId(DatabaseManager.nextTaskId());
+                    batch.add(TaskChange.add(TaskRecord.of(task)));
+                } catch (InvalidTaskInputException e) {
+                    rejected++;
+                    if (errors.size() < MAX_REPORTED_ERRORS) {
+                        errors.add("Line " + recordLine + ": " + e.getMessage());
+                    }
+                    if (quarantine == null) {
+                        quarantine = openWriter(quarantineFile);
+                        if (format.getHeader() != null) {
+                            quarantine.write(format.getHeader());
+                            quarantine.write('\n');
+                        }
+                    }
+                    quarantine.write(text);
+                    quarantine.write('\n');
+                }
+
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    DatabaseManager.saveChanges(batch);
+                    imported += batch.size();
+                    batch.clear();
+                }
+            }
+            if (record.length() > 0) {
+                rejected++;
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add("Line " + recordLine + ": Record is not terminated.");
+                }
+            }
+            if (!batch.isEmpty()) {
+                DatabaseManager.saveChanges(batch);
+                imported += batch.size();
+            }
+        } catch (IOException e) {
+            throw new DataPersistenceException("Failed to import tasks from " + file + ": " + e.getMessage(), e);
+        } finally {
+            if (quarantine != null) {
+                try {
+                    quarantine.close();
+                } catch (IOException e) {
+                    System.err.println("Failed to close " + quarantineFile + ": " + e.getMessage());
+                }
+            }
+        }
+        return new TransferResult(imported, rejected, System.nanoTime() - start, errors,
+                quarantine != null ? quarantineFile : null);
+    }
+
+    // Creates the task and checks the limits of the database columns.
+    private static Task toValidTask(TaskRecord record) throws InvalidTaskInputException {
+        Task task = record.toTask();
+        TaskService.checkLengths(record.getDescription(), record.getDetails());
+        return task;
+    }
+
+    private static Path quarantineFileFor(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String quarantineName = dot > 0
+                ? name.substring(0, dot) + ".rejected" + name.substring(dot)
+                : name + ".rejected";
+        return file.resolveSibling(quarantineName);
+    }
+
+    private static Writer openWriter(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        return new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE), BUFFER_SIZE);
+    }
+
+    private static BufferedReader openReader(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        return new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE), BUFFER_SIZE), BUFFER_SIZE);
+    }
+}
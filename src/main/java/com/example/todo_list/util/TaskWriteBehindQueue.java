@@ -0,0 +1,590 @@
+package com.example.todo_list.util;
+
+import com.example.todo_list.Task;
+import com.example.todo_list.TaskRecord;
+import com.example.todo_list.exception.DataPersistenceException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Write-behind stage in front of DatabaseManager.
+// Task mutations are snapshotted on the caller's thread and appended to a MutationJournal, which
+// makes them durable with one sequential write. Changes to the same task are merged, and everything
+// queued within the flush window is compacted into the tasks table in one transaction on a
+// background thread, after which the journal segments holding those changes are deleted.
+// Journal segments left over from a crash are replayed when the queue starts.
+//
+// New tasks get their ids from blocks this queue reserves from the id sequence on its background
+// thread, one block ahead, so adding a task does not wait for the database. A task added before
+// any id is reserved, e.g. while the journal is replayed at startup, is held back until the
+// background thread can assign it one (see setIdAssignedHandler).
+//
+// Each change is written against the row version the task was read at, or the version this queue
+// last wrote, whichever is newer (see DatabaseManager.saveChanges). Changes that conflict with a
+// write by another process are dropped and reported to the conflict handler. When a batch fails
+// in a way retrying cannot fix, its changes are written one at a time and the ones that still
+// fail are set aside (see setAside), so one bad change does not keep the journal from compacting.
+public class TaskWriteBehindQueue {
+    private static final long RETRY_DELAY_MILLIS = 5000;
+    private static final String SET_ASIDE_FILE_NAME = "unsaved-tasks.jsonl";
+
+    private final long windowMillis;
+    private final Consumer<DataPersistenceException> errorHandler;
+    private volatile Consumer<List<Integer>> conflictHandler = ids -> { };
+    private volatile Executor taskThread = Runnable::run;
+    private volatile Consumer<Task> idAssignedHandler = task -> { };
+    private final ScheduledExecutorService executor;
+    private final Thread shutdownHook;
+    private final MutationJournal journal;
+    private final CompletableFuture<Void> recovered = new CompletableFuture<>();
+
+    // Guarded by this
+    private Map<Integer, TaskChange> pending = new LinkedHashMap<>();
+    private int inFlight;
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean failureReported;
+    private boolean journalFailureReported;
+    // Reserved task ids: the rest of the current block and the first id of the next one, or 0
+    private int nextTaskId;
+    private int taskIdBlockEnd;
+    private int spareTaskIdBlock;
+    private boolean reservingTaskIds;
+    // New tasks that have no id yet, in the order they were added. Tasks are compared by identity.
+    private final Map<Task, AwaitingId> awaitingIds = new LinkedHashMap<>();
+    // Row versions written by this queue, by task id. Only used on the background thread.
+    private final Map<Integer, Integer> writtenVersions = new HashMap<>();
+    private boolean recovering;
+
+    // Creates a queue that compacts changes at most windowMillis after they are queued.
+    // Once databaseReady completes, changes found in the journal are replayed and compacted first.
+    // Write failures are passed to errorHandler on a background thread.
+    public TaskWriteBehindQueue(long windowMillis, CompletableFuture<?> databaseReady,
+                                Consumer<DataPersistenceException> errorHandler) throws DataPersistenceException {
+        this.windowMillis = windowMillis;
+        this.errorHandler = errorHandler;
+        this.journal = MutationJournal.openFirstFree(new File(DatabaseManager.getDatabaseDirectory(), "journal").toPath());
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "task-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(() -> recover(databaseReady));
+
+        // Make sure queued changes reach the database even if the window is not closed normally
+        this.shutdownHook = new Thread(this::flushQuietly, "task-write-behind-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    // Sets the handler called on the background thread with the ids of tasks whose changes were
+    // dropped because another process changed or deleted the task first. Conflicts of changes
+    // replayed from the journal are expected (they may have been written before) and not reported.
+    public void setConflictHandler(Consumer<List<Integer>> conflictHandler) {
+        this.conflictHandler = conflictHandler;
+    }
+
+    // Sets the handler told about a task that was added before any id was reserved, once the id
+    // the background thread assigned to it is set on it. Ids are set and the handler is called
+    // through taskThread, the thread the tasks are used on.
+    public void setIdAssignedHandler(Executor taskThread, Consumer<Task> idAssignedHandler) {
+        this.taskThread = taskThread;
+        this.idAssignedHandler = idAssignedHandler;
+    }
+
+    // Completes once changes replayed from the journal have been written to the tasks table,
+    // so the table can be read. Also completes if that write failed; the failure is reported
+    // to the error handler and retried.
+    public CompletableFuture<Void> recoveredFuture() {
+        return recovered;
+    }
+
+    // Checks if a task added now is given its id at once. It is not until recovery has reserved the
+    // first block of ids, nor while tasks added before that still wait for theirs.
+    public synchronized boolean hasTaskIds() {
+        return (nextTaskId < taskIdBlockEnd || spareTaskIdBlock != 0) && countTasksWithoutIds() == 0;
+    }
+
+    // Queues the insert of a new task, assigning its id first if it has none. If no id is reserved
+    // yet, the task is held back with its current state until one is assigned to it.
+    // The returned future completes once the change is in the journal.
+    public synchronized CompletableFuture<Void> taskAdded(Task task) throws DataPersistenceException {
+        if (task.getId() == 0) {
+            AwaitingId awaiting = awaitingIds.get(task);
+            if (awaiting != null && awaiting.id != 0) {
+                // Assigned on the background thread, but not set on the task yet
+                TaskRecord record = TaskRecord.of(task).withId(awaiting.id);
+                task.markClean();
+                return enqueue(TaskChange.add(record));
+            }
+            // Tasks waiting for an id get theirs first
+            int id = awaiting == null && countTasksWithoutIds() == 0 ? takeTaskId() : 0;
+            if (id == 0) {
+                if (awaiting == null) {
+                    awaiting = new AwaitingId();
+                    awaitingIds.put(task, awaiting);
+                }
+                awaiting.record = TaskRecord.of(task);
+                task.markClean();
+                assignAwaitingIds();
+                return awaiting.journaled;
+            }
+            task.setId(id);
+        }
+        TaskRecord record = TaskRecord.of(task);
+        task.markClean();
+        return enqueue(TaskChange.add(record));
+    }
+
+    // Queues an update of the task with its current state.
+    public CompletableFuture<Void> taskChanged(Task task) throws DataPersistenceException {
+        if (task.getId() == 0) {
+            return taskAdded(task);
+        }
+        TaskRecord record = TaskRecord.of(task);
+        task.markClean();
+        return enqueue(TaskChange.update(record));
+    }
+
+    // Queues the completion of the task.
+    public CompletableFuture<Void> taskCompleted(Task task) throws DataPersistenceException {
+        if (task.getId() == 0) {
+            return taskAdded(task);
+        }
+        TaskRecord record = TaskRecord.of(task);
+        task.markClean();
+        return enqueue(TaskChange.complete(record));
+    }
+
+    // Queues the deletion of the task. Tasks that never got an id were never stored.
+    public synchronized CompletableFuture<Void> taskRemoved(Task task) {
+        if (task.getId() == 0) {
+            AwaitingId awaiting = awaitingIds.remove(task);
+            if (awaiting == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            if (awaiting.id != 0) {
+                return enqueue(TaskChange.delete(awaiting.id, 0));
+            }
+            awaiting.journaled.complete(null);
+            return awaiting.journaled;
+        }
+        return enqueue(TaskChange.delete(task.getId(), task.getVersion()));
+    }
+
+    // Returns the number of queued changes that have not been written to the tasks table yet,
+    // including new tasks still waiting for an id.
+    public synchronized int getPendingChangeCount() {
+        return pending.size() + inFlight + countTasksWithoutIds();
+    }
+
+    // Writes all queued changes to the tasks table and waits until they are committed.
+    public void flush() throws DataPersistenceException {
+        if (executor.isShutdown()) {
+            return;
+        }
+        try {
+            executor.submit(() -> {
+                writePending();
+                return null;
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DataPersistenceException) {
+                throw (DataPersistenceException) e.getCause();
+            }
+            throw new DataPersistenceException("Failed to flush queued task changes: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    // Starts writing all queued changes to the tasks table without waiting for the flush window.
+    // The returned future completes once they are committed, or exceptionally if that failed.
+    public CompletableFuture<Void> flushAsync() {
+        if (executor.isShutdown()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> {
+            try {
+                writePending();
+            } catch (DataPersistenceException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    // Flushes the remaining changes and stops the background thread and the journal.
+    public void close() {
+        flushQuietly();
+        executor.shutdown();
+        int waiting = countTasksWithoutIds();
+        if (waiting > 0) {
+            System.err.println(waiting + " new tasks were not saved: no task ids could be reserved.");
+        }
+        journal.close();
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // JVM is already shutting down
+        }
+    }
+
+    // Appends the change to the journal and queues it for compaction. Appending under the lock keeps
+    // the journal order equal to the queue order, so a rotation seals exactly the drained changes.
+    private synchronized CompletableFuture<Void> enqueue(TaskChange change) {
+        CompletableFuture<Void> appended = journal.append(change);
+        appended.whenComplete((ignored, error) -> {
+            if (error != null) {
+                reportJournalFailure(error);
+            }
+        });
+        pending.merge(change.getTaskId(), change, TaskChange::then);
+        if (scheduledFlush == null && !executor.isShutdown()) {
+            scheduledFlush = executor.schedule(this::flushScheduled, windowMillis, TimeUnit.MILLISECONDS);
+        }
+        return appended;
+    }
+
+    private void reportJournalFailure(Throwable error) {
+        synchronized (this) {
+            if (journalFailureReported) {
+                return;
+            }
+            journalFailureReported = true;
+        }
+        errorHandler.accept(error instanceof DataPersistenceException
+                ? (DataPersistenceException) error
+                : new DataPersistenceException("Failed to write mutation journal: " + error.getMessage(), error));
+    }
+
+    // Runs first on the background thread. Reads the journal segments left by the previous run and
+    // writes their changes, merged with anything queued since, to the tasks table.
+    private void recover(CompletableFuture<?> databaseReady) {
+        long lastReplayedSegment;
+        try {
+            databaseReady.join();
+            long[] lastSegment = new long[1];
+            List<TaskChange> replayed = journal.readSegments(lastSegment);
+            lastReplayedSegment = lastSegment[0];
+            int maxReplayedId = 0;
+            Map<Integer, TaskChange> merged = new LinkedHashMap<>();
+            for (TaskChange change : replayed) {
+                merged.merge(change.getTaskId(), change, TaskChange::then);
+                maxReplayedId = Math.max(maxReplayedId, change.getTaskId());
+            }
+            // The sequence may not have reached disk before a crash; never hand out a replayed id again
+            DatabaseManager.ensureTaskIdsAbove(maxReplayedId);
+            reserveTaskIds();
+            synchronized (this) {
+                for (TaskChange change : pending.values()) {
+                    merged.merge(change.getTaskId(), change, TaskChange::then);
+                }
+                pending = merged;
+                assignAwaitingIds();
+            }
+            if (!replayed.isEmpty()) {
+                System.out.println("Replayed " + replayed.size() + " task changes from the journal.");
+            }
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            errorHandler.accept(cause instanceof DataPersistenceException
+                    ? (DataPersistenceException) cause
+                    : new DataPersistenceException("Failed to open the database: " + cause.getMessage(), cause));
+            recovered.complete(null);
+            return;
+        } catch (DataPersistenceException e) {
+            errorHandler.accept(e);
+            recovered.complete(null);
+            return;
+        } catch (RuntimeException e) {
+            // Anything else must not keep recoveredFuture() from completing
+            errorHandler.accept(new DataPersistenceException("Failed to replay the mutation journal: " + e.getMessage(), e));
+            recovered.complete(null);
+            return;
+        }
+
+        try {
+            recovering = true;
+            writePending();
+            // Segments without any complete record are not covered by a compaction
+            journal.deleteSegmentsThrough(lastReplayedSegment);
+        } catch (DataPersistenceException e) {
+            // Write failures are reported by writePending and retried; leftover segments go with the next compaction
+        } catch (RuntimeException e) {
+            errorHandler.accept(new DataPersistenceException("Failed to write replayed task changes: " + e.getMessage(), e));
+        } finally {
+            recovering = false;
+            recovered.complete(null);
+            StartupTimings.mark("journal replayed");
+        }
+    }
+
+    // Takes the next reserved task id, or returns 0 if none is reserved yet. Has the background
+    // thread reserve the next block once the spare one is in use.
+    private synchronized int takeTaskId() {
+        if (nextTaskId >= taskIdBlockEnd && spareTaskIdBlock != 0) {
+            nextTaskId = spareTaskIdBlock;
+            taskIdBlockEnd = spareTaskIdBlock + DatabaseManager.ID_BLOCK_SIZE;
+            spareTaskIdBlock = 0;
+        }
+        if (spareTaskIdBlock == 0 && !reservingTaskIds && !executor.isShutdown()) {
+            // Runs after recovery, which reserves the first block
+            reservingTaskIds = true;
+            executor.execute(() -> {
+                try {
+                    reserveTaskIds();
+                } catch (DataPersistenceException e) {
+                    // Tried again with the next id taken
+                    errorHandler.accept(e);
+                } finally {
+                    synchronized (this) {
+                        reservingTaskIds = false;
+                        assignAwaitingIds();
+                    }
+                }
+            });
+        }
+        return nextTaskId < taskIdBlockEnd ? nextTaskId++ : 0;
+    }
+
+    // Assigns ids to the tasks waiting for one, as far as ids are reserved, and queues their adds.
+    // The ids are set on the tasks on the task thread.
+    private synchronized void assignAwaitingIds() {
+        // Copied, as the task thread may be this one
+        for (Map.Entry<Task, AwaitingId> entry : new ArrayList<>(awaitingIds.entrySet())) {
+            Task task = entry.getKey();
+            AwaitingId awaiting = entry.getValue();
+            if (awaiting.id != 0) {
+                continue;
+            }
+            int id = takeTaskId();
+            if (id == 0) {
+                return;
+            }
+            awaiting.id = id;
+            enqueue(TaskChange.add(awaiting.record.withId(id))).whenComplete((ignored, error) -> {
+                if (error != null) {
+                    awaiting.journaled.completeExceptionally(error);
+                } else {
+                    awaiting.journaled.complete(null);
+                }
+            });
+            taskThread.execute(() -> applyAssignedId(task, awaiting));
+        }
+    }
+
+    private synchronized int countTasksWithoutIds() {
+        int count = 0;
+        for (AwaitingId awaiting : awaitingIds.values()) {
+            if (awaiting.id == 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Runs on the task thread. Tasks removed in the meantime are left alone.
+    private void applyAssignedId(Task task, AwaitingId awaiting) {
+        synchronized (this) {
+            if (awaitingIds.get(task) != awaiting) {
+                return;
+            }
+            awaitingIds.remove(task);
+        }
+        task.setId(awaiting.id);
+        idAssignedHandler.accept(task);
+    }
+
+    // Reserves a block of task ids, as the current block if that is used up, else as the spare one.
+    // Runs on the background thread.
+    private void reserveTaskIds() throws DataPersistenceException {
+        int blockStart = DatabaseManager.reserveTaskIds();
+        synchronized (this) {
+            if (nextTaskId >= taskIdBlockEnd) {
+                nextTaskId = blockStart;
+                taskIdBlockEnd = blockStart + DatabaseManager.ID_BLOCK_SIZE;
+            } else {
+                spareTaskIdBlock = blockStart;
+            }
+        }
+    }
+
+    private void flushScheduled() {
+        try {
+            writePending();
+        } catch (DataPersistenceException e) {
+            // Reported by writePending; changes were re-queued for a retry
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (DataPersistenceException e) {
+            System.err.println("Failed to flush queued task changes: " + e.getMessage());
+        }
+    }
+
+    // Moves each change to the newest row version known for its task: the one the task was read
+    // at, or the one this queue wrote since.
+    private List<TaskChange> rebase(List<TaskChange> batch) {
+        List<TaskChange> rebased = new ArrayList<>(batch.size());
+        for (TaskChange change : batch) {
+            Integer written = writtenVersions.get(change.getTaskId());
+            rebased.add(written != null && written > change.getVersion() ? change.withVersion(written) : change);
+        }
+        return rebased;
+    }
+
+    private void recordWrittenVersions(List<TaskChange> batch, List<Integer> conflicts) {
+        for (TaskChange change : batch) {
+            int id = change.getTaskId();
+            if (change.isDelete()) {
+                writtenVersions.remove(id);
+            } else {
+                int base = Math.max(change.getVersion(), writtenVersions.getOrDefault(id, 0));
+                writtenVersions.put(id, base + 1);
+            }
+        }
+        // Whoever resolves a conflict reads the stored row, with its version
+        for (Integer id : conflicts) {
+            writtenVersions.remove(id);
+        }
+    }
+
+    // Runs on the background thread only, so batches are written strictly in order.
+    private void writePending() throws DataPersistenceException {
+        List<TaskChange> batch;
+        CompletableFuture<Long> sealed;
+        synchronized (this) {
+            scheduledFlush = null;
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pending.values());
+            pending = new LinkedHashMap<>();
+            inFlight = batch.size();
+            sealed = journal.rotate();
+        }
+
+        // Changes are removed once they are in the table
+        List<TaskChange> unsaved = new ArrayList<>(batch);
+        try {
+            List<Integer> conflicts = new ArrayList<>();
+            try {
+                conflicts.addAll(DatabaseManager.saveChanges(rebase(unsaved)));
+                recordWrittenVersions(unsaved, conflicts);
+                unsaved.clear();
+            } catch (DataPersistenceException e) {
+                if (!DatabaseManager.isPermanentFailure(e)) {
+                    throw e;
+                }
+                saveEachOrSetAside(unsaved, conflicts);
+            }
+            if (!conflicts.isEmpty() && !recovering) {
+                conflictHandler.accept(conflicts);
+            }
+            // The journal is only dropped once the table itself is on disk
+            DatabaseManager.checkpoint();
+            synchronized (this) {
+                inFlight = 0;
+                failureReported = false;
+            }
+        } catch (DataPersistenceException e) {
+            boolean report;
+            synchronized (this) {
+                inFlight = 0;
+                // Merge newer changes to the same task into the failed ones and retry them later
+                Map<Integer, TaskChange> retry = new LinkedHashMap<>();
+                for (TaskChange change : unsaved) {
+                    retry.put(change.getTaskId(), change);
+                }
+                for (TaskChange change : pending.values()) {
+                    retry.merge(change.getTaskId(), change, TaskChange::then);
+                }
+                pending = retry;
+                if (scheduledFlush == null && !executor.isShutdown()) {
+                    scheduledFlush = executor.schedule(this::flushScheduled, RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                report = !failureReported;
+                failureReported = true;
+            }
+            if (report) {
+                errorHandler.accept(e);
+            }
+            throw e;
+        }
+
+        try {
+            journal.deleteSegmentsThrough(sealed.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // The changes are in the table; their segments are dropped after the next compaction
+        } catch (DataPersistenceException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    // Saves the changes of a batch that failed as a whole one at a time, and sets aside those that
+    // can never be saved, so they do not hold back the others. Saved and set-aside changes are
+    // removed from unsaved; a failure that may pass is thrown with the rest still in it.
+    private void saveEachOrSetAside(List<TaskChange> unsaved, List<Integer> conflicts) throws DataPersistenceException {
+        for (Iterator<TaskChange> it = unsaved.iterator(); it.hasNext(); ) {
+            List<TaskChange> change = List.of(it.next());
+            try {
+                List<Integer> changeConflicts = DatabaseManager.saveChanges(rebase(change));
+                recordWrittenVersions(change, changeConflicts);
+                conflicts.addAll(changeConflicts);
+            } catch (DataPersistenceException e) {
+                if (!DatabaseManager.isPermanentFailure(e)) {
+                    throw e;
+                }
+                setAside(change.get(0), e);
+            }
+            it.remove();
+        }
+    }
+
+    // Appends a change that cannot be saved to unsaved-tasks.jsonl in the database directory, from
+    // where it can be fixed and imported, and reports it.
+    private void setAside(TaskChange change, DataPersistenceException error) {
+        File file = new File(DatabaseManager.getDatabaseDirectory(), SET_ASIDE_FILE_NAME);
+        String outcome = "could not be saved";
+        if (change.getRecord() != null) {
+            try {
+                Files.write(file.toPath(), (new JsonLinesTaskFormat().format(change.getRecord()) + "\n")
+                                .getBytes(StandardCharsets.UTF_8),
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                outcome += " and was set aside in " + file;
+            } catch (IOException e) {
+                outcome += " or set aside in " + file + " (" + e.getMessage() + ")";
+            }
+        }
+        errorHandler.accept(new DataPersistenceException(
+                "Task " + change.getTaskId() + " " + outcome + ". " + error.getMessage(), error));
+    }
+
+    // A new task waiting for an id: its latest state, and its id once assigned on the background thread.
+    private static final class AwaitingId {
+        private final CompletableFuture<Void> journaled = new CompletableFuture<>();
+        private TaskRecord record;
+        private int id;
+    }
+}
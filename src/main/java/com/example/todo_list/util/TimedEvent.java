@@ -0,0 +1,25 @@
+package com.example.todo_list.util;
+
+import jdk.jfr.Event;
+
+// Base of the application's JFR events. An event is started before the measured work and
+// finished after it; finishing also records the duration in the Metrics histogram of the same
+// name, so the registry sees every operation while JFR only keeps what the recording asks for.
+// The transient fields are not part of the recorded event.
+public abstract class TimedEvent extends Event {
+    private transient String metric;
+    private transient long startNanos;
+
+    // Starts timing; metric names the Metrics histogram the duration goes to.
+    protected void startTiming(String metric) {
+        this.metric = metric;
+        this.startNanos = System.nanoTime();
+        begin();
+    }
+
+    // Stops timing, records the duration and commits the event if the recording wants it.
+    public void finish() {
+        Metrics.histogram(metric).record(System.nanoTime() - startNanos);
+        commit();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.todo_list.util;
+
+import java.nio.file.Path;
+import java.util.List;
+
+// Outcome of a bulk import or export.
+public final class TransferResult {
+    private final long rows;
+    private final long rejectedRows;
+    private final long elapsedNanos;
+    private final List<String> errors;
+    private final Path quarantineFile;
+
+    // Constructs a TransferResult.
+    public TransferResult(long rows, long rejectedRows, long elapsedNanos, List<String> errors, Path quarantineFile) {
+        this.rows = rows;
+        this.rejectedRows = rejectedRows;
+        this.elapsedNanos = elapsedNanos;
+        this.errors = List.copyOf(errors);
+        this.quarantineFile = quarantineFile;
+    }
+
+    // Gets the number of rows written or imported.
+    public long getRows() {
+        return rows;
+    }
+
+    // Gets the number of rows that were skipped as invalid.
+    public long getRejectedRows() {
+        return rejectedRows;
+    }
+
+    // Gets the elapsed time in nanoseconds.
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    // Gets the throughput in rows per second.
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rows * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    // Gets the first error messages, with line numbers.
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    // Gets the file rejected rows were written to, or null if no row was rejected.
+    public Path getQuarantineFile() {
+        return quarantineFile;
+    }
+
+    // Returns a one-line summary.
+    @Override
+    public String toString() {
+        String summary = String.format("%d rows in %.2f s (%.0f rows/s)", rows, elapsedNanos / 1e9, getRowsPerSecond());
+        if (rejectedRows > 0) {
+            summary += ", " + rejectedRows + " rejected" + (quarantineFile != null ? " (see " + quarantineFile + ")" : "");
+        }
+        return summary;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.todo_list.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// JFR event for work done on the FX thread: action handlers, search updates and reminders.
+// Long events of this kind are UI stalls.
+@Name("com.example.todo_list.UiAction")
+@Label("UI Action")
+@Category({"Todo List", "UI"})
+@Description("Work done on the JavaFX Application Thread in response to the user or a reminder")
+@StackTrace(false)
+public class UiActionEvent extends TimedEvent {
+    @Label("Action")
+    String action;
+
+    @Label("Task Count")
+    @Description("Tasks in the list")
+    int taskCount;
+
+    @Label("Visible Count")
+    @Description("Tasks shown after filtering")
+    int visibleCount;
+
+    // Starts an event for the named action (e.g., "addTask").
+    public static UiActionEvent start(String action) {
+        UiActionEvent event = new UiActionEvent();
+        event.action = action;
+        event.startTiming("ui." + action);
+        return event;
+    }
+
+    // Sets the list sizes after the action.
+    public void setListSizes(int taskCount, int visibleCount) {
+        this.taskCount = taskCount;
+        this.visibleCount = visibleCount;
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.todo_list.util;
+
+import com.example.todo_list.TaskRecord;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+// Undo and redo history of task edits, kept as a log of commands.
+// Each command holds immutable TaskRecord snapshots of only the tasks it touched, before and
+// after the edit, so recording an edit costs the size of the edit, not of the list. Undoing a
+// command brings those tasks back to their before snapshots; the caller applies that to the
+// task list, so it is saved like any other edit.
+// The history is bounded by an estimate of the memory its snapshots take: when a new command
+// would exceed the budget, the oldest commands are dropped. Must be used on the FX thread.
+public class UndoHistory {
+    // Rough sizes of the objects held per command and per snapshot, in bytes
+    private static final long COMMAND_BYTES = 64;
+    private static final long STEP_BYTES = 24;
+    private static final long RECORD_BYTES = 88;
+    private static final long STRING_BYTES = 40;
+
+    private final long budgetBytes;
+    // Most recent command first
+    private final Deque<Command> undoStack = new ArrayDeque<>();
+    private final Deque<Command> redoStack = new ArrayDeque<>();
+    private long usedBytes;
+    private final ReadOnlyStringWrapper undoLabel = new ReadOnlyStringWrapper();
+    private final ReadOnlyStringWrapper redoLabel = new ReadOnlyStringWrapper();
+
+    // Creates an empty history whose snapshots take at most about budgetBytes. The most recent
+    // command is always kept, even if it alone is larger.
+    public UndoHistory(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    // Records an edit that has been applied, e.g. "Delete", and clears the redo history.
+    public void record(String label, List<Step> steps) {
+        if (steps.isEmpty()) {
+            return;
+        }
+        for (Command command : redoStack) {
+            usedBytes -= command.bytes;
+        }
+        redoStack.clear();
+        Command command = new Command(label, List.copyOf(steps));
+        undoStack.push(command);
+        usedBytes += command.bytes;
+        while (usedBytes > budgetBytes && undoStack.size() > 1) {
+            usedBytes -= undoStack.removeLast().bytes;
+        }
+        updateLabels();
+    }
+
+    // Takes the most recent command off the undo history and returns its steps, to be reverted
+    // in reverse order (after to before). Returns null if there is nothing to undo.
+    public List<Step> undo() {
+        Command command = undoStack.poll();
+        if (command == null) {
+            return null;
+        }
+        redoStack.push(command);
+        updateLabels();
+        return command.steps;
+    }
+
+    // Takes the most recently undone command and returns its steps, to be applied again in
+    // order (before to after). Returns null if there is nothing to redo.
+    public List<Step> redo() {
+        Command command = redoStack.poll();
+        if (command == null) {
+            return null;
+        }
+        undoStack.push(command);
+        updateLabels();
+        return command.steps;
+    }
+
+    // Forgets all commands, e.g. when the tasks they refer to are no longer shown.
+    public void clear() {
+        undoStack.clear();
+        redoStack.clear();
+        usedBytes = 0;
+        updateLabels();
+    }
+
+    // Returns the number of commands that can be undone.
+    public int getUndoCount() {
+        return undoStack.size();
+    }
+
+    // Returns the estimated memory taken by the recorded snapshots, in bytes.
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    // Label of the command undo() would revert, or null if there is none.
+    public ReadOnlyStringProperty undoLabelProperty() {
+        return undoLabel.getReadOnlyProperty();
+    }
+
+    // Label of the command redo() would apply, or null if there is none.
+    public ReadOnlyStringProperty redoLabelProperty() {
+        return redoLabel.getReadOnlyProperty();
+    }
+
+    private void updateLabels() {
+        undoLabel.set(undoStack.isEmpty() ? null : undoStack.peek().label);
+        redoLabel.set(redoStack.isEmpty() ? null : redoStack.peek().label);
+    }
+
+    // Estimates the memory of a snapshot. Its strings are often shared with the live task, but
+    // once the task changes or is deleted only the history holds them, so they are counted.
+    private static long estimateBytes(TaskRecord record) {
+        if (record == null) {
+            return 0;
+        }
+        // Repeat rules are immutable and shared between snapshots; completed occurrences are 4 bytes each
+        long completions = record.getCompletedOccurrences() != null
+                ? (long) Integer.BYTES * record.getCompletedOccurrences().size() : 0;
+        return RECORD_BYTES + estimateBytes(record.getDescription()) + estimateBytes(record.getDetails()) + completions;
+    }
+
+    private static long estimateBytes(String text) {
+        return text == null ? 0 : STRING_BYTES + text.length();
+    }
+
+    // One task changed by a command: its snapshot before the edit (null if it was added) and
+    // after the edit (null if it was deleted).
+    public static final class Step {
+        private final TaskRecord before;
+        private final TaskRecord after;
+
+        private Step(TaskRecord before, TaskRecord after) {
+            this.before = before;
+            this.after = after;
+        }
+
+        // A task that was added.
+        public static Step added(TaskRecord after) {
+            return new Step(null, after);
+        }
+
+        // A task that was deleted.
+        public static Step removed(TaskRecord before) {
+            return new Step(before, null);
+        }
+
+        // A task that was changed in place.
+        public static Step changed(TaskRecord before, TaskRecord after) {
+            return new Step(before, after);
+        }
+
+        // Gets the snapshot before the edit, or null if the task was added.
+        public TaskRecord getBefore() {
+            return before;
+        }
+
+        // Gets the snapshot after the edit, or null if the task was deleted.
+        public TaskRecord getAfter() {
+            return after;
+        }
+    }
+
+    // A recorded edit.
+    private static final class Command {
+        private final String label;
+        private final List<Step> steps;
+        private final long bytes;
+
+        private Command(String label, List<Step> steps) {
+            this.label = label;
+            this.steps = steps;
+            long size = COMMAND_BYTES;
+            for (Step step : steps) {
+                size += STEP_BYTES + estimateBytes(step.before) + estimateBytes(step.after);
+            }
+            this.bytes = size;
+        }
+    }
+}
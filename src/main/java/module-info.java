@@ -3,6 +3,8 @@ module com.example.todo_list {
     requires javafx.fxml;
     requires java.sql;
     requires com.h2database;
+    requires jdk.jfr;
+    requires jdk.httpserver;
 
     opens com.example.todo_list to javafx.fxml;
     exports com.example.todo_list;
@@ -0,0 +1,140 @@
+package com.example.todo_list;
+
+import com.example.todo_list.exception.InvalidTaskInputException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RecurrenceTest {
+    private static final LocalDate DEFAULT_START = LocalDate.of(2026, 10, 19);
+
+    @Test
+    void monthlyFromMonthEndKeepsReturningToMonthEnd() {
+        Recurrence rule = Recurrence.parse("monthly from 2028-01-31", DEFAULT_START);
+
+        assertEquals(dates("2028-01-31", "2028-02-29", "2028-03-31", "2028-04-30", "2028-05-31"),
+                first(rule.occurrences(rule.getStart()), 5));
+        assertEquals(LocalDate.parse("2028-02-29"), rule.latestOnOrBefore(LocalDate.parse("2028-03-30")));
+        assertEquals(LocalDate.parse("2028-03-31"), rule.occurrences(LocalDate.parse("2028-03-01")).next());
+    }
+
+    @Test
+    void weeklyCrossesYearBoundary() {
+        Recurrence rule = Recurrence.parse("every 2 weeks on mon,fri from 2026-12-25", DEFAULT_START);
+
+        assertEquals(dates("2026-12-25", "2027-01-04", "2027-01-08", "2027-01-18", "2027-01-22"),
+                first(rule.occurrences(rule.getStart()), 5));
+        assertEquals(LocalDate.parse("2026-12-25"), rule.latestOnOrBefore(LocalDate.parse("2027-01-03")));
+        assertEquals(LocalDate.parse("2027-01-04"), rule.occurrences(LocalDate.parse("2026-12-26")).next());
+    }
+
+    @Test
+    void untilEndsTheRule() {
+        Recurrence rule = Recurrence.parse("weekly on mon,wed,fri until 2026-10-28", DEFAULT_START);
+
+        assertEquals(dates("2026-10-19", "2026-10-21", "2026-10-23", "2026-10-26", "2026-10-28"),
+                first(rule.occurrences(rule.getStart()), 10));
+        assertEquals(LocalDate.parse("2026-10-26"), rule.latestOnOrBefore(LocalDate.parse("2026-10-27")));
+        assertEquals(LocalDate.parse("2026-10-28"), rule.latestOnOrBefore(LocalDate.parse("2027-06-01")));
+        assertFalse(rule.occurrences(LocalDate.parse("2026-10-29")).hasNext());
+    }
+
+    @Test
+    void countEndsTheRule() {
+        Recurrence rule = Recurrence.parse("every 3 days from 2026-10-01 count 3", DEFAULT_START);
+
+        assertEquals(dates("2026-10-01", "2026-10-04", "2026-10-07"), first(rule.occurrences(rule.getStart()), 10));
+        assertEquals(dates("2026-10-07"), first(rule.occurrences(LocalDate.parse("2026-10-05")), 10));
+        assertEquals(LocalDate.parse("2026-10-07"), rule.latestOnOrBefore(LocalDate.parse("2026-12-01")));
+        assertNull(rule.latestOnOrBefore(LocalDate.parse("2026-09-30")));
+    }
+
+    @Test
+    void lookupsAgreeWithSteppingThroughOccurrences() {
+        String[] rules = {
+                "daily from 2026-10-19",
+                "every 5 days from 2026-02-27 until 2026-06-01",
+                "every 3 weeks on tue,sat,sun from 2026-11-28",
+                "weekly on wed from 2026-12-30 count 10",
+                "every 2 months from 2026-08-31"
+        };
+        LocalDate end = LocalDate.parse("2027-08-01");
+        for (String text : rules) {
+            Recurrence rule = Recurrence.parse(text, DEFAULT_START);
+            List<LocalDate> all = new ArrayList<>();
+            Iterator<LocalDate> occurrences = rule.occurrences(rule.getStart());
+            while (occurrences.hasNext() && all.size() < 500) {
+                all.add(occurrences.next());
+            }
+            for (LocalDate date = rule.getStart().minusDays(3); date.isBefore(end); date = date.plusDays(1)) {
+                LocalDate expectedNext = null;
+                LocalDate expectedLatest = null;
+                for (LocalDate occurrence : all) {
+                    if (!occurrence.isAfter(date)) {
+                        expectedLatest = occurrence;
+                    }
+                    if (!occurrence.isBefore(date) && expectedNext == null) {
+                        expectedNext = occurrence;
+                    }
+                }
+                Iterator<LocalDate> fromDate = rule.occurrences(date);
+                assertEquals(expectedNext, fromDate.hasNext() ? fromDate.next() : null, text + " from " + date);
+                assertEquals(expectedLatest, rule.latestOnOrBefore(date), text + " on or before " + date);
+            }
+        }
+    }
+
+    @Test
+    void firstOpenOccurrenceSkipsCompletedOnes() {
+        Recurrence rule = Recurrence.parse("daily count 3", DEFAULT_START);
+        CompletedOccurrences completed = CompletedOccurrences.of(DEFAULT_START,
+                dates("2026-10-19", "2026-10-20"));
+
+        assertEquals(LocalDate.parse("2026-10-21"), rule.firstOpenOccurrence(DEFAULT_START, completed));
+        assertNull(rule.firstOpenOccurrence(DEFAULT_START, completed.with(LocalDate.parse("2026-10-21"))));
+    }
+
+    @Test
+    void textFormRoundTrips() {
+        for (String text : new String[] {"daily from 2026-10-19", "every 2 weeks on mon,thu from 2026-10-19 until 2026-12-31",
+                "monthly from 2026-01-31 count 12", "every 10 days from 2026-10-19"}) {
+            Recurrence rule = Recurrence.parse(text, DEFAULT_START);
+            assertEquals(text, rule.toString());
+            assertEquals(rule, Recurrence.parse(rule.toString(), null));
+        }
+        assertEquals("weekly on mon", Recurrence.parse("Every Week", DEFAULT_START).getRule());
+    }
+
+    @Test
+    void rejectsInvalidRules() {
+        assertThrows(InvalidTaskInputException.class, () -> Recurrence.parse("monthly on mon", DEFAULT_START));
+        assertThrows(InvalidTaskInputException.class, () -> Recurrence.parse("every 0 days", DEFAULT_START));
+        assertThrows(InvalidTaskInputException.class, () -> Recurrence.parse("every 2 fortnights", DEFAULT_START));
+        assertThrows(InvalidTaskInputException.class, () -> Recurrence.parse("daily until 2026-10-01", DEFAULT_START));
+        assertThrows(InvalidTaskInputException.class, () -> Recurrence.parse("daily", null));
+    }
+
+    private static List<LocalDate> first(Iterator<LocalDate> occurrences, int limit) {
+        List<LocalDate> dates = new ArrayList<>();
+        while (occurrences.hasNext() && dates.size() < limit) {
+            dates.add(occurrences.next());
+        }
+        return dates;
+    }
+
+    private static List<LocalDate> dates(String... texts) {
+        List<LocalDate> dates = new ArrayList<>();
+        for (String text : texts) {
+            dates.add(LocalDate.parse(text));
+        }
+        return dates;
+    }
+}
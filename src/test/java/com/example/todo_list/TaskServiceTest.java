@@ -0,0 +1,36 @@
+package com.example.todo_list;
+
+import com.example.todo_list.exception.InvalidTaskInputException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TaskServiceTest {
+    private final TaskService service = new TaskService();
+
+    @Test
+    void rejectsTextLongerThanItsColumn() {
+        String description = "d".repeat(TaskService.MAX_DESCRIPTION_LENGTH);
+        String details = "x".repeat(TaskService.MAX_DETAILS_LENGTH);
+
+        Task task = service.createTask(TaskService.DETAILED_TASK, " " + description + " ", details, null, null);
+        assertEquals(description, task.getDescription());
+        assertThrows(InvalidTaskInputException.class,
+                () -> service.createTask(TaskService.SIMPLE_TASK, description + "d", null, null, null));
+        assertThrows(InvalidTaskInputException.class,
+                () -> service.createTask(TaskService.DETAILED_TASK, "Read", details + "x", null, null));
+        assertThrows(InvalidTaskInputException.class,
+                () -> service.updateTask(task, TaskService.DETAILED_TASK, "Read", details + "x", null, null));
+        assertThrows(InvalidTaskInputException.class,
+                () -> service.updateTask(task, TaskService.SIMPLE_TASK, description + "d", null, null, null));
+    }
+
+    @Test
+    void ignoresDetailsOfOtherTypes() {
+        Task task = service.createTask(TaskService.SIMPLE_TASK, "Call", "x".repeat(TaskService.MAX_DETAILS_LENGTH + 1),
+                null, null);
+
+        assertEquals("Call", task.getDescription());
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.todo_list.util;
+
+import com.example.todo_list.TaskRecord;
+import com.example.todo_list.exception.InvalidTaskInputException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvTaskFormatTest {
+    private final CsvTaskFormat format = new CsvTaskFormat();
+
+    @Test
+    void parsesAllColumns() {
+        TaskRecord record = format.parse("Deadline,Pay rent,,2026-03-01,09:30,true,monthly");
+
+        assertEquals("Deadline", record.getType());
+        assertEquals("Pay rent", record.getDescription());
+        assertNull(record.getDetails());
+        assertEquals(LocalDate.of(2026, 3, 1), record.getReminderDate());
+        assertEquals(LocalTime.of(9, 30), record.getDueTime());
+        assertTrue(record.isCompleted());
+        assertEquals("monthly from 2026-03-01", record.getRecurrence().toString());
+    }
+
+    @Test
+    void readsRowsWithoutRecurrenceColumn() {
+        TaskRecord record = format.parse("Simple,Call mom,,,,false");
+
+        assertEquals("Call mom", record.getDescription());
+        assertNull(record.getReminderDate());
+        assertFalse(record.isCompleted());
+        assertNull(record.getRecurrence());
+    }
+
+    @Test
+    void quotedFieldsRoundTrip() {
+        TaskRecord record = new TaskRecord(0, "Detailed", "Buy \"good\" milk, eggs", "Line 1\nLine 2",
+                null, null, false);
+
+        String line = format.format(record);
+        assertEquals("Detailed,\"Buy \"\"good\"\" milk, eggs\",\"Line 1\nLine 2\",,,false,", line);
+        assertFalse(format.isRecordComplete("Detailed,Buy milk,\"Line 1"));
+        assertTrue(format.isRecordComplete(line));
+
+        TaskRecord parsed = format.parse(line);
+        assertEquals(record.getDescription(), parsed.getDescription());
+        assertEquals(record.getDetails(), parsed.getDetails());
+    }
+
+    @Test
+    void acceptsBothHeaders() {
+        assertTrue(format.isHeader("type,description,details,reminder_date,due_time,completed,recurrence"));
+        assertTrue(format.isHeader("TYPE,description,details,reminder_date,due_time,completed "));
+        assertFalse(format.isHeader("Simple,type,,,,false"));
+    }
+
+    @Test
+    void rejectsMalformedRows() {
+        assertThrows(InvalidTaskInputException.class, () -> format.parse("Simple,Too few"));
+        assertThrows(InvalidTaskInputException.class, () -> format.parse("Simple,\"Open quote,,,,false"));
+        assertThrows(InvalidTaskInputException.class, () -> format.parse("Simple,Bad date,,2026-02-30,,false"));
+        assertThrows(InvalidTaskInputException.class, () -> format.parse("Simple,Bad flag,,,,yes"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.todo_list.util;
+
+import com.example.todo_list.TaskRecord;
+import com.example.todo_list.exception.InvalidTaskInputException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonLinesTaskFormatTest {
+    private final JsonLinesTaskFormat format = new JsonLinesTaskFormat();
+
+    @Test
+    void parsesFieldsInAnyOrderWithWhitespace() {
+        TaskRecord record = format.parse("{ \"dueTime\" : \"18:05\", \"type\":\"Deadline\", \"description\":\"Submit\","
+                + " \"reminderDate\":\"2026-10-20\", \"completed\":true, \"extra\": 12.5e1 }");
+
+        assertEquals("Deadline", record.getType());
+        assertEquals("Submit", record.getDescription());
+        assertEquals(LocalDate.of(2026, 10, 20), record.getReminderDate());
+        assertEquals(LocalTime.of(18, 5), record.getDueTime());
+        assertTrue(record.isCompleted());
+        assertNull(record.getDetails());
+        assertNull(record.getRecurrence());
+    }
+
+    @Test
+    void escapesRoundTrip() {
+        TaskRecord record = new TaskRecord(0, "Detailed", "Quote \" and \\ backslash", "Tab\there\nnew line \u0001",
+                null, null, false);
+
+        String line = format.format(record);
+        assertFalse(line.contains("\n"));
+        TaskRecord parsed = format.parse(line);
+        assertEquals(record.getDescription(), parsed.getDescription());
+        assertEquals(record.getDetails(), parsed.getDetails());
+        assertEquals("caf\u00e9", format.parse("{\"description\":\"caf\\u00e9\"}").getDescription());
+    }
+
+    @Test
+    void formatsRecurrence() {
+        TaskRecord record = format.parse("{\"type\":\"Simple\",\"description\":\"Standup\",\"reminderDate\":\"2026-10-19\","
+                + "\"completed\":false,\"recurrence\":\"weekly on mon, wed\"}");
+
+        assertEquals("weekly on mon,wed from 2026-10-19", record.getRecurrence().toString());
+        assertTrue(format.format(record).endsWith("\"recurrence\":\"weekly on mon,wed from 2026-10-19\"}"));
+    }
+
+    @Test
+    void rejectsMalformedLines() {
+        assertThrows(InvalidTaskInputException.class, () -> format.parse("{\"description\":\"x\""));
+        assertThrows(InvalidTaskInputException.class, () -> format.parse("{\"description\":\"x\"} trailing"));
+        assertThrows(InvalidTaskInputException.class, () -> format.parse("{\"description\":5}"));
+        assertThrows(InvalidTaskInputException.class, () -> format.parse("{\"completed\":\"yes\"}"));
+        assertThrows(InvalidTaskInputException.class, () -> format.parse("{\"reminderDate\":\"tomorrow\"}"));
+        assertThrows(InvalidTaskInputException.class, () -> format.parse("{\"description\":\"\\u12\"}"));
+        assertThrows(InvalidTaskInputException.class, () -> format.parse("{\"extra\":1.2.3}"));
+    }
+}
@@ -0,0 +1,313 @@
+package com.example.todo_list.util;
+
+import com.example.todo_list.TaskRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MutationJournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void changesRoundTrip() throws Exception {
+        TaskRecord deadline = new TaskRecord(7, "Deadline", "Pay \"rent\"", null,
+                LocalDate.of(2026, 2, 28), LocalTime.of(9, 30), false, 3, 5);
+        TaskRecord detailed = new TaskRecord(8, "Detailed", "Read", "Chapter 1\nand 2", null, null, true, 1, 0);
+        MutationJournal journal = new MutationJournal(directory);
+        journal.append(TaskChange.add(deadline));
+        journal.append(TaskChange.complete(detailed));
+        journal.append(TaskChange.delete(9, 4)).join();
+        journal.close();
+
+        List<TaskChange> replayed = replay();
+        assertEquals(3, replayed.size());
+        assertEquals(TaskChange.Operation.ADD, replayed.get(0).getOperation());
+        assertRecordEquals(deadline, replayed.get(0).getRecord());
+        assertEquals(TaskChange.Operation.COMPLETE, replayed.get(1).getOperation());
+        assertRecordEquals(detailed, replayed.get(1).getRecord());
+        TaskChange delete = replayed.get(2);
+        assertTrue(delete.isDelete());
+        assertEquals(9, delete.getTaskId());
+        assertEquals(4, delete.getVersion());
+        assertNull(delete.getRecord());
+    }
+
+    @Test
+    void tornTailEndsReplayOfSegment() throws Exception {
+        MutationJournal journal = new MutationJournal(directory);
+        for (int id = 1; id <= 3; id++) {
+            journal.append(change(id)).join();
+        }
+        journal.close();
+        Path segment = onlySegment();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        assertEquals(List.of(1, 2), replayedIds());
+    }
+
+    @Test
+    void corruptRecordEndsReplayOfSegment() throws Exception {
+        MutationJournal journal = new MutationJournal(directory);
+        for (int id = 1; id <= 3; id++) {
+            journal.append(change(id)).join();
+        }
+        journal.close();
+        Path segment = onlySegment();
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[bytes.length - 1] ^= 0x55;
+        Files.write(segment, bytes);
+
+        assertEquals(List.of(1, 2), replayedIds());
+    }
+
+    @Test
+    void recordsAfterTornWriteAreReplayed() throws Exception {
+        AtomicBoolean tearNextWrite = new AtomicBoolean();
+        AtomicBoolean failNextOpen = new AtomicBoolean();
+        MutationJournal journal = new FailingJournal(directory, tearNextWrite, failNextOpen);
+        journal.append(change(1)).join();
+        journal.append(change(2)).join();
+        tearNextWrite.set(true);
+        CompletableFuture<Void> torn = journal.append(change(3));
+        assertThrows(CompletionException.class, torn::join);
+        journal.append(change(4)).join();
+        journal.append(change(5)).join();
+        journal.close();
+
+        assertEquals(List.of(1, 2, 4, 5), replayedIds());
+    }
+
+    @Test
+    void appendsContinueWhenNextSegmentCannotBeOpened() throws Exception {
+        AtomicBoolean tearNextWrite = new AtomicBoolean();
+        AtomicBoolean failNextOpen = new AtomicBoolean();
+        MutationJournal journal = new FailingJournal(directory, tearNextWrite, failNextOpen);
+        journal.append(change(1)).join();
+        failNextOpen.set(true);
+        assertEquals(1L, journal.rotate().join());
+        CompletableFuture<Void> failed = journal.append(change(2));
+        assertThrows(CompletionException.class, failed::join);
+        journal.append(change(3)).join();
+        journal.close();
+
+        assertEquals(List.of(1, 3), replayedIds());
+    }
+
+    @Test
+    void unreadableRecordIsSkipped() throws Exception {
+        MutationJournal journal = new MutationJournal(directory);
+        journal.append(change(1)).join();
+        journal.close();
+        Path segment = onlySegment();
+        byte[] written = Files.readAllBytes(segment);
+        // Intact record with an unknown operation, then the first record again
+        byte[] payload = {99, 0, 0, 0, 2};
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer unreadable = ByteBuffer.allocate(8 + payload.length);
+        unreadable.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        Files.write(segment, unreadable.array(), StandardOpenOption.APPEND);
+        Files.write(segment, written, StandardOpenOption.APPEND);
+
+        assertEquals(List.of(1, 1), replayedIds());
+    }
+
+    private List<TaskChange> replay() throws Exception {
+        MutationJournal reopened = new MutationJournal(directory);
+        try {
+            return reopened.readSegments(new long[1]);
+        } finally {
+            reopened.close();
+        }
+    }
+
+    private List<Integer> replayedIds() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        for (TaskChange change : replay()) {
+            ids.add(change.getTaskId());
+        }
+        return ids;
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.filter(path -> path.getFileName().toString().endsWith(".log")).collect(Collectors.toList());
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+
+    private static void assertRecordEquals(TaskRecord expected, TaskRecord actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getDetails(), actual.getDetails());
+        assertEquals(expected.getReminderDate(), actual.getReminderDate());
+        assertEquals(expected.getDueTime(), actual.getDueTime());
+        assertEquals(expected.isCompleted(), actual.isCompleted());
+        assertEquals(expected.getListId(), actual.getListId());
+        assertEquals(expected.getVersion(), actual.getVersion());
+        assertEquals(expected.getRecurrence(), actual.getRecurrence());
+        assertEquals(expected.getCompletedOccurrences(), actual.getCompletedOccurrences());
+    }
+
+    private static TaskChange change(int id) {
+        return TaskChange.update(new TaskRecord(id, "Simple", "Task " + id, null, null, null, false));
+    }
+
+    // Journal whose segment channels can be made to fail the next write halfway, or fail to open.
+    private static final class FailingJournal extends MutationJournal {
+        private final AtomicBoolean tearNextWrite;
+        private final AtomicBoolean failNextOpen;
+
+        FailingJournal(Path directory, AtomicBoolean tearNextWrite, AtomicBoolean failNextOpen) throws Exception {
+            super(directory);
+            this.tearNextWrite = tearNextWrite;
+            this.failNextOpen = failNextOpen;
+        }
+
+        @Override
+        FileChannel openSegment(long number) throws IOException {
+            // Also called from the constructor, before the fields are set
+            if (failNextOpen != null && failNextOpen.getAndSet(false)) {
+                throw new IOException("Simulated open failure");
+            }
+            return new TearingChannel(super.openSegment(number), this);
+        }
+    }
+
+    // Delegates to a real channel, but writes only half of a buffer and then fails when the journal
+    // asks for it. The flag is read from the journal on each write, as the first channel is opened
+    // before the journal's fields are set.
+    private static final class TearingChannel extends FileChannel {
+        private final FileChannel delegate;
+        private final FailingJournal journal;
+
+        TearingChannel(FileChannel delegate, FailingJournal journal) {
+            this.delegate = delegate;
+            this.journal = journal;
+        }
+
+        @Override
+        public int write(ByteBuffer source) throws IOException {
+            if (journal.tearNextWrite.getAndSet(false)) {
+                ByteBuffer half = source.duplicate();
+                half.limit(source.position() + source.remaining() / 2);
+                delegate.write(half);
+                delegate.force(false);
+                throw new IOException("Simulated torn write");
+            }
+            return delegate.write(source);
+        }
+
+        @Override
+        public int read(ByteBuffer destination) throws IOException {
+            return delegate.read(destination);
+        }
+
+        @Override
+        public long read(ByteBuffer[] destinations, int offset, int length) throws IOException {
+            return delegate.read(destinations, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] sources, int offset, int length) throws IOException {
+            return delegate.write(sources, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            delegate.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel source, long position, long count) throws IOException {
+            return delegate.transferFrom(source, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer destination, long position) throws IOException {
+            return delegate.read(destination, position);
+        }
+
+        @Override
+        public int write(ByteBuffer source, long position) throws IOException {
+            return delegate.write(source, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.todo_list.util;
+
+import com.example.todo_list.DeadlineTask;
+import com.example.todo_list.DetailedTask;
+import com.example.todo_list.SimpleTask;
+import com.example.todo_list.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchQueryTest {
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 18);
+    private static final LocalTime NOW = LocalTime.of(12, 0);
+
+    @Test
+    void dueBoundsAreInclusiveOrExclusive() {
+        Task before = deadline("before", TODAY.minusDays(1));
+        Task on = deadline("on", TODAY);
+        Task after = deadline("after", TODAY.plusDays(1));
+        Task none = new SimpleTask("none");
+        List<Task> tasks = List.of(before, on, after, none);
+
+        assertMatches(tasks, "due:today", on);
+        assertMatches(tasks, "due:<today", before);
+        assertMatches(tasks, "due:<=2026-10-18", before, on);
+        assertMatches(tasks, "due:>TODAY", after);
+        assertMatches(tasks, "due:>=today", on, after);
+        assertMatches(tasks, "due:none", none);
+        assertMatches(tasks, "-due:none", before, on, after);
+    }
+
+    @Test
+    void negatedClausesExcludeMatches() {
+        Task milk = new SimpleTask("Buy milk");
+        Task report = new DetailedTask("Write report", "includes milk prices");
+        Task done = new SimpleTask("Call bank");
+        done.setCompleted(true);
+        List<Task> tasks = List.of(milk, report, done);
+
+        assertMatches(tasks, "milk", milk, report);
+        assertMatches(tasks, "milk -type:detailed", milk);
+        assertMatches(tasks, "-milk", done);
+        assertMatches(tasks, "-is:done", milk, report);
+        assertMatches(tasks, "\"buy milk\"", milk);
+        assertMatches(tasks, "-\"buy milk\"", report, done);
+    }
+
+    @Test
+    void unknownFieldsAreText() {
+        Task meeting = new SimpleTask("Meeting at 10:30 with team");
+        Task link = new DetailedTask("Read", "https://example.com/docs");
+        List<Task> tasks = List.of(meeting, link);
+
+        SearchQuery query = SearchQuery.parse("10:30", TODAY, NOW);
+        assertTrue(query.getErrors().isEmpty());
+        assertMatches(tasks, "10:30", meeting);
+        assertMatches(tasks, "https://example.com", link);
+    }
+
+    @Test
+    void invalidClausesAreReportedAndLeftOut() {
+        SearchQuery query = SearchQuery.parse("type:chore due:soon is:later milk", TODAY, NOW);
+
+        assertEquals(3, query.getErrors().size());
+        assertTrue(query.matches(new SimpleTask("milk"), null));
+        assertTrue(SearchQuery.parse("due:2026-13-01", TODAY, NOW).isEmpty());
+    }
+
+    @Test
+    void pushDownCombinesDueRangesAndSkipsNegatedClauses() {
+        TaskQuery query = SearchQuery.parse("type:deadline due:>=2026-10-01 due:<2026-11-01 due:>today -is:done milk",
+                TODAY, NOW).pushDown(TaskQuery.all());
+
+        List<Object> parameters = new ArrayList<>();
+        assertEquals(" AND type = ? AND reminder_date >= ? AND reminder_date <= ?", conditions(query, parameters));
+        assertEquals(List.of("Deadline", TODAY.plusDays(1), LocalDate.of(2026, 10, 31)), parameters);
+    }
+
+    @Test
+    void pushDownKeepsExistingFilters() {
+        TaskQuery existing = TaskQuery.all().ofType("Simple").withCompleted(false)
+                .withReminderBetween(TODAY, null);
+        TaskQuery query = SearchQuery.parse("type:deadline is:done due:tomorrow", TODAY, NOW).pushDown(existing);
+
+        List<Object> parameters = new ArrayList<>();
+        assertEquals(" AND type = ? AND completed = ? AND reminder_date >= ?", conditions(query, parameters));
+        assertEquals(List.of("Simple", false, TODAY), parameters);
+    }
+
+    @Test
+    void longerSearchNarrowsShorterOne() {
+        SearchQuery previous = SearchQuery.parse("mil is:open", TODAY, NOW);
+
+        assertTrue(SearchQuery.parse("milk is:open", TODAY, NOW).narrows(previous));
+        assertFalse(SearchQuery.parse("milk", TODAY, NOW).narrows(previous));
+        assertFalse(SearchQuery.parse("milk is:open", TODAY.plusDays(1), NOW).narrows(previous));
+    }
+
+    private static void assertMatches(List<Task> tasks, String search, Task... expected) {
+        SearchQuery query = SearchQuery.parse(search, TODAY, NOW);
+        assertTrue(query.getErrors().isEmpty(), () -> search + ": " + query.getErrors());
+        for (Task task : tasks) {
+            assertEquals(List.of(expected).contains(task), query.matches(task, null), () -> search + " on " + task);
+        }
+    }
+
+    private static String conditions(TaskQuery query, List<Object> parameters) {
+        StringBuilder sql = new StringBuilder();
+        query.appendConditions(sql, parameters);
+        return sql.toString();
+    }
+
+    private static Task deadline(String description, LocalDate date) {
+        return new DeadlineTask(description, date, null);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.todo_list.util;
+
+import com.example.todo_list.CompletedOccurrences;
+import com.example.todo_list.Recurrence;
+import com.example.todo_list.TaskList;
+import com.example.todo_list.TaskRecord;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TaskChangeTest {
+    private static final LocalDate START = LocalDate.of(2026, 1, 5);
+
+    @Test
+    void addThenUpdateIsAddOfLaterRecord() {
+        TaskChange add = TaskChange.add(record("Draft", 0, null));
+        TaskChange update = TaskChange.update(record("Final", 0, null));
+
+        TaskChange merged = add.then(update);
+
+        assertEquals(TaskChange.Operation.ADD, merged.getOperation());
+        assertEquals(7, merged.getTaskId());
+        assertEquals("Final", merged.getRecord().getDescription());
+    }
+
+    @Test
+    void updateThenCompleteKeepsLaterOperationAndVersion() {
+        TaskChange update = TaskChange.update(record("Draft", 3, null));
+        TaskChange complete = TaskChange.complete(record("Draft", 4, null));
+
+        TaskChange merged = update.then(complete);
+
+        assertEquals(TaskChange.Operation.COMPLETE, merged.getOperation());
+        assertEquals(4, merged.getVersion());
+        assertSame(complete.getRecord(), merged.getRecord());
+    }
+
+    @Test
+    void anythingThenDeleteIsDelete() {
+        TaskChange delete = TaskChange.delete(7, 2);
+
+        assertSame(delete, TaskChange.add(record("Draft", 0, null)).then(delete));
+        assertSame(delete, TaskChange.update(record("Draft", 1, null)).then(delete));
+    }
+
+    @Test
+    void deleteThenAddIsAdd() {
+        TaskChange add = TaskChange.add(record("Again", 0, null));
+
+        assertSame(add, TaskChange.delete(7, 2).then(add));
+    }
+
+    @Test
+    void completedOccurrencesAreMerged() {
+        CompletedOccurrences earlier = CompletedOccurrences.of(START,
+                List.of(START, START.plusWeeks(1), START.plusWeeks(3)));
+        CompletedOccurrences later = CompletedOccurrences.of(START.plusWeeks(2), List.of(START.plusWeeks(2)));
+
+        TaskChange merged = TaskChange.update(record("Standup", 1, earlier))
+                .then(TaskChange.complete(record("Standup", 1, later)));
+
+        CompletedOccurrences completed = merged.getRecord().getCompletedOccurrences();
+        assertEquals(START, completed.getFrom());
+        assertEquals(List.of(START, START.plusWeeks(1), START.plusWeeks(2)), completed.getDates());
+    }
+
+    @Test
+    void laterRecordWithoutOccurrencesKeepsEarlierOnes() {
+        CompletedOccurrences earlier = CompletedOccurrences.of(START, List.of(START));
+
+        TaskChange merged = TaskChange.update(record("Standup", 1, earlier))
+                .then(TaskChange.update(record("Renamed", 1, null)));
+
+        assertEquals("Renamed", merged.getRecord().getDescription());
+        assertSame(earlier, merged.getRecord().getCompletedOccurrences());
+        assertNull(TaskChange.delete(7, 1).getRecord());
+    }
+
+    private static TaskRecord record(String description, int version, CompletedOccurrences completed) {
+        return new TaskRecord(7, "Simple", description, null, START, null, false, TaskList.DEFAULT_LIST_ID, version,
+                completed != null ? Recurrence.parse("weekly", START) : null, completed);
+    }
+}
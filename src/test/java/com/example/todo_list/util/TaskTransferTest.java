@@ -0,0 +1,42 @@
+package com.example.todo_list.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskTransferTest {
+    private static final int ROWS = 2000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void strayQuoteDoesNotSwallowRestOfFile() throws Exception {
+        // Every row is rejected, so the import never opens the database
+        List<String> lines = new ArrayList<>();
+        lines.add("Simple,\"Stray quote,,,,maybe");
+        for (int i = 2; i <= ROWS; i++) {
+            lines.add("Simple,Row " + i + ",,,,maybe");
+        }
+        Path file = directory.resolve("tasks.csv");
+        Files.write(file, lines);
+
+        TransferResult result = TaskTransfer.importTasks(file);
+
+        assertEquals(0, result.getRows());
+        List<String> errors = result.getErrors();
+        assertTrue(errors.get(0).startsWith("Line 1: Record is not terminated"), errors.get(0));
+        assertTrue(errors.get(1).endsWith("Invalid completed value: maybe"), errors.get(1));
+        // The unterminated record ends after a few hundred lines; the rows after it are read one by one
+        assertTrue(result.getRejectedRows() > ROWS - 300, "rejected " + result.getRejectedRows());
+        List<String> quarantined = Files.readAllLines(result.getQuarantineFile());
+        assertEquals("Simple,Row " + ROWS + ",,,,maybe", quarantined.get(quarantined.size() - 1));
+    }
+}